@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package async;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Acquire/release pairs of an {@link AsyncMutex} against a mutex made of {@code synchronized}
+ * and a queue of {@link CompletableFuture}s, alone and contended. Contended threads wait
+ * for their stage to complete, which is what a pipeline does, just without blocking.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class AsyncMutexBenchmarks {
+
+    private static final int N = 4;
+
+    /**
+     * The usual way to get a non-blocking mutex without a dedicated construct.
+     */
+    static class SynchronizedMutex {
+        private final ArrayDeque<CompletableFuture<SynchronizedMutex>> waiters = new ArrayDeque<>();
+        private boolean locked;
+
+        CompletableFuture<SynchronizedMutex> acquire() {
+            synchronized (this) {
+                if(!locked) {
+                    locked = true;
+                    return CompletableFuture.completedFuture(this);
+                }
+                CompletableFuture<SynchronizedMutex> waiter = new CompletableFuture<>();
+                waiters.addLast(waiter);
+                return waiter;
+            }
+        }
+
+        void release() {
+            CompletableFuture<SynchronizedMutex> next;
+            synchronized (this) {
+                next = waiters.pollFirst();
+                if(next == null)
+                    locked = false;
+            }
+            if(next != null)
+                next.complete(this);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class AsyncState {
+        final AsyncMutex mutex = new AsyncMutex();
+    }
+
+    @State(Scope.Benchmark)
+    public static class SynchronizedState {
+        final SynchronizedMutex mutex = new SynchronizedMutex();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(1)
+    public void testAsyncAlone(AsyncState state, Blackhole blackhole) {
+        AsyncMutex.Permit permit = state.mutex.acquire().toCompletableFuture().join();
+        blackhole.consume(permit);
+        permit.release();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testAsyncContended(AsyncState state, Blackhole blackhole) {
+        AsyncMutex.Permit permit = state.mutex.acquire().toCompletableFuture().join();
+        blackhole.consume(permit);
+        permit.release();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(1)
+    public void testSynchronizedAlone(SynchronizedState state, Blackhole blackhole) {
+        SynchronizedMutex mutex = state.mutex.acquire().join();
+        blackhole.consume(mutex);
+        mutex.release();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testSynchronizedContended(SynchronizedState state, Blackhole blackhole) {
+        SynchronizedMutex mutex = state.mutex.acquire().join();
+        blackhole.consume(mutex);
+        mutex.release();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(AsyncMutexBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
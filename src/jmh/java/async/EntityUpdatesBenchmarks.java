@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package async;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.ISpinLock;
+import spinlocks.Q_MCSSpinLock;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * N threads applying updates to randomly picked entities, either each entity locked by
+ * a {@link Q_MCSSpinLock} of its own or the updates handed to the entity's
+ * {@link SerialExecutor} resp. to a {@link KeyedSerialExecutor} running on a pool of N
+ * threads. An operation is a round of updates, for the executors it includes waiting
+ * for them to be applied. Fewer entities mean more contention.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class EntityUpdatesBenchmarks {
+
+    private static final int N = 4;
+    private static final int UPDATES = 64;
+
+    static class Entity {
+        final ISpinLock lock = new Q_MCSSpinLock();
+        SerialExecutor serial;
+        long value;
+    }
+
+    @State(Scope.Benchmark)
+    public static class EntitiesState {
+        @Param({"16", "1024", "1000000"})
+        public int entities;
+
+        Entity[] table;
+        ExecutorService pool;
+        KeyedSerialExecutor<Integer> keyed;
+
+        @Setup
+        public void setUp() {
+            pool = new ForkJoinPool(N);
+            keyed = new KeyedSerialExecutor<>(pool);
+            table = new Entity[entities];
+            for (int e = 0; e < entities; e++) {
+                table[e] = new Entity();
+                table[e].serial = new SerialExecutor(pool);
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws InterruptedException {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RoundState {
+        final AtomicInteger applied = new AtomicInteger();
+
+        void await(int updates) {
+            while(applied.get() < updates)
+                Thread.yield();
+            applied.set(0);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testSpinLocked(EntitiesState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int u = 0; u < UPDATES; u++) {
+            Entity entity = state.table[random.nextInt(state.entities)];
+            entity.lock.lock();
+            try {
+                entity.value++;
+            } finally {
+                entity.lock.unlock();
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testSerialExecutor(EntitiesState state, RoundState round) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int u = 0; u < UPDATES; u++) {
+            Entity entity = state.table[random.nextInt(state.entities)];
+            entity.serial.execute(() -> {
+                entity.value++;
+                round.applied.incrementAndGet();
+            });
+        }
+        round.await(UPDATES);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testKeyedSerialExecutor(EntitiesState state, RoundState round) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int u = 0; u < UPDATES; u++) {
+            int key = random.nextInt(state.entities);
+            Entity entity = state.table[key];
+            state.keyed.execute(key, () -> {
+                entity.value++;
+                round.applied.incrementAndGet();
+            });
+        }
+        round.await(UPDATES);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(EntityUpdatesBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package barriers;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.IWaitStrategy;
+import spinlocks.SpinHintWaitStrategy;
+import spinlocks.SpinThenParkWaitStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Phaser;
+
+/**
+ * Rounds per second through a barrier shared by 2 to 64 parties.
+ *
+ * The benchmark thread is party 0 and every invocation is one round, the other
+ * parties are helper threads going through the barrier in a loop.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+public class BarriersBenchmarks {
+
+    @Param({"2", "4", "8", "16", "32", "64"})
+    public int parties;
+
+    @Param({"SenseReversing", "CombiningTree", "Dissemination", "SpinPhaser", "CyclicBarrier", "Phaser"})
+    public String barrierType;
+
+    /**
+     * Only applies to the spinning barriers, spinning only makes sense with a core per party.
+     */
+    @Param({"SpinHint", "SpinThenPark"})
+    public String waitStrategy;
+
+    private IBarrier barrier;
+    private final List<Thread> helpers = new ArrayList<>();
+    private long rounds;
+
+    /**
+     * Round after which the helpers leave, written before the benchmark thread
+     * arrives at that round so that every helper sees it when leaving the round.
+     */
+    private volatile long lastRound = Long.MAX_VALUE;
+
+    @Setup
+    public void startHelpers() {
+        barrier = newBarrier();
+        rounds = 0;
+        lastRound = Long.MAX_VALUE;
+
+        for (int party = 1; party < parties; party++) {
+            final int me = party;
+            Thread helper = new Thread(() -> {
+                long round = 0;
+                do {
+                    barrier.await(me);
+                } while(++round < lastRound);
+            }, "party" + party);
+            helper.setDaemon(true);
+            helper.start();
+            helpers.add(helper);
+        }
+    }
+
+    @TearDown
+    public void stopHelpers() throws InterruptedException {
+        lastRound = rounds + 1;
+        barrier.await(0);
+
+        for (Thread helper : helpers)
+            helper.join();
+        helpers.clear();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void testRound() {
+        barrier.await(0);
+        rounds++;
+    }
+
+    private IBarrier newBarrier() {
+        IWaitStrategy strategy = "SpinHint".equals(waitStrategy) ?
+                new SpinHintWaitStrategy() : new SpinThenParkWaitStrategy();
+
+        switch (barrierType) {
+            case "SenseReversing":
+                return new SenseReversingBarrier(parties, strategy);
+            case "CombiningTree":
+                return new CombiningTreeBarrier(parties, 4, strategy);
+            case "Dissemination":
+                return new DisseminationBarrier(parties, strategy);
+            case "SpinPhaser":
+                return new SpinPhaser(parties, strategy);
+            case "CyclicBarrier":
+                return new CyclicBarrierAdapter(new CyclicBarrier(parties));
+            case "Phaser":
+                return new PhaserAdapter(new Phaser(parties));
+            default:
+                throw new IllegalArgumentException(barrierType);
+        }
+    }
+
+    private static class CyclicBarrierAdapter implements IBarrier {
+
+        private final CyclicBarrier barrier;
+
+        CyclicBarrierAdapter(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void await(int party) {
+            try {
+                barrier.await();
+            } catch (InterruptedException | BrokenBarrierException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int parties() {
+            return barrier.getParties();
+        }
+    }
+
+    private static class PhaserAdapter implements IBarrier {
+
+        private final Phaser phaser;
+
+        PhaserAdapter(Phaser phaser) {
+            this.phaser = phaser;
+        }
+
+        @Override
+        public void await(int party) {
+            phaser.arriveAndAwaitAdvance();
+        }
+
+        @Override
+        public int parties() {
+            return phaser.getRegisteredParties();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(BarriersBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
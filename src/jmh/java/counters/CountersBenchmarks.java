@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package counters;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.ISpinLock;
+import spinlocks.SpinLockType;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * N threads incrementing a shared counter, the critical section of
+ * {@link spinlocks.SpinLocksBenchmarks} without the lock.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class CountersBenchmarks {
+
+    private static final int N = 8;
+
+    @State(Scope.Benchmark)
+    public static class StripedState {
+        final StripedCounter counter = new StripedCounter();
+    }
+
+    @State(Scope.Benchmark)
+    public static class CombiningTreeState {
+        final CombiningTreeCounter counter = new CombiningTreeCounter(Integer.highestOneBit(N * 2 - 1));
+    }
+
+    @State(Scope.Benchmark)
+    public static class SloppyState {
+        final SloppyCounter counter = new SloppyCounter(1024);
+    }
+
+    @State(Scope.Benchmark)
+    public static class AtomicState {
+        final AtomicLong counter = new AtomicLong();
+    }
+
+    @State(Scope.Benchmark)
+    public static class LongAdderState {
+        final LongAdder counter = new LongAdder();
+    }
+
+    @State(Scope.Benchmark)
+    public static class LockedState {
+        @Param
+        public SpinLockType lockType;
+
+        ISpinLock lock;
+        long counter;
+
+        @Setup
+        public void setUp() {
+            lock = lockType.newLock();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testStriped(StripedState state) {
+        state.counter.increment();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public long testCombiningTree(CombiningTreeState state) {
+        return state.counter.getAndAdd(1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testSloppy(SloppyState state) {
+        state.counter.increment();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public long testAtomicLong(AtomicState state) {
+        return state.counter.incrementAndGet();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testLongAdder(LongAdderState state) {
+        state.counter.increment();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testLocked(LockedState state, Blackhole blackhole) {
+        state.lock.lock();
+        blackhole.consume(++state.counter);
+        state.lock.unlock();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(CountersBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
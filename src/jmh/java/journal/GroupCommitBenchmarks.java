@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package journal;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.ISpinLock;
+import spinlocks.SpinLockType;
+import spinlocks.SpinThenParkWaitStrategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * N threads appending small records to a journal file, a {@link GroupCommitLog} against a
+ * buffer guarded by each {@link ISpinLock} which is written to the file by whoever finds it
+ * full. Appends alone are measured as throughput, appends which wait for their record to be
+ * in the file as latency, which is where the writes of many threads batched by a leader pay off.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class GroupCommitBenchmarks {
+
+    private static final int N = 4;
+    private static final int RECORD_SIZE = 64;
+    private static final int BATCH_CAPACITY = 64 * 1024;
+
+    @State(Scope.Benchmark)
+    public static class GroupCommitState {
+        Path file;
+        GroupCommitLog log;
+
+        @Setup
+        public void setUp() throws IOException {
+            file = Files.createTempFile("journal", ".log");
+            log = GroupCommitLog.open(file, BATCH_CAPACITY, new SpinThenParkWaitStrategy());
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            log.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LockedState {
+        @Param
+        public SpinLockType lockType;
+
+        Path file;
+        LockedLog log;
+
+        @Setup
+        public void setUp() throws IOException {
+            file = Files.createTempFile("journal", ".log");
+            log = new LockedLog(file, lockType.newLock());
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            log.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RecordState {
+        final byte[] record = new byte[RECORD_SIZE];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(N)
+    public long testGroupCommitAppend(GroupCommitState state, RecordState record) throws IOException {
+        return state.log.append(record.record);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(N)
+    public long testGroupCommitAppendAndCommit(GroupCommitState state, RecordState record) throws IOException {
+        return state.log.appendAndCommit(record.record);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(N)
+    public long testLockedAppend(LockedState state, RecordState record) throws IOException {
+        return state.log.append(record.record, false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(N)
+    public long testLockedAppendAndCommit(LockedState state, RecordState record) throws IOException {
+        return state.log.append(record.record, true);
+    }
+
+    /**
+     * The journal as it is without group commit, every append takes the lock.
+     */
+    static class LockedLog {
+
+        private final FileChannel channel;
+        private final ISpinLock lock;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BATCH_CAPACITY);
+        private long position;
+
+        LockedLog(Path file, ISpinLock lock) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            this.lock = lock;
+        }
+
+        long append(byte[] record, boolean commit) throws IOException {
+            lock.lock();
+            try {
+                if(buffer.remaining() < record.length)
+                    writeOut();
+                buffer.put(record);
+                if(commit)
+                    writeOut();
+                return position + buffer.position();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() throws IOException {
+            lock.lock();
+            try {
+                writeOut();
+            } finally {
+                lock.unlock();
+            }
+            channel.close();
+        }
+
+        private void writeOut() throws IOException {
+            buffer.flip();
+            while(buffer.hasRemaining())
+                position += channel.write(buffer, position);
+            buffer.clear();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(GroupCommitBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
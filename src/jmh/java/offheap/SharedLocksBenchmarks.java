@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package offheap;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.CheckCheckSpinLock;
+import spinlocks.ISpinLock;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Uncontended and contended acquisition of a lock of a {@link SharedLockTable} against an
+ * on-heap {@link CheckCheckSpinLock} and against a file lock, the usual way processes
+ * coordinate. File locks are held per process, so they are only measured uncontended.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SharedLocksBenchmarks {
+
+    private static final int N = 4;
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        Path file;
+        SharedLockTable table;
+        ISpinLock lock;
+        long counter;
+
+        @Setup
+        public void setUp() throws IOException {
+            file = Files.createTempFile("locks", ".table");
+            table = SharedLockTable.open(file, 1);
+            lock = table.lockAt(0);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            table.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class HeapState {
+        final ISpinLock lock = new CheckCheckSpinLock();
+        long counter;
+    }
+
+    @State(Scope.Benchmark)
+    public static class FileLockState {
+        Path file;
+        FileChannel channel;
+        long counter;
+
+        @Setup
+        public void setUp() throws IOException {
+            file = Files.createTempFile("locks", ".lock");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(1)
+    public long testSharedUncontended(SharedState state) {
+        return lockAndIncrement(state.lock, state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public long testSharedContended(SharedState state) {
+        return lockAndIncrement(state.lock, state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(1)
+    public long testHeapUncontended(HeapState state) {
+        state.lock.lock();
+        long counter = ++state.counter;
+        state.lock.unlock();
+        return counter;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public long testHeapContended(HeapState state) {
+        state.lock.lock();
+        long counter = ++state.counter;
+        state.lock.unlock();
+        return counter;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(1)
+    public long testFileLockUncontended(FileLockState state) throws IOException {
+        FileLock lock = state.channel.lock();
+        try {
+            return ++state.counter;
+        } finally {
+            lock.release();
+        }
+    }
+
+    private static long lockAndIncrement(ISpinLock lock, SharedState state) {
+        lock.lock();
+        long counter = ++state.counter;
+        lock.unlock();
+        return counter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(SharedLocksBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
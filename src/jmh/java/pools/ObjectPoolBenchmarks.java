@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package pools;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import queues.MPSCLinkedQueue;
+import spinlocks.PaddedAtomicLong;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Allocation rate of short lived buffers and queue nodes, pooled through an {@link ObjectPool}
+ * against allocated every time. {@link #main(String[])} adds the GC profiler ({@code -prof gc}),
+ * whose {@code gc.alloc.rate.norm} is the number of bytes allocated per operation and has to
+ * be zero for the pooled variants once warmed up.
+ *
+ * In the queue groups the nodes are acquired by the producers and released by the consumer,
+ * so they move between the threads through the depot of the pool.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class ObjectPoolBenchmarks {
+
+    private static final int N = 4;
+    private static final int BUFFER_SIZE = 1024;
+    private static final int MAX_OUTSTANDING = 1024;
+    private static final Integer ELEMENT = 42;
+
+    @State(Scope.Benchmark)
+    public static class BufferPoolState {
+        final ObjectPool<ByteBuffer> pool = new ObjectPool<>(() -> ByteBuffer.allocate(BUFFER_SIZE));
+    }
+
+    @State(Scope.Group)
+    public static class QueueState {
+        @Param({"true", "false"})
+        public boolean pooledNodes;
+
+        MPSCLinkedQueue<Integer> queue;
+
+        /**
+         * Elements in the queue, keeps the producers from outrunning the consumer.
+         */
+        final PaddedAtomicLong outstanding = new PaddedAtomicLong();
+
+        @Setup
+        public void setUp() {
+            queue = new MPSCLinkedQueue<>(pooledNodes);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public long testPooledBuffer(BufferPoolState state) {
+        ByteBuffer buffer = state.pool.acquire();
+        buffer.clear();
+        long value = buffer.putLong(0, System.nanoTime()).getLong(0);
+        state.pool.release(buffer);
+        return value;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public ByteBuffer testAllocatedBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.putLong(0, System.nanoTime());
+        return buffer;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPSC")
+    @GroupThreads(N - 1)
+    public boolean testOffer(QueueState state) {
+        if(state.outstanding.get() >= MAX_OUTSTANDING)
+            return false;
+
+        state.outstanding.incrementAndGet();
+        return state.queue.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPSC")
+    @GroupThreads(1)
+    public Integer testPoll(QueueState state) {
+        Integer e = state.queue.poll();
+        if(e != null)
+            state.outstanding.decrementAndGet();
+        return e;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(ObjectPoolBenchmarks.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
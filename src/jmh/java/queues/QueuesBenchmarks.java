@@ -0,0 +1,342 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package queues;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.PaddedAtomicLong;
+import spinlocks.SpinHintWaitStrategy;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hand off throughput of the queues under the producer/consumer
+ * pattern each of them has been made for, against general purpose queues
+ * under the same pattern.
+ *
+ * <p>
+ * Every group keeps its producers at most {@link #CAPACITY} elements ahead of its consumers
+ * through a count of the outstanding elements, the unbounded {@link MPSCLinkedQueue} the same
+ * way as the bounded ones, so no queue gets ahead by offering into a backlog. An attempt
+ * turned away by the count, or failing on a full or an empty queue, still counts as a
+ * benchmark operation; the {@code offered} and {@code polled} counters of {@link HandOffs}
+ * tell the elements actually handed off.
+ * </p>
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class QueuesBenchmarks {
+
+    private static final int N = 4;
+    private static final int CAPACITY = 1024;
+    private static final int BATCH = 32;
+    private static final Integer ELEMENT = 42;
+
+    /**
+     * Elements offered and not polled yet by a group, keeps the producers from outrunning
+     * the consumers.
+     */
+    public abstract static class BackPressure {
+        final PaddedAtomicLong outstanding = new PaddedAtomicLong();
+
+        /**
+         * @return true if the given number of elements may be offered, false if that would
+         * take more than {@link #CAPACITY} elements outstanding
+         */
+        boolean claim(int elements) {
+            if(outstanding.get() + elements > CAPACITY)
+                return false;
+
+            if(outstanding.addAndGet(elements) > CAPACITY) {
+                outstanding.addAndGet(-elements);
+                return false;
+            }
+            return true;
+        }
+
+        void release(int elements) {
+            if(elements > 0)
+                outstanding.addAndGet(-elements);
+        }
+    }
+
+    @State(Scope.Group)
+    public static class MPMCState extends BackPressure {
+        final MPMCBoundedQueue<Integer> queue = new MPMCBoundedQueue<>(CAPACITY, new SpinHintWaitStrategy());
+    }
+
+    @State(Scope.Group)
+    public static class SPSCState extends BackPressure {
+        final SPSCBoundedQueue<Integer> queue = new SPSCBoundedQueue<>(CAPACITY);
+    }
+
+    @State(Scope.Group)
+    public static class MPSCState extends BackPressure {
+        final MPSCLinkedQueue<Integer> queue = new MPSCLinkedQueue<>();
+    }
+
+    @State(Scope.Group)
+    public static class BlockingQueueState extends BackPressure {
+        final ArrayBlockingQueue<Integer> queue = new ArrayBlockingQueue<>(CAPACITY);
+    }
+
+    /**
+     * Elements a thread has handed off successfully, reported next to the attempts.
+     */
+    @State(Scope.Thread)
+    @AuxCounters
+    public static class HandOffs {
+        public long offered;
+        public long polled;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            offered = 0;
+            polled = 0;
+        }
+
+        boolean countOffer(BackPressure state, boolean offered) {
+            if(offered)
+                this.offered++;
+            else
+                state.release(1);
+            return offered;
+        }
+
+        int countOffer(BackPressure state, int offered, int claimed) {
+            this.offered += offered;
+            state.release(claimed - offered);
+            return offered;
+        }
+
+        Integer countPoll(BackPressure state, Integer polled) {
+            if(polled != null) {
+                this.polled++;
+                state.release(1);
+            }
+            return polled;
+        }
+
+        int countPoll(BackPressure state, int polled) {
+            this.polled += polled;
+            state.release(polled);
+            return polled;
+        }
+    }
+
+    /**
+     * Batch of elements offered at once, one per producer thread.
+     */
+    @State(Scope.Thread)
+    public static class Batch {
+        final Integer[] elements = new Integer[BATCH];
+        final Consumer<Integer> sink = e -> {};
+
+        public Batch() {
+            for (int i = 0; i < BATCH; i++)
+                elements[i] = i;
+        }
+    }
+
+    // ---- N producers, N consumers ----
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPMC")
+    @GroupThreads(N)
+    public boolean testMPMCOffer(MPMCState state, HandOffs handOffs) {
+        return state.claim(1) && handOffs.countOffer(state, state.queue.offer(ELEMENT));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPMC")
+    @GroupThreads(N)
+    public Integer testMPMCPoll(MPMCState state, HandOffs handOffs) {
+        return handOffs.countPoll(state, state.queue.poll());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("ArrayBlockingQueue")
+    @GroupThreads(N)
+    public boolean testBlockingQueueOffer(BlockingQueueState state, HandOffs handOffs) {
+        return state.claim(1) && handOffs.countOffer(state, state.queue.offer(ELEMENT));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("ArrayBlockingQueue")
+    @GroupThreads(N)
+    public Integer testBlockingQueuePoll(BlockingQueueState state, HandOffs handOffs) {
+        return handOffs.countPoll(state, state.queue.poll());
+    }
+
+    // ---- 1 producer, 1 consumer ----
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("SPSC")
+    @GroupThreads(1)
+    public boolean testSPSCOffer(SPSCState state, HandOffs handOffs) {
+        return state.claim(1) && handOffs.countOffer(state, state.queue.offer(ELEMENT));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("SPSC")
+    @GroupThreads(1)
+    public Integer testSPSCPoll(SPSCState state, HandOffs handOffs) {
+        return handOffs.countPoll(state, state.queue.poll());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("SPSCBatch")
+    @GroupThreads(1)
+    public int testSPSCBatchOffer(SPSCState state, Batch batch, HandOffs handOffs) {
+        return state.claim(BATCH) ? handOffs.countOffer(state, state.queue.offer(batch.elements), BATCH) : 0;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("SPSCBatch")
+    @GroupThreads(1)
+    public int testSPSCBatchDrain(SPSCState state, Batch batch, HandOffs handOffs) {
+        return handOffs.countPoll(state, state.queue.drain(batch.sink, BATCH));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("SPSCOnMPMC")
+    @GroupThreads(1)
+    public boolean testSPSCOnMPMCOffer(MPMCState state, HandOffs handOffs) {
+        return state.claim(1) && handOffs.countOffer(state, state.queue.offer(ELEMENT));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("SPSCOnMPMC")
+    @GroupThreads(1)
+    public Integer testSPSCOnMPMCPoll(MPMCState state, HandOffs handOffs) {
+        return handOffs.countPoll(state, state.queue.poll());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("SPSCOnArrayBlockingQueue")
+    @GroupThreads(1)
+    public boolean testSPSCOnBlockingQueueOffer(BlockingQueueState state, HandOffs handOffs) {
+        return state.claim(1) && handOffs.countOffer(state, state.queue.offer(ELEMENT));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("SPSCOnArrayBlockingQueue")
+    @GroupThreads(1)
+    public Integer testSPSCOnBlockingQueuePoll(BlockingQueueState state, HandOffs handOffs) {
+        return handOffs.countPoll(state, state.queue.poll());
+    }
+
+    // ---- N producers, 1 consumer ----
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPSC")
+    @GroupThreads(N)
+    public boolean testMPSCOffer(MPSCState state, HandOffs handOffs) {
+        return state.claim(1) && handOffs.countOffer(state, state.queue.offer(ELEMENT));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPSC")
+    @GroupThreads(1)
+    public Integer testMPSCPoll(MPSCState state, HandOffs handOffs) {
+        return handOffs.countPoll(state, state.queue.poll());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPSCBatch")
+    @GroupThreads(N)
+    public int testMPSCBatchOffer(MPSCState state, Batch batch, HandOffs handOffs) {
+        return state.claim(BATCH) ? handOffs.countOffer(state, state.queue.offer(batch.elements), BATCH) : 0;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPSCBatch")
+    @GroupThreads(1)
+    public int testMPSCBatchDrain(MPSCState state, Batch batch, HandOffs handOffs) {
+        return handOffs.countPoll(state, state.queue.drain(batch.sink, BATCH));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPSCOnMPMC")
+    @GroupThreads(N)
+    public boolean testMPSCOnMPMCOffer(MPMCState state, HandOffs handOffs) {
+        return state.claim(1) && handOffs.countOffer(state, state.queue.offer(ELEMENT));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPSCOnMPMC")
+    @GroupThreads(1)
+    public Integer testMPSCOnMPMCPoll(MPMCState state, HandOffs handOffs) {
+        return handOffs.countPoll(state, state.queue.poll());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPSCOnArrayBlockingQueue")
+    @GroupThreads(N)
+    public boolean testMPSCOnBlockingQueueOffer(BlockingQueueState state, HandOffs handOffs) {
+        return state.claim(1) && handOffs.countOffer(state, state.queue.offer(ELEMENT));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("MPSCOnArrayBlockingQueue")
+    @GroupThreads(1)
+    public Integer testMPSCOnBlockingQueuePoll(BlockingQueueState state, HandOffs handOffs) {
+        return handOffs.countPoll(state, state.queue.poll());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(QueuesBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package queues;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.SpinHintWaitStrategy;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Round trip latency of a ping sent through one queue and echoed back
+ * through another one by a dedicated echo thread.
+ *
+ * Run with at least two cores, otherwise the echo thread and the pinging
+ * thread take turns on one core and the numbers are time slices.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(1) // single pinging thread, the SPSC queues allow no more
+public class QueuesRoundTripBenchmarks {
+
+    private static final int CAPACITY = 1024;
+    private static final Integer PING = 42;
+
+    @Param({"SPSC", "MPSC", "MPMC", "ArrayBlockingQueue"})
+    public String queueType;
+
+    private IQueue<Integer> pings;
+    private IQueue<Integer> pongs;
+    private Thread echo;
+    private volatile boolean running;
+
+    @Setup
+    public void startEcho() {
+        pings = newQueue(queueType);
+        pongs = newQueue(queueType);
+        running = true;
+
+        echo = new Thread(() -> {
+            while(running) {
+                Integer ping = pings.poll();
+                if(ping == null)
+                    onSpinWait();
+                else
+                    while(!pongs.offer(ping))
+                        onSpinWait();
+            }
+        }, "echo");
+        echo.setDaemon(true);
+        echo.start();
+    }
+
+    @TearDown
+    public void stopEcho() throws InterruptedException {
+        running = false;
+        echo.join();
+    }
+
+    @Benchmark
+    public Integer testRoundTrip() {
+        pings.offer(PING);
+
+        Integer pong;
+        while((pong = pongs.poll()) == null)
+            onSpinWait();
+        return pong;
+    }
+
+    private static IQueue<Integer> newQueue(String queueType) {
+        switch (queueType) {
+            case "SPSC":
+                return new SPSCBoundedQueue<>(CAPACITY);
+            case "MPSC":
+                return new MPSCLinkedQueue<>();
+            case "MPMC":
+                return new MPMCBoundedQueue<>(CAPACITY, new SpinHintWaitStrategy());
+            case "ArrayBlockingQueue":
+                return new BlockingQueueAdapter<>(new ArrayBlockingQueue<>(CAPACITY));
+            default:
+                throw new IllegalArgumentException(queueType);
+        }
+    }
+
+    /**
+     * Lets a {@link java.util.concurrent.BlockingQueue} take part as an {@link IQueue}.
+     */
+    private static class BlockingQueueAdapter<E> implements IQueue<E> {
+
+        private final ArrayBlockingQueue<E> queue;
+
+        BlockingQueueAdapter(ArrayBlockingQueue<E> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public boolean offer(E e) {
+            return queue.offer(e);
+        }
+
+        @Override
+        public int offer(E[] batch) {
+            int n = 0;
+            while(n < batch.length && queue.offer(batch[n]))
+                n++;
+            return n;
+        }
+
+        @Override
+        public E poll() {
+            return queue.poll();
+        }
+
+        @Override
+        public int drain(Consumer<? super E> consumer, int limit) {
+            int n = 0;
+            E e;
+            while(n < limit && (e = queue.poll()) != null) {
+                consumer.accept(e);
+                n++;
+            }
+            return n;
+        }
+
+        @Override
+        public int size() {
+            return queue.size();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(QueuesRoundTripBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
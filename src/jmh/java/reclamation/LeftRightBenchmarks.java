@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package reclamation;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.CheckCheckSpinLock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Latency of lookups in a symbol map by N readers while a single writer updates it now and
+ * then, a {@link LeftRight} pair of maps against a map guarded by a {@link ReentrantReadWriteLock}.
+ * The percentiles of the reads show the difference: a {@code LeftRight} reader never waits,
+ * a reader of the lock waits for the writer and contends on the lock's reader count.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class LeftRightBenchmarks {
+
+    private static final int READERS = 7;
+    private static final int SYMBOLS = 1024;
+    private static final int WRITER_PAUSE = 100_000;
+
+    @State(Scope.Group)
+    public static class LeftRightState {
+        final LeftRight<Map<Integer, Long>> symbols = new LeftRight<>(newSymbols(), newSymbols(),
+                new CheckCheckSpinLock());
+    }
+
+    @State(Scope.Group)
+    public static class ReadWriteLockState {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Integer, Long> symbols = newSymbols();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Group("LeftRight")
+    @GroupThreads(READERS)
+    public Long testLeftRightRead(LeftRightState state) {
+        int symbol = ThreadLocalRandom.current().nextInt(SYMBOLS);
+        return state.symbols.read(symbols -> symbols.get(symbol));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Group("LeftRight")
+    @GroupThreads(1)
+    public void testLeftRightWrite(LeftRightState state) {
+        Blackhole.consumeCPU(WRITER_PAUSE);
+        int symbol = ThreadLocalRandom.current().nextInt(SYMBOLS);
+        long id = ThreadLocalRandom.current().nextLong();
+        state.symbols.write(symbols -> symbols.put(symbol, id));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Group("ReadWriteLock")
+    @GroupThreads(READERS)
+    public Long testReadWriteLockRead(ReadWriteLockState state) {
+        int symbol = ThreadLocalRandom.current().nextInt(SYMBOLS);
+        state.lock.readLock().lock();
+        try {
+            return state.symbols.get(symbol);
+        } finally {
+            state.lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Group("ReadWriteLock")
+    @GroupThreads(1)
+    public void testReadWriteLockWrite(ReadWriteLockState state) {
+        Blackhole.consumeCPU(WRITER_PAUSE);
+        int symbol = ThreadLocalRandom.current().nextInt(SYMBOLS);
+        long id = ThreadLocalRandom.current().nextLong();
+        state.lock.writeLock().lock();
+        try {
+            state.symbols.put(symbol, id);
+        } finally {
+            state.lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<Integer, Long> newSymbols() {
+        Map<Integer, Long> symbols = new HashMap<>();
+        for (int i = 0; i < SYMBOLS; i++)
+            symbols.put(i, (long) i);
+        return symbols;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(LeftRightBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package reclamation;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.CheckCheckSpinLock;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lookups in a routing table by N readers while a single writer updates it now and then,
+ * a copy-on-write table behind an {@link RcuReference} against a table guarded by a
+ * {@link ReentrantReadWriteLock}, whose readers all write the lock's reader count.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class RcuBenchmarks {
+
+    private static final int READERS = 7;
+    private static final int ROUTES = 1024;
+    private static final int WRITER_PAUSE = 100_000;
+
+    @State(Scope.Group)
+    public static class RcuState {
+        final RcuReference<Map<Integer, Integer>> table = new RcuReference<>(newTable(), new CheckCheckSpinLock(),
+                new EpochReclaimer(), Map::clear);
+    }
+
+    @State(Scope.Group)
+    public static class ReadWriteLockState {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Integer, Integer> table = newTable();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Rcu")
+    @GroupThreads(READERS)
+    public Integer testRcuRead(RcuState state) {
+        int key = ThreadLocalRandom.current().nextInt(ROUTES);
+        return state.table.read(table -> table.get(key));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Rcu")
+    @GroupThreads(1)
+    public void testRcuWrite(RcuState state) {
+        Blackhole.consumeCPU(WRITER_PAUSE);
+        int key = ThreadLocalRandom.current().nextInt(ROUTES);
+        state.table.update(table -> {
+            Map<Integer, Integer> copy = new HashMap<>(table);
+            copy.put(key, key + 1);
+            return copy;
+        });
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("ReadWriteLock")
+    @GroupThreads(READERS)
+    public Integer testReadWriteLockRead(ReadWriteLockState state) {
+        int key = ThreadLocalRandom.current().nextInt(ROUTES);
+        state.lock.readLock().lock();
+        try {
+            return state.table.get(key);
+        } finally {
+            state.lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("ReadWriteLock")
+    @GroupThreads(1)
+    public void testReadWriteLockWrite(ReadWriteLockState state) {
+        Blackhole.consumeCPU(WRITER_PAUSE);
+        int key = ThreadLocalRandom.current().nextInt(ROUTES);
+        state.lock.writeLock().lock();
+        try {
+            state.table.put(key, key + 1);
+        } finally {
+            state.lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<Integer, Integer> newTable() {
+        Map<Integer, Integer> table = new HashMap<>();
+        for (int i = 0; i < ROUTES; i++)
+            table.put(i, i);
+        return table;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(RcuBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
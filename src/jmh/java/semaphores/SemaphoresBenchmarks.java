@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package semaphores;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * N threads going through a section guarded by a semaphore of fewer
+ * permits than threads, so that permits keep getting handed off.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SemaphoresBenchmarks {
+
+    private static final int N = 8;
+    private static final int PERMITS = 2;
+
+    @State(Scope.Benchmark)
+    public static class QueuedSpinState {
+        final QueuedSpinSemaphore semaphore = new QueuedSpinSemaphore(PERMITS);
+    }
+
+    @State(Scope.Benchmark)
+    public static class NonFairState {
+        final Semaphore semaphore = new Semaphore(PERMITS, false);
+    }
+
+    @State(Scope.Benchmark)
+    public static class FairState {
+        final Semaphore semaphore = new Semaphore(PERMITS, true);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testQueuedSpin(QueuedSpinState state) {
+        state.semaphore.acquire();
+        Blackhole.consumeCPU(50);
+        state.semaphore.release();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testNonFair(NonFairState state) {
+        state.semaphore.acquireUninterruptibly();
+        Blackhole.consumeCPU(50);
+        state.semaphore.release();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testFair(FairState state) {
+        state.semaphore.acquireUninterruptibly();
+        Blackhole.consumeCPU(50);
+        state.semaphore.release();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(SemaphoresBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sets;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.CheckCheckSpinLock;
+import spinlocks.ISpinLock;
+
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a price level index under a mix of 80% lookups, 10% additions and 10% removals
+ * over a range of keys, the sets of this package against a {@link ConcurrentSkipListMap} and
+ * a {@link TreeMap} guarded by a single spin lock. The set is prefilled with half of the range.
+ *
+ * The linked sets are linear in the range, so they are only worth a look with the small ranges.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class SortedSetsBenchmarks {
+
+    public enum SetType {
+        CoupledLock, Optimistic, Lazy, LazySkipList, ConcurrentSkipListMap, LockedTreeMap
+    }
+
+    @Param({"CoupledLock", "Optimistic", "Lazy", "LazySkipList", "ConcurrentSkipListMap", "LockedTreeMap"})
+    public SetType setType;
+
+    @Param({"128", "65536"})
+    public int range;
+
+    private ILongSet set;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        set = newSet(setType);
+        for (long key = 0; key < range; key += 2)
+            set.add(key);
+    }
+
+    @Benchmark
+    public boolean testMixedOperations() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long key = random.nextInt(range);
+        int op = random.nextInt(10);
+        if(op == 0)
+            return set.add(key);
+        if(op == 1)
+            return set.remove(key);
+        return set.contains(key);
+    }
+
+    private static ILongSet newSet(SetType setType) {
+        switch (setType) {
+            case CoupledLock:
+                return new CoupledLockLinkedSet();
+            case Optimistic:
+                return new OptimisticLinkedSet();
+            case Lazy:
+                return new LazyLinkedSet();
+            case LazySkipList:
+                return new LazySkipListSet();
+            case ConcurrentSkipListMap:
+                return new SkipListMapSet();
+            case LockedTreeMap:
+                return new LockedTreeMapSet();
+            default:
+                throw new IllegalArgumentException(setType.name());
+        }
+    }
+
+    /**
+     * Boxing adapter over {@link ConcurrentSkipListMap}, the map is what an index of
+     * price levels would otherwise be built with.
+     */
+    private static class SkipListMapSet implements ILongSet {
+
+        private final ConcurrentSkipListMap<Long, Long> map = new ConcurrentSkipListMap<>();
+
+        @Override
+        public boolean add(long key) {
+            return map.putIfAbsent(key, key) == null;
+        }
+
+        @Override
+        public boolean remove(long key) {
+            return map.remove(key) != null;
+        }
+
+        @Override
+        public boolean contains(long key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+    }
+
+    private static class LockedTreeMapSet implements ILongSet {
+
+        private final ISpinLock lock = new CheckCheckSpinLock();
+        private final TreeMap<Long, Long> map = new TreeMap<>();
+
+        @Override
+        public boolean add(long key) {
+            lock.lock();
+            try {
+                return map.putIfAbsent(key, key) == null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean remove(long key) {
+            lock.lock();
+            try {
+                return map.remove(key) != null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean contains(long key) {
+            lock.lock();
+            try {
+                return map.containsKey(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int size() {
+            lock.lock();
+            try {
+                return map.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(SortedSetsBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
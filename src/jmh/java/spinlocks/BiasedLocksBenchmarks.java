@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@link BiasedSpinLock} against {@link CheckCheckSpinLock} when one thread takes
+ * the lock most of the time.
+ *
+ * <ul>
+ *  <li>Owner only - a single thread, the biased lock never executes a read-modify-write.</li>
+ *  <li>Rare intruder - the owner against an intruder which takes the lock now and then.</li>
+ *  <li>Revoked - the owner against an intruder which takes the lock all the time, the bias
+ *  gets revoked early in the iteration.</li>
+ *  <li>Revocation - a fresh biased lock per invocation, locked by the owner, revoked and locked again,
+ *  against a fresh {@link CheckCheckSpinLock} locked twice.</li>
+ * </ul>
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class BiasedLocksBenchmarks {
+
+    private static final int INTRUDER_PAUSE = 1_000;
+
+    @State(Scope.Group)
+    public static class LockState {
+        @Param({"Biased", "CheckCheck"})
+        public String lockType;
+
+        ISpinLock lock;
+        long counter;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            lock = "Biased".equals(lockType) ? new BiasedSpinLock(64) : new CheckCheckSpinLock();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("OwnerOnly")
+    @GroupThreads(1)
+    public long testOwnerOnly(LockState state) {
+        return lockAndIncrement(state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("RareIntruder")
+    @GroupThreads(1)
+    public long testRareIntruderOwner(LockState state) {
+        return lockAndIncrement(state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("RareIntruder")
+    @GroupThreads(1)
+    public long testRareIntruder(LockState state) {
+        Blackhole.consumeCPU(INTRUDER_PAUSE);
+        return lockAndIncrement(state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Revoked")
+    @GroupThreads(1)
+    public long testRevokedOwner(LockState state) {
+        return lockAndIncrement(state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Revoked")
+    @GroupThreads(1)
+    public long testRevokedIntruder(LockState state) {
+        return lockAndIncrement(state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void testRevocation(Blackhole blackhole) {
+        BiasedSpinLock lock = new BiasedSpinLock();
+        lock.lock();
+        blackhole.consume(lock);
+        lock.unlock();
+
+        lock.revokeBias();
+        lock.lock();
+        blackhole.consume(lock);
+        lock.unlock();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void testFreshCheckCheck(Blackhole blackhole) {
+        CheckCheckSpinLock lock = new CheckCheckSpinLock();
+        lock.lock();
+        blackhole.consume(lock);
+        lock.unlock();
+
+        lock.lock();
+        blackhole.consume(lock);
+        lock.unlock();
+    }
+
+    private static long lockAndIncrement(LockState state) {
+        state.lock.lock();
+        long counter = ++state.counter;
+        state.lock.unlock();
+        return counter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(BiasedLocksBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
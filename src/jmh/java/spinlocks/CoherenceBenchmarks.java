@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.LinuxPerfAsmProfiler;
+import org.openjdk.jmh.profile.LinuxPerfNormProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Every {@link SpinLockType} doing bare lock/unlock pairs, alone and contended, profiled
+ * with the hardware counters of Linux {@code perf} so that locks can be compared by the
+ * cache coherence traffic they cause rather than by throughput on a single machine.
+ *
+ * <p>
+ * {@link #main(String[])} adds the {@code perfnorm} profiler, which reports cycles,
+ * instructions, L1 data cache and last level cache load misses normalized per operation,
+ * i.e. per lock/unlock pair. Passing {@code asm} adds the {@code perfasm} profiler showing
+ * the hottest instructions as well. Results go to {@code build/reports/jmh/coherence.json}
+ * including the normalized counters. Without {@code perf}, or without the permission to use
+ * it, the benchmarks run for throughput only.
+ * </p>
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class CoherenceBenchmarks {
+
+    private static final int N = 4;
+
+    private static final String EVENTS = "cycles,instructions,L1-dcache-load-misses,LLC-load-misses";
+
+    @State(Scope.Benchmark)
+    public static class LockState {
+        @Param
+        public SpinLockType lockType;
+
+        ISpinLock lock;
+
+        @Setup
+        public void setUp() {
+            lock = lockType.newLock();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(1)
+    public void testAlone(LockState state) {
+        state.lock.lock();
+        state.lock.unlock();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testContended(LockState state) {
+        state.lock.lock();
+        state.lock.unlock();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+
+        File results = new File("build/reports/jmh/coherence.json");
+        results.getParentFile().mkdirs();
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(CoherenceBenchmarks.class.getSimpleName())
+                .result(results.getPath())
+                .resultFormat(ResultFormatType.JSON)
+                .forks(1);
+
+        if(isPerfAvailable()) {
+            options.addProfiler(LinuxPerfNormProfiler.class, "events=" + EVENTS);
+            if(Arrays.asList(args).contains("asm"))
+                options.addProfiler(LinuxPerfAsmProfiler.class);
+        } else {
+            System.out.println("perf is not available, measuring throughput only");
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * Tells whether {@code perf} is installed and may read the counters used here, which
+     * e.g. a restrictive {@code perf_event_paranoid} setting or a container might deny.
+     */
+    private static boolean isPerfAvailable() {
+        try {
+            Process perf = new ProcessBuilder("perf", "stat", "-x", ",", "-e", EVENTS, "true")
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(nullFile()))
+                    .start();
+            if(!perf.waitFor(10, TimeUnit.SECONDS)) {
+                perf.destroy();
+                return false;
+            }
+            return perf.exitValue() == 0;
+        } catch (IOException e) {
+            return false; // not installed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static File nullFile() {
+        return new File(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+    }
+}
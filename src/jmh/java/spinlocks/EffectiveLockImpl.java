@@ -37,6 +37,7 @@ public class EffectiveLockImpl {
     static final ISpinLock checkCheckLock = new CheckCheckSpinLock();
     static final ISpinLock clhQLock = new Q_CLHSpinLock();
     static final ISpinLock mcsQLock = new Q_MCSSpinLock();
+    static final ISpinLock hemlockQLock = new Q_HemlockSpinLock();
     static final ISpinLock simpleBackoffLock = new CheckWithSimpleBackoffSpinLock(5);
     static final ISpinLock adaptiveBackoffLock = new CheckWithAdaptiveBackoffSpinLock(5, 10);
 }
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * N threads updating randomly picked records out of a large table, every record guarded
+ * by a lock embedded as a field against every record owning a {@link CheckCheckSpinLock}.
+ * Run with the GC profiler ({@code -prof gc}) or compare heap dumps for the footprint.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class EmbeddedLocksBenchmarks {
+
+    private static final int N = 8;
+    private static final int RECORDS = 1 << 20;
+
+    private static final AtomicIntegerFieldUpdater<EmbeddedRecord> LOCK =
+            AtomicIntegerFieldUpdater.newUpdater(EmbeddedRecord.class, "lock");
+    private static final AtomicLongFieldUpdater<EmbeddedRecord> TICKET =
+            AtomicLongFieldUpdater.newUpdater(EmbeddedRecord.class, "ticket");
+
+    static class EmbeddedRecord {
+        volatile int lock;
+        volatile long ticket;
+        long value;
+    }
+
+    static class LockedRecord {
+        final ISpinLock lock = new CheckCheckSpinLock();
+        long value;
+    }
+
+    @State(Scope.Benchmark)
+    public static class EmbeddedState {
+        @Param({"TTAS", "Ticket", "Backoff"})
+        public String lockType;
+
+        IEmbeddedSpinLock<EmbeddedRecord> lock;
+        EmbeddedRecord[] records;
+
+        @Setup
+        public void setUp() {
+            switch (lockType) {
+                case "Ticket":
+                    lock = new EmbeddedTicketSpinLock<>(TICKET);
+                    break;
+                case "Backoff":
+                    lock = new EmbeddedBackoffSpinLock<>(LOCK);
+                    break;
+                default:
+                    lock = new EmbeddedTTASSpinLock<>(LOCK);
+            }
+
+            records = new EmbeddedRecord[RECORDS];
+            for (int i = 0; i < RECORDS; i++)
+                records[i] = new EmbeddedRecord();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LockedState {
+        LockedRecord[] records;
+
+        @Setup
+        public void setUp() {
+            records = new LockedRecord[RECORDS];
+            for (int i = 0; i < RECORDS; i++)
+                records[i] = new LockedRecord();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public long testEmbedded(EmbeddedState state) {
+        EmbeddedRecord record = state.records[ThreadLocalRandom.current().nextInt(RECORDS)];
+        state.lock.lock(record);
+        long value = ++record.value;
+        state.lock.unlock(record);
+        return value;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public long testLockObject(LockedState state) {
+        LockedRecord record = state.records[ThreadLocalRandom.current().nextInt(RECORDS)];
+        record.lock.lock();
+        long value = ++record.value;
+        record.lock.unlock();
+        return value;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(EmbeddedLocksBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * N readers and a single writer on a pair of values, the readers running optimistically
+ * on an {@link OptimisticSpinLock} against readers taking a plain {@link CheckCheckSpinLock}
+ * and readers using the optimistic mode of a {@link StampedLock}.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class OptimisticReadsBenchmarks {
+
+    private static final int READERS = 7;
+    private static final int WRITER_PAUSE = 1_000;
+
+    @State(Scope.Group)
+    public static class OptimisticState {
+        final OptimisticSpinLock lock = new OptimisticSpinLock();
+        long first, second;
+    }
+
+    @State(Scope.Group)
+    public static class LockedState {
+        final ISpinLock lock = new CheckCheckSpinLock();
+        long first, second;
+    }
+
+    @State(Scope.Group)
+    public static class StampedState {
+        final StampedLock lock = new StampedLock();
+        long first, second;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Optimistic")
+    @GroupThreads(READERS)
+    public long testOptimisticRead(OptimisticState state) {
+        return state.lock.read(() -> state.first + state.second);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Optimistic")
+    @GroupThreads(1)
+    public void testOptimisticWrite(OptimisticState state) {
+        Blackhole.consumeCPU(WRITER_PAUSE);
+        state.lock.lock();
+        state.first++;
+        state.second--;
+        state.lock.unlock();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Locked")
+    @GroupThreads(READERS)
+    public long testLockedRead(LockedState state) {
+        state.lock.lock();
+        long sum = state.first + state.second;
+        state.lock.unlock();
+        return sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Locked")
+    @GroupThreads(1)
+    public void testLockedWrite(LockedState state) {
+        Blackhole.consumeCPU(WRITER_PAUSE);
+        state.lock.lock();
+        state.first++;
+        state.second--;
+        state.lock.unlock();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Stamped")
+    @GroupThreads(READERS)
+    public long testStampedRead(StampedState state) {
+        long stamp = state.lock.tryOptimisticRead();
+        long sum = state.first + state.second;
+        if(!state.lock.validate(stamp)) {
+            stamp = state.lock.readLock();
+            try {
+                sum = state.first + state.second;
+            } finally {
+                state.lock.unlockRead(stamp);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Stamped")
+    @GroupThreads(1)
+    public void testStampedWrite(StampedState state) {
+        Blackhole.consumeCPU(WRITER_PAUSE);
+        long stamp = state.lock.writeLock();
+        state.first++;
+        state.second--;
+        state.lock.unlockWrite(stamp);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(OptimisticReadsBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
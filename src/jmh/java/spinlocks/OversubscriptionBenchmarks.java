@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * More threads than cores contending on a single lock, the setup in which a FIFO hand
+ * over keeps passing the lock to descheduled waiters. The number of threads given here
+ * is meant for a few cores, {@link #main(String[])} runs four threads per core.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class OversubscriptionBenchmarks {
+
+    private static final int OVERSUBSCRIPTION = 4;
+
+    @State(Scope.Benchmark)
+    public static class LockState {
+        @Param({"TimePublished", "MCS", "CLH", "CheckCheck"})
+        public SpinLockType lockType;
+
+        ISpinLock lock;
+
+        @Setup
+        public void setUp() {
+            lock = lockType.newLock();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(16)
+    public void testOversubscribed(LockState state) {
+        state.lock.lock();
+        Blackhole.consumeCPU(10);
+        state.lock.unlock();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("cores = " + cores);
+        Options options = new OptionsBuilder()
+                .include(OversubscriptionBenchmarks.class.getSimpleName())
+                .threads(cores * OVERSUBSCRIPTION)
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
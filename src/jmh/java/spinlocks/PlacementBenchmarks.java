@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import affinity.CpuTopology;
+import affinity.Placement;
+import affinity.ThreadAffinity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contended locks with the threads pinned to hardware threads of one core, to cores of one
+ * socket or to cores of different sockets, see {@link Placement}. The cost of handing a lock
+ * over is the cost of moving its cache line between the threads, which depends on what they
+ * share far more than on the lock itself.
+ *
+ * A placement the machine does not allow, e.g. cross socket on a single socket machine,
+ * leaves the threads unpinned and says so, so those numbers are not to be compared.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class PlacementBenchmarks {
+
+    private static final int N = 2;
+
+    @State(Scope.Benchmark)
+    public static class PlacedLockState {
+        @Param({"SameCore", "SameSocket", "CrossSocket", "Unpinned"})
+        public Placement placement;
+
+        @Param({"CheckCheck", "MCS", "CLH", "Hemlock"})
+        public SpinLockType type;
+
+        ISpinLock lock;
+        int[] cpus;
+        final AtomicInteger threads = new AtomicInteger();
+
+        @Setup
+        public void setUp() {
+            lock = type.newLock();
+            threads.set(0);
+
+            CpuTopology topology = CpuTopology.readAllowed();
+            if(!ThreadAffinity.isSupported())
+                System.out.println("\nthreads can't be pinned here, running unpinned");
+            else if(!placement.isPossible(topology, N))
+                System.out.printf("\n%s placement not possible on %s, running unpinned%n", placement, topology);
+            else
+                cpus = placement.cpus(topology, N);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PinnedThreadState {
+
+        /**
+         * CPUs the thread ran on before being pinned, null if it has not been.
+         */
+        int[] previous;
+
+        @Setup
+        public void setUp(PlacedLockState state) {
+            if(state.cpus == null)
+                return;
+
+            int cpu = state.cpus[state.threads.getAndIncrement() % state.cpus.length];
+            int[] affinity = ThreadAffinity.affinity();
+            if(ThreadAffinity.pin(cpu))
+                previous = affinity;
+            else
+                System.out.printf("\n%s could not be pinned to cpu%d%n", Thread.currentThread().getName(), cpu);
+        }
+
+        @TearDown
+        public void tearDown() {
+            if(previous == null)
+                return;
+
+            boolean restored = previous.length > 0 ? ThreadAffinity.pin(previous) : ThreadAffinity.unpin();
+            if(!restored)
+                System.out.printf("\n%s could not be unpinned%n", Thread.currentThread().getName());
+            previous = null;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public void testPlacedLock(PlacedLockState state, PinnedThreadState thread) {
+        state.lock.lock();
+        Blackhole.consumeCPU(10);
+        state.lock.unlock();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        CpuTopology topology = CpuTopology.readAllowed();
+        System.out.println("topology = " + topology);
+        for (Placement placement : Placement.values()) {
+            if(placement.isPossible(topology, N))
+                System.out.println(placement + " = " + Arrays.toString(placement.cpus(topology, N)));
+        }
+
+        Options options = new OptionsBuilder()
+                .include(PlacementBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
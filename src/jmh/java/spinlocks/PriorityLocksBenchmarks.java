@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency percentiles of acquiring a lock per priority class: one order entry thread with
+ * short critical sections shares a book with several reporting threads holding it longer.
+ * {@link PrioritySpinLock} is compared to the FIFO {@link Q_MCSSpinLock}, with which the
+ * order entry thread queues up behind every reporting thread.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class PriorityLocksBenchmarks {
+
+    private static final int ORDER_ENTRY = Thread.MAX_PRIORITY;
+    private static final int REPORTING = Thread.MIN_PRIORITY;
+
+    @State(Scope.Group)
+    public static class BookState {
+        @Param({"Priority", "MCS"})
+        public String type;
+
+        ISpinLock lock;
+        long orders;
+
+        @Setup
+        public void setUp() {
+            lock = "Priority".equals(type) ? new PrioritySpinLock() : new Q_MCSSpinLock();
+        }
+
+        void lock(int priority) {
+            if(lock instanceof PrioritySpinLock)
+                ((PrioritySpinLock) lock).lock(priority);
+            else
+                lock.lock();
+        }
+    }
+
+    @Benchmark
+    @Group("book")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long orderEntry(BookState book) {
+        book.lock(ORDER_ENTRY);
+        try {
+            Blackhole.consumeCPU(20);
+            return ++book.orders;
+        } finally {
+            book.lock.unlock();
+        }
+    }
+
+    @Benchmark
+    @Group("book")
+    @GroupThreads(3)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long reporting(BookState book) {
+        book.lock(REPORTING);
+        try {
+            Blackhole.consumeCPU(500);
+            return book.orders;
+        } finally {
+            book.lock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(PriorityLocksBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.function.Supplier;
+
+/**
+ * Every {@link ISpinLock} implementation, so that benchmarks of constructs
+ * guarded by a lock can take the lock as a JMH parameter.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public enum SpinLockType {
+
+    Vanilla(VanillaNoisySpinLock::new),
+    CheckCheck(CheckCheckSpinLock::new),
+    SimpleBackoff(() -> new CheckWithSimpleBackoffSpinLock(5)),
+    AdaptiveBackoff(() -> new CheckWithAdaptiveBackoffSpinLock(5, 10)),
+    CLH(Q_CLHSpinLock::new),
+    MCS(Q_MCSSpinLock::new),
+    SpinThenPark(Q_SpinThenParkLock::new),
+    Hemlock(Q_HemlockSpinLock::new),
+    TimePublished(Q_TimePublishedSpinLock::new),
+    Biased(BiasedSpinLock::new),
+    Priority(PrioritySpinLock::new);
+
+    private final Supplier<ISpinLock> factory;
+
+    SpinLockType(Supplier<ISpinLock> factory) {
+        this.factory = factory;
+    }
+
+    public ISpinLock newLock() {
+        return factory.get();
+    }
+}
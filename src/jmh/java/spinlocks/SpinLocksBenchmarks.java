@@ -99,6 +99,16 @@ public class SpinLocksBenchmarks {
         state.mcsQLock.unlock();
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("Hemlock")
+    @GroupThreads(N)
+    public void testHemlockQueueLock(EffectiveLockImpl state) throws InterruptedException {
+        state.hemlockQLock.lock();
+        Blackhole.consumeCPU(10);
+        state.hemlockQLock.unlock();
+    }
+
     public static void main(String[] args) throws RunnerException {
         System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
         Options options = new OptionsBuilder()
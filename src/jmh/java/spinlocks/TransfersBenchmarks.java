@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * N threads transferring between randomly picked accounts, each guarded by a lock of its
+ * own, acquired as a {@link MultiLock} in order or with back-off. Fewer accounts and more
+ * legs per transfer mean more contention.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class TransfersBenchmarks {
+
+    private static final int N = 8;
+
+    static class Account {
+        final ITrySpinLock lock = new CheckCheckSpinLock();
+        long balance;
+    }
+
+    @State(Scope.Benchmark)
+    public static class BankState {
+        @Param({"8", "64", "1024"})
+        public int accounts;
+
+        @Param({"2", "4"})
+        public int legs;
+
+        @Param({"Ordered", "BackOff"})
+        public String mode;
+
+        Account[] bank;
+
+        @Setup
+        public void setUp() {
+            bank = new Account[accounts];
+            for (int a = 0; a < accounts; a++)
+                bank[a] = new Account();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TransferState {
+        Account[] legs;
+        ITrySpinLock[] locks;
+
+        @Setup
+        public void setUp(BankState bank) {
+            legs = new Account[bank.legs];
+            locks = new ITrySpinLock[bank.legs];
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public long testTransfer(BankState bank, TransferState transfer) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int l = 0; l < transfer.legs.length; l++) {
+            transfer.legs[l] = bank.bank[random.nextInt(bank.accounts)];
+            transfer.locks[l] = transfer.legs[l].lock;
+        }
+
+        MultiLock group = "BackOff".equals(bank.mode)
+                ? MultiLock.tryLockAll(1, 64, TimeUnit.MICROSECONDS, transfer.locks)
+                : MultiLock.lockAll(transfer.locks);
+        try {
+            for (int l = 1; l < transfer.legs.length; l++) {
+                transfer.legs[0].balance--;
+                transfer.legs[l].balance++;
+            }
+            return transfer.legs[0].balance;
+        } finally {
+            group.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(TransfersBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thousands of tasks, each in a thread of its own, contending on a few locks.
+ * On a JVM with virtual threads (21+) every task runs in a virtual thread, elsewhere
+ * the benchmark falls back to platform threads.
+ *
+ * Spin locks like {@link CheckCheckSpinLock} keep the carrier threads busy while
+ * waiting, {@link Q_SpinThenParkLock} unmounts its waiters.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class VirtualThreadsBenchmarks {
+
+    private static final int OPERATIONS_PER_TASK = 100;
+
+    /**
+     * Handle to {@code Executors.newVirtualThreadPerTaskExecutor()} when running on
+     * a JVM which provides it (21+), otherwise null.
+     */
+    private static final MethodHandle VIRTUAL_EXECUTOR = lookupVirtualExecutor();
+
+    @State(Scope.Benchmark)
+    public static class SpinLockState {
+        @Param({"1000", "10000"})
+        public int tasks;
+
+        @Param({"4"})
+        public int locks;
+
+        @Param({"SpinThenPark", "CheckCheck"})
+        public SpinLockType lockType;
+
+        ISpinLock[] spinLocks;
+        long[] counters;
+
+        @Setup
+        public void setUp() {
+            spinLocks = new ISpinLock[locks];
+            for (int i = 0; i < locks; i++)
+                spinLocks[i] = lockType.newLock();
+            counters = new long[locks];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ReentrantLockState {
+        @Param({"1000", "10000"})
+        public int tasks;
+
+        @Param({"4"})
+        public int locks;
+
+        ReentrantLock[] reentrantLocks;
+        long[] counters;
+
+        @Setup
+        public void setUp() {
+            reentrantLocks = new ReentrantLock[locks];
+            for (int i = 0; i < locks; i++)
+                reentrantLocks[i] = new ReentrantLock();
+            counters = new long[locks];
+        }
+    }
+
+    @Benchmark
+    public long testSpinLocks(SpinLockState state) throws InterruptedException {
+        runTasks(state.tasks, task -> {
+            int l = task % state.locks;
+            ISpinLock lock = state.spinLocks[l];
+            for (int i = 0; i < OPERATIONS_PER_TASK; i++) {
+                lock.lock();
+                state.counters[l]++;
+                lock.unlock();
+            }
+        });
+        return sum(state.counters);
+    }
+
+    @Benchmark
+    public long testReentrantLocks(ReentrantLockState state) throws InterruptedException {
+        runTasks(state.tasks, task -> {
+            int l = task % state.locks;
+            ReentrantLock lock = state.reentrantLocks[l];
+            for (int i = 0; i < OPERATIONS_PER_TASK; i++) {
+                lock.lock();
+                state.counters[l]++;
+                lock.unlock();
+            }
+        });
+        return sum(state.counters);
+    }
+
+    private interface Task {
+        void run(int task);
+    }
+
+    /**
+     * Runs every task in a thread of its own and waits until all are done.
+     */
+    private static void runTasks(int tasks, Task task) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(tasks);
+        ExecutorService executor = newThreadPerTaskExecutor();
+        try {
+            for (int t = 0; t < tasks; t++) {
+                final int id = t;
+                executor.execute(() -> {
+                    task.run(id);
+                    done.countDown();
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return the total of the counters, which all the tasks are done updating
+     */
+    private static long sum(long[] counters) {
+        long sum = 0;
+        for (long counter : counters)
+            sum += counter;
+        return sum;
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor() {
+        if(VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    private static MethodHandle lookupVirtualExecutor() {
+        try {
+            return MethodHandles.lookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null; // pre Java 21 runtime
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        System.out.println("virtual threads = " + (VIRTUAL_EXECUTOR != null));
+        Options options = new OptionsBuilder()
+                .include(VirtualThreadsBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package stacks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import spinlocks.ISpinLock;
+import spinlocks.SpinLockType;
+
+import java.util.ArrayDeque;
+
+/**
+ * N threads using a stack as an object pool, i.e. pushing an element back
+ * right after having popped one.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class StacksBenchmarks {
+
+    private static final int N = 8;
+    private static final int POOLED = 1024;
+    private static final Integer ELEMENT = 42;
+
+    @State(Scope.Benchmark)
+    public static class TreiberState {
+        final TreiberStack<Integer> stack = pooled(new TreiberStack<>());
+    }
+
+    @State(Scope.Benchmark)
+    public static class EliminationBackoffState {
+        final EliminationBackoffStack<Integer> stack = pooled(new EliminationBackoffStack<>());
+    }
+
+    @State(Scope.Benchmark)
+    public static class LockedState {
+        @Param
+        public SpinLockType lockType;
+
+        LockedStack<Integer> stack;
+
+        @Setup
+        public void setUp() {
+            stack = pooled(new LockedStack<>(lockType.newLock()));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public Integer testTreiber(TreiberState state) {
+        return popAndPush(state.stack);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public Integer testEliminationBackoff(EliminationBackoffState state) {
+        return popAndPush(state.stack);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(N)
+    public Integer testLocked(LockedState state) {
+        return popAndPush(state.stack);
+    }
+
+    private static Integer popAndPush(IStack<Integer> stack) {
+        Integer e = stack.pop();
+        stack.push(e == null ? ELEMENT : e);
+        return e;
+    }
+
+    private static <S extends IStack<Integer>> S pooled(S stack) {
+        for (int i = 0; i < POOLED; i++)
+            stack.push(i);
+        return stack;
+    }
+
+    /**
+     * Stack guarded by a spin lock.
+     */
+    static class LockedStack<E> implements IStack<E> {
+
+        private final ArrayDeque<E> stack = new ArrayDeque<>();
+        private final ISpinLock lock;
+
+        LockedStack(ISpinLock lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public void push(E e) {
+            lock.lock();
+            try {
+                stack.push(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public E pop() {
+            lock.lock();
+            try {
+                return stack.poll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            lock.lock();
+            try {
+                return stack.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        System.out.println("cores = " + Runtime.getRuntime().availableProcessors());
+        Options options = new OptionsBuilder()
+                .include(StacksBenchmarks.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(options).run();
+    }
+}
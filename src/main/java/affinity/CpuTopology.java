@@ -0,0 +1,233 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package affinity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * The CPUs of the machine with the core and the socket each of them belongs to, as the Linux
+ * kernel tells under {@code /sys/devices/system/cpu}. CPUs on the same core are hardware
+ * threads (SMT siblings) sharing the core's caches, CPUs on the same socket share the last
+ * level cache, CPUs on different sockets share nothing but the interconnect.
+ *
+ * Where the topology can't be read every CPU is taken as a core of its own on one socket.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public final class CpuTopology {
+
+    private static final Path SYS_CPU = Paths.get("/sys/devices/system/cpu");
+
+    private final List<Cpu> cpus;
+
+    private CpuTopology(List<Cpu> cpus) {
+        this.cpus = Collections.unmodifiableList(cpus);
+    }
+
+    /**
+     * Reads the topology of the online CPUs of this machine.
+     */
+    public static CpuTopology read() {
+        return read(SYS_CPU);
+    }
+
+    /**
+     * Reads the topology of the online CPUs the calling thread may run on, which under
+     * {@code taskset} or a cpuset are fewer than those of the machine. Placements picked
+     * from it only use CPUs the threads can actually be pinned to.
+     */
+    public static CpuTopology readAllowed() {
+        CpuTopology topology = read();
+        int[] allowed = ThreadAffinity.affinity();
+        return allowed.length == 0 ? topology : topology.restrictTo(allowed);
+    }
+
+    static CpuTopology read(Path sysCpu) {
+        int[] online;
+        try {
+            online = parseList(readLine(sysCpu.resolve("online")));
+        } catch (IOException e) {
+            online = new int[Runtime.getRuntime().availableProcessors()];
+            for (int i = 0; i < online.length; i++)
+                online[i] = i;
+        }
+
+        List<Cpu> cpus = new ArrayList<>(online.length);
+        for (int id : online) {
+            Path topology = sysCpu.resolve("cpu" + id).resolve("topology");
+            int core, socket;
+            try {
+                core = Integer.parseInt(readLine(topology.resolve("core_id")));
+                socket = Integer.parseInt(readLine(topology.resolve("physical_package_id")));
+            } catch (IOException | NumberFormatException e) {
+                core = id;
+                socket = 0;
+            }
+            cpus.add(new Cpu(id, core, socket));
+        }
+        return new CpuTopology(cpus);
+    }
+
+    public List<Cpu> cpus() {
+        return cpus;
+    }
+
+    /**
+     * @return the topology of only those of the CPUs which have one of the given ids
+     */
+    public CpuTopology restrictTo(int... ids) {
+        List<Cpu> restricted = new ArrayList<>();
+        for (Cpu cpu : cpus) {
+            for (int id : ids) {
+                if(cpu.id == id) {
+                    restricted.add(cpu);
+                    break;
+                }
+            }
+        }
+        return new CpuTopology(restricted);
+    }
+
+    /**
+     * @return the ids of the sockets, in ascending order
+     */
+    public List<Integer> sockets() {
+        return cpus.stream().map(Cpu::socket).distinct().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * @return one CPU of every core of the given socket, the first hardware thread of it
+     */
+    public List<Cpu> coresOf(int socket) {
+        List<Cpu> cores = new ArrayList<>();
+        for (Cpu cpu : cpus) {
+            if(cpu.socket == socket && cores.stream().noneMatch(cpu::isSameCore))
+                cores.add(cpu);
+        }
+        return cores;
+    }
+
+    /**
+     * @return all the hardware threads of the core of the given CPU, including itself
+     */
+    public List<Cpu> siblingsOf(Cpu cpu) {
+        return cpus.stream().filter(cpu::isSameCore).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return cpus.toString();
+    }
+
+    /**
+     * Parses a CPU list as the kernel prints it, e.g. {@code 0-3,8,10-11}.
+     */
+    static int[] parseList(String list) {
+        List<Integer> ids = new ArrayList<>();
+        for (String range : list.trim().split(",")) {
+            if(range.isEmpty())
+                continue;
+
+            int dash = range.indexOf('-');
+            int from = Integer.parseInt(range.substring(0, dash < 0 ? range.length() : dash).trim());
+            int to = dash < 0 ? from : Integer.parseInt(range.substring(dash + 1).trim());
+            if(from > to)
+                throw new IllegalArgumentException(format("CPU range '%s' is not ascending", range));
+
+            for (int id = from; id <= to; id++)
+                ids.add(id);
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Formats the given CPU ids as a list {@code taskset -c} takes.
+     */
+    static String formatList(int... ids) {
+        StringBuilder list = new StringBuilder();
+        for (int id : ids) {
+            if(list.length() > 0)
+                list.append(',');
+            list.append(id);
+        }
+        return list.toString();
+    }
+
+    private static String readLine(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        if(lines.isEmpty())
+            throw new IOException(format("'%s' is empty", file));
+        return lines.get(0).trim();
+    }
+
+    /**
+     * A logical CPU, i.e. a hardware thread.
+     */
+    public static final class Cpu {
+        private final int id;
+        private final int core;
+        private final int socket;
+
+        Cpu(int id, int core, int socket) {
+            this.id = id;
+            this.core = core;
+            this.socket = socket;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        /**
+         * @return id of the core, unique within the socket only
+         */
+        public int core() {
+            return core;
+        }
+
+        public int socket() {
+            return socket;
+        }
+
+        public boolean isSameCore(Cpu other) {
+            return core == other.core && socket == other.socket;
+        }
+
+        @Override
+        public String toString() {
+            return format("cpu%d(core %d, socket %d)", id, core, socket);
+        }
+    }
+}
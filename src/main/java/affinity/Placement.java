@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package affinity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Where to place contending threads relative to each other, from sharing everything but
+ * the registers to sharing nothing but the interconnect.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public enum Placement {
+
+    /**
+     * Threads are left to the scheduler.
+     */
+    Unpinned,
+
+    /**
+     * Threads on hardware threads (SMT siblings) of one core, sharing all of its caches.
+     */
+    SameCore,
+
+    /**
+     * Threads on different cores of one socket, sharing the last level cache.
+     */
+    SameSocket,
+
+    /**
+     * Threads on different cores spread over the sockets round robin.
+     */
+    CrossSocket;
+
+    /**
+     * @return true if the given number of threads can be placed this way on the given topology
+     */
+    public boolean isPossible(CpuTopology topology, int threads) {
+        checkThreads(threads);
+        return this == Unpinned || pick(topology, threads) != null;
+    }
+
+    /**
+     * Picks a distinct CPU for every thread.
+     *
+     * @return the CPU of every thread by index, null if threads are not to be pinned
+     * @throws IllegalArgumentException if the topology does not allow this placement, see
+     *                                  {@link #isPossible(CpuTopology, int)}
+     */
+    public int[] cpus(CpuTopology topology, int threads) {
+        checkThreads(threads);
+        if(this == Unpinned)
+            return null;
+
+        List<CpuTopology.Cpu> picked = pick(topology, threads);
+        if(picked == null)
+            throw new IllegalArgumentException(format("Placement '%s' of %d threads is not possible on %s",
+                    this, threads, topology));
+
+        int[] cpus = new int[threads];
+        for (int t = 0; t < threads; t++)
+            cpus[t] = picked.get(t).id();
+        return cpus;
+    }
+
+    /**
+     * @return a distinct CPU for every thread, null if the topology does not allow this placement
+     */
+    private List<CpuTopology.Cpu> pick(CpuTopology topology, int threads) {
+        switch (this) {
+            case SameCore:
+                for (CpuTopology.Cpu cpu : topology.cpus()) {
+                    List<CpuTopology.Cpu> siblings = topology.siblingsOf(cpu);
+                    if(siblings.size() >= threads)
+                        return siblings;
+                }
+                return null;
+
+            case SameSocket:
+                for (int socket : topology.sockets()) {
+                    List<CpuTopology.Cpu> cores = topology.coresOf(socket);
+                    if(cores.size() >= threads)
+                        return cores;
+                }
+                return null;
+
+            case CrossSocket:
+                List<Integer> sockets = topology.sockets();
+                if(sockets.size() < 2)
+                    return null;
+
+                List<CpuTopology.Cpu> picked = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    List<CpuTopology.Cpu> cores = topology.coresOf(sockets.get(t % sockets.size()));
+                    int core = t / sockets.size();
+                    if(core >= cores.size())
+                        return null;
+                    picked.add(cores.get(core));
+                }
+                return picked;
+
+            default:
+                return null;
+        }
+    }
+
+    private static void checkThreads(int threads) {
+        if(threads <= 0)
+            throw new IllegalArgumentException(format("Threads '%d' must be positive", threads));
+    }
+}
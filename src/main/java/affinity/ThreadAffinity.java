@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package affinity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pins threads to chosen CPUs on Linux.
+ *
+ * <p>
+ * Java has no API for the affinity of a thread, and a native library would be a native
+ * build per platform. The calling thread therefore looks up its kernel thread id under
+ * {@code /proc/thread-self} and has {@code taskset} from util-linux set the affinity of
+ * that id, which is a plain {@code sched_setaffinity(2)} call. It costs a process
+ * launch, so threads are pinned once up front, not on any hot path.
+ * </p>
+ *
+ * Everything is best effort: on other systems or without {@code taskset}, pinning
+ * reports false and threads stay where the scheduler puts them.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public final class ThreadAffinity {
+
+    private static final Path THREAD_SELF = Paths.get("/proc/thread-self");
+    private static final Path PROCESS_SELF = Paths.get("/proc/self");
+
+    private static final boolean SUPPORTED = Files.isDirectory(THREAD_SELF) && taskset("-V");
+
+    private ThreadAffinity() {
+    }
+
+    /**
+     * @return true if threads can be pinned on this system
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * Restricts the calling thread to the given CPUs.
+     *
+     * @return true if the thread has been pinned
+     */
+    public static boolean pin(int... cpus) {
+        if(!SUPPORTED || cpus.length == 0)
+            return false;
+
+        long tid = currentThreadId();
+        return tid > 0 && taskset("-p", "-c", CpuTopology.formatList(cpus), Long.toString(tid));
+    }
+
+    /**
+     * Lets the calling thread run on the CPUs of the main thread of the process again, which
+     * are those the process has been started on unless it has been pinned since. A thread
+     * which had an affinity of its own before being pinned should rather restore it, by
+     * pinning it to what {@link #affinity()} told before.
+     *
+     * @return true if the thread has been unpinned
+     */
+    public static boolean unpin() {
+        return pin(cpusAllowed(PROCESS_SELF));
+    }
+
+    /**
+     * @return the CPUs the calling thread may run on, empty if not known
+     */
+    public static int[] affinity() {
+        return cpusAllowed(THREAD_SELF);
+    }
+
+    /**
+     * @return the CPUs the task the given proc directory is of may run on, empty if not known
+     */
+    private static int[] cpusAllowed(Path proc) {
+        try {
+            for (String line : Files.readAllLines(proc.resolve("status"), StandardCharsets.US_ASCII)) {
+                if(line.startsWith("Cpus_allowed_list:"))
+                    return CpuTopology.parseList(line.substring(line.indexOf(':') + 1));
+            }
+        } catch (IOException e) {
+            // not on Linux
+        }
+        return new int[0];
+    }
+
+    /**
+     * @return the CPU the calling thread ran on last, -1 if not known
+     */
+    public static int currentCpu() {
+        String[] fields = statFields();
+        // 39th field of the stat line, 37th after pid and name
+        return fields.length > 36 ? Integer.parseInt(fields[36]) : -1;
+    }
+
+    /**
+     * @return the kernel's id of the calling thread, -1 if not known
+     */
+    public static long currentThreadId() {
+        try {
+            // resolves to <pid>/task/<tid> for whichever thread looks
+            Path self = Files.readSymbolicLink(THREAD_SELF);
+            return Long.parseLong(self.getFileName().toString());
+        } catch (IOException | UnsupportedOperationException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the fields of the stat line of the calling thread following its name
+     */
+    private static String[] statFields() {
+        try {
+            List<String> lines = Files.readAllLines(THREAD_SELF.resolve("stat"), StandardCharsets.US_ASCII);
+            if(lines.isEmpty())
+                return new String[0];
+
+            String stat = lines.get(0);
+            // the name is in parentheses and might contain anything
+            return stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        } catch (IOException e) {
+            return new String[0];
+        }
+    }
+
+    private static boolean taskset(String... arguments) {
+        String[] command = new String[arguments.length + 1];
+        command[0] = "taskset";
+        System.arraycopy(arguments, 0, command, 1, arguments.length);
+
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try (InputStream output = process.getInputStream()) {
+                while(output.read() != -1)
+                    continue; // drain so it can't block on a full pipe
+            }
+            if(!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroy();
+                return false;
+            }
+            return process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
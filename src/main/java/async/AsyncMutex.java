@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package async;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * A mutex for code which must neither block nor spin, e.g. on an event loop. Acquiring
+ * returns a stage which completes once the caller holds the mutex.
+ *
+ * <p>
+ * Requests queue up like in {@link spinlocks.Q_MCSSpinLock}: a request swaps its node into
+ * the tail and links itself to its predecessor, and a release completes the stage of the
+ * successor, so the mutex is granted in FIFO order. Unlike the spin lock nobody waits on a
+ * node, the stage of the node is simply completed later. An uncontended acquisition takes
+ * the mutex with a single compare and swap using a node of the mutex itself and returns a
+ * cached completed stage, without any allocation.
+ * </p>
+ *
+ * Without an executor the continuation of a waiter runs on the releasing thread as part of
+ * the release. A release from within such a continuation only queues the completion of the
+ * next waiter for the outermost release to run, so that a long queue of waiters releasing
+ * right away does not nest as deep. With an executor the stages are completed there
+ * instead. A release waits for a successor
+ * which has swapped the tail but not linked itself yet, which is a matter of a few
+ * instructions. The mutex is not reentrant.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class AsyncMutex {
+
+    /**
+     * Completions queued up by releases from within continuations, per thread.
+     */
+    private static final ThreadLocal<Trampoline> TRAMPOLINE = new ThreadLocal<Trampoline>(){
+        @Override
+        protected Trampoline initialValue() {
+            return new Trampoline();
+        }
+    };
+
+    private final AtomicReference<Node> tail = new AtomicReference<>();
+    private final Executor executor;
+
+    private final Permit permit = new Permit();
+    private final CompletionStage<Permit> acquired = CompletableFuture.completedFuture(permit);
+
+    /**
+     * Node of the uncontended acquisitions, reused as only one holder exists at a time.
+     */
+    private final Node uncontended = new Node(null);
+
+    /**
+     * Node of the current holder.
+     */
+    private volatile Node head;
+
+    public AsyncMutex() {
+        this(null);
+    }
+
+    /**
+     * @param executor completes the stages of waiters, null to complete them on the releasing thread
+     */
+    public AsyncMutex(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Requests the mutex.
+     *
+     * @return a stage completing with the permit once the mutex is held
+     */
+    public CompletionStage<Permit> acquire() {
+        if(tryAcquire())
+            return acquired;
+
+        Node node = new Node(new CompletableFuture<>());
+        Node predecessor = tail.getAndSet(node);
+        if(predecessor == null) { // released in the meantime
+            head = node;
+            return acquired;
+        }
+
+        predecessor.next = node; // the predecessor's release completes my stage
+        return node.stage;
+    }
+
+    /**
+     * Takes the mutex if it is free and nobody is queued.
+     *
+     * @return true if the mutex is held now, release it through {@link #permit()}
+     */
+    public boolean tryAcquire() {
+        if(tail.get() == null && tail.compareAndSet(null, uncontended)) {
+            head = uncontended;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the permit which releases the mutex. It is the same for every acquisition.
+     */
+    public Permit permit() {
+        return permit;
+    }
+
+    public boolean isLocked() {
+        return tail.get() != null;
+    }
+
+    private void release() {
+        Node holder = head;
+
+        Node successor = holder.next;
+        if(successor == null) {
+            if(tail.compareAndSet(holder, null))
+                return; // nobody waiting
+
+            // a successor has swapped the tail but not linked itself yet
+            while((successor = holder.next) == null)
+                onSpinWait();
+        }
+
+        holder.next = null; // the uncontended node gets reused
+        head = successor;
+
+        CompletableFuture<Permit> stage = successor.stage;
+        if(executor == null)
+            complete(stage);
+        else
+            executor.execute(() -> stage.complete(permit));
+    }
+
+    private void complete(CompletableFuture<Permit> stage) {
+        Trampoline trampoline = TRAMPOLINE.get();
+        if(trampoline.running) { // released from within a continuation
+            trampoline.pending.addLast(() -> stage.complete(permit));
+            return;
+        }
+
+        trampoline.running = true;
+        try {
+            stage.complete(permit);
+
+            Runnable next;
+            while((next = trampoline.pending.pollFirst()) != null)
+                next.run();
+        } finally {
+            trampoline.running = false;
+        }
+    }
+
+    /**
+     * Proof of holding the mutex, releasing it must happen exactly once per acquisition.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private Permit() {
+        }
+
+        public void release() {
+            AsyncMutex.this.release();
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+
+    private static class Trampoline {
+        final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+        boolean running;
+    }
+
+    private static class Node {
+        final CompletableFuture<Permit> stage;
+        volatile Node next;
+
+        Node(CompletableFuture<Permit> stage) {
+            this.stage = stage;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package async;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs the tasks for any one key one at a time, in order, while tasks of different keys run
+ * concurrently on the underlying executor. Think of every key as an actor with a mailbox, any
+ * number of them is multiplexed onto the threads of a pool.
+ *
+ * <p>
+ * Every key with work pending gets a {@link SerialExecutor} of its own. Once it runs idle it
+ * retires itself and is removed, so only keys with work pending take memory no matter how
+ * many keys there are. A task arriving for a retired one just goes to a fresh one; the
+ * retired one had nothing pending, so the order of the tasks of a key is kept.
+ * </p>
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class KeyedSerialExecutor<K> {
+
+    private final ConcurrentHashMap<K, SerialExecutor> mailboxes = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final int batchSize;
+
+    public KeyedSerialExecutor(Executor executor) {
+        this(executor, 64);
+    }
+
+    /**
+     * @param executor runs the batches of tasks of all the keys
+     * @param batchSize number of tasks of a key run at most before the executor gets its thread back
+     */
+    public KeyedSerialExecutor(Executor executor, int batchSize) {
+        if(batchSize <= 0)
+            throw new IllegalArgumentException(format("Batch size '%d' must be positive", batchSize));
+
+        this.executor = requireNonNull(executor);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Runs the given task after all the tasks given for the same key before.
+     */
+    public void execute(K key, Runnable task) {
+        requireNonNull(key);
+        while(true){
+            SerialExecutor mailbox = mailboxes.get(key);
+            if(mailbox == null)
+                mailbox = mailboxes.computeIfAbsent(key, this::newMailbox);
+
+            if(mailbox.submit(task))
+                return;
+
+            // retired but not removed yet, help removing it and retry..
+            mailboxes.remove(key, mailbox);
+        }
+    }
+
+    /**
+     * @return an executor running its tasks as tasks of the given key
+     */
+    public Executor forKey(K key) {
+        requireNonNull(key);
+        return task -> execute(key, task);
+    }
+
+    /**
+     * @return number of keys with tasks pending, meant for monitoring only
+     */
+    public int activeKeys() {
+        return mailboxes.size();
+    }
+
+    private SerialExecutor newMailbox(K key) {
+        return new SerialExecutor(executor, batchSize, retired -> mailboxes.remove(key, retired));
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package async;
+
+import queues.MPSCLinkedQueue;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs the tasks given to it one at a time, in order, on an underlying executor. It replaces
+ * locking an entity for every piece of work on it: rather than threads contending for the
+ * entity's lock, the work is handed to the entity's serial executor and nobody waits.
+ *
+ * <p>
+ * Tasks go into a {@link MPSCLinkedQueue} acting as the mailbox, with pooled nodes so that
+ * submitting allocates nothing, producers never retry nor spin. A single atomic count of the
+ * pending tasks schedules the draining: the producer moving it off zero submits the drain to
+ * the underlying executor, so at most one drain is ever scheduled or running. A drain runs up
+ * to a batch of tasks and then either finds the count back at zero or submits itself again,
+ * giving other work on the executor a turn.
+ * </p>
+ *
+ * A task throwing is reported to the uncaught exception handler of the running thread,
+ * the following tasks run nevertheless. Should the underlying executor reject the drain,
+ * the task submitted is taken back and the rejection thrown, unless tasks submitted since
+ * count on that drain already; those are then run on the calling thread, as are the tasks
+ * of a drain whose resubmission gets rejected.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SerialExecutor implements Executor {
+
+    private static final int RETIRED = Integer.MIN_VALUE;
+
+    private final Executor executor;
+    private final int batchSize;
+
+    /**
+     * Invoked once the executor runs idle and got retired, null if never to be retired.
+     */
+    private final Consumer<SerialExecutor> retirement;
+
+    private final MPSCLinkedQueue<Runnable> mailbox = new MPSCLinkedQueue<>(true);
+
+    /**
+     * Number of tasks submitted but not run yet, {@link #RETIRED} onwards once retired.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final Runnable drain = () -> drain(0);
+
+    public SerialExecutor(Executor executor) {
+        this(executor, 64);
+    }
+
+    /**
+     * @param executor runs the batches of tasks
+     * @param batchSize number of tasks run at most before the executor gets its thread back
+     */
+    public SerialExecutor(Executor executor, int batchSize) {
+        this(executor, batchSize, null);
+    }
+
+    SerialExecutor(Executor executor, int batchSize, Consumer<SerialExecutor> retirement) {
+        if(batchSize <= 0)
+            throw new IllegalArgumentException(format("Batch size '%d' must be positive", batchSize));
+
+        this.executor = requireNonNull(executor);
+        this.batchSize = batchSize;
+        this.retirement = retirement;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if(!submit(task))
+            throw new RejectedExecutionException("Serial executor has been retired");
+    }
+
+    /**
+     * @return false if the executor has been retired and the task was not taken
+     */
+    boolean submit(Runnable task) {
+        requireNonNull(task);
+
+        // counted before being queued so that a drain never sees the count
+        // drop to zero while a task is on its way into the mailbox
+        int before = pending.getAndIncrement();
+        if(before < 0) // retired
+            return false;
+
+        mailbox.offer(task);
+        if(before == 0) {
+            try {
+                executor.execute(drain);
+            } catch (RejectedExecutionException e) {
+                if(takeBack())
+                    throw e;
+
+                // others count on the drain too, run them all here
+                run(task);
+                drain(1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes the task just submitted back out of the mailbox once the drain for it got rejected.
+     * No drain gets scheduled until the count drops to zero, so the calling thread is the only
+     * one polling. The task is the first in the mailbox: nobody else's was pending before it,
+     * and any submitted since was counted before being queued.
+     *
+     * @return true if the task has been taken back, false if other tasks have been submitted
+     * meanwhile, the task is out of the mailbox then nevertheless but still to be run
+     */
+    private boolean takeBack() {
+        mailbox.poll();
+        if(!pending.compareAndSet(1, 0))
+            return false;
+
+        retireIfIdle();
+        return true;
+    }
+
+    /**
+     * @return number of tasks submitted but not run yet
+     */
+    public int pending() {
+        return Math.max(0, pending.get());
+    }
+
+    /**
+     * @param ran number of tasks taken out of the mailbox and run already but not counted off
+     */
+    private void drain(int ran) {
+        while(true){
+            Runnable task;
+            while(ran < batchSize && (task = mailbox.poll()) != null) {
+                ran++;
+                run(task);
+            }
+
+            // ran might be 0 should a producer be between counting and queueing its task,
+            // the resubmitted drain picks it up then
+            if(pending.addAndGet(-ran) > 0) {
+                try {
+                    executor.execute(drain);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    ran = 0;
+                    continue; // keep draining on this thread..
+                }
+            }
+
+            // idle, any later task schedules a new drain
+            retireIfIdle();
+            return;
+        }
+    }
+
+    private void retireIfIdle() {
+        if(retirement != null && pending.compareAndSet(0, RETIRED))
+            retirement.accept(this);
+    }
+
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+        }
+    }
+}
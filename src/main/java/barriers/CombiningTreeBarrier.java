@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package barriers;
+
+import spinlocks.IWaitStrategy;
+import spinlocks.SpinHintWaitStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A combining tree barrier with sense reversal.
+ *
+ * <p>
+ * Parties are split in groups of at most radix parties, each group sharing a leaf node which
+ * is a small {@link SenseReversingBarrier} on its own. The last party to arrive at a node goes
+ * on to the parent node on behalf of its whole group and, once it returns from the root side,
+ * releases its group by flipping the node's sense. Arrivals are thereby spread over many
+ * counts instead of all of them hitting a single one, and every party spins on the sense
+ * of its own node only.
+ * </p>
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class CombiningTreeBarrier implements IBarrier {
+
+    private final int parties;
+    private final Node[] leafOf;
+    private final Party[] states;
+    private final IWaitStrategy waitStrategy;
+
+    public CombiningTreeBarrier(int parties, int radix) {
+        this(parties, radix, new SpinHintWaitStrategy());
+    }
+
+    /**
+     * @param radix maximum number of parties or child nodes combined at a node
+     * @param waitStrategy the way parties wait for the last one of their node
+     */
+    public CombiningTreeBarrier(int parties, int radix, IWaitStrategy waitStrategy) {
+        if(parties < 1 || radix < 2)
+            throw new IllegalArgumentException(format("Parties '%d' must be positive and radix '%d' not less " +
+                    "than 2", parties, radix));
+
+        this.parties = parties;
+        this.states = Party.newParties(parties);
+        this.waitStrategy = requireNonNull(waitStrategy);
+        this.leafOf = new Node[parties];
+
+        List<Node> level = new ArrayList<>();
+        for (int party = 0; party < parties; party++) {
+            if(party % radix == 0)
+                level.add(new Node(Math.min(radix, parties - party)));
+            leafOf[party] = level.get(level.size() - 1);
+        }
+
+        while(level.size() > 1) { // build upwards until there's a single root
+            List<Node> parents = new ArrayList<>();
+            for (int i = 0; i < level.size(); i++) {
+                if(i % radix == 0)
+                    parents.add(new Node(Math.min(radix, level.size() - i)));
+                level.get(i).parent = parents.get(parents.size() - 1);
+            }
+            level = parents;
+        }
+    }
+
+    @Override
+    public void await(int party) {
+        Party state = states[party];
+        boolean mySense = state.sense;
+
+        leafOf[party].await(mySense, waitStrategy);
+
+        state.sense = !mySense; // for the next round
+    }
+
+    @Override
+    public int parties() {
+        return parties;
+    }
+
+    private static class Node {
+
+        final int size;
+        final AtomicInteger count;
+        Node parent;
+
+        volatile boolean sense = false;
+
+        Node(int size) {
+            this.size = size;
+            this.count = new AtomicInteger(size);
+        }
+
+        void await(boolean mySense, IWaitStrategy waitStrategy) {
+            if(count.getAndDecrement() == 1) { // I'm the last one of my group
+                if(parent != null)
+                    parent.await(mySense, waitStrategy); // go on for the whole group
+
+                count.set(size);
+                sense = mySense; // release my group
+            }
+            else {
+                int attempt = 0;
+                while(sense != mySense)
+                    waitStrategy.idle(attempt++);
+            }
+        }
+    }
+}
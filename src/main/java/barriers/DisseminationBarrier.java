@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package barriers;
+
+import spinlocks.IWaitStrategy;
+import spinlocks.SpinHintWaitStrategy;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Dissemination barrier proposed by Hensgen, Finkel and Manber, in the form given
+ * by Mellor-Crummey and Scott.
+ *
+ * <br/><a href="http://web.mit.edu/6.173/www/currentsemester/readings/R06-scalable-synchronization-1991.pdf"><b>Link to paper</b></a>
+ *
+ * <p>
+ * The barrier proceeds in ceil(log2(n)) rounds. In round r every party i signals party
+ * (i + 2^r) mod n and waits to be signalled by party (i - 2^r) mod n. After the last round
+ * every party has transitively heard of every other one. There is no shared count at all,
+ * every flag is written by exactly one party and spun on by exactly one party, and all the
+ * parties leave at the same time instead of waiting for a release to trickle down.
+ * </p>
+ *
+ * Flags alternate between two sets by parity and reverse their sense every other round of
+ * the barrier, so they never have to be reset.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class DisseminationBarrier implements IBarrier {
+
+    /**
+     * Spacing of the flags of different parties, 16 ints = 64 bytes.
+     */
+    private static final int FLAG_STRIDE = 16;
+
+    private final int parties;
+    private final int rounds;
+    private final Party[] states;
+    private final IWaitStrategy waitStrategy;
+
+    /**
+     * Flags of party i for parity p and round r at index (i * 2 * rounds + p * rounds + r)
+     * * {@link #FLAG_STRIDE}, a value of 1 means true.
+     */
+    private final AtomicIntegerArray flags;
+
+    public DisseminationBarrier(int parties) {
+        this(parties, new SpinHintWaitStrategy());
+    }
+
+    /**
+     * @param waitStrategy the way parties wait for their signal of a round
+     */
+    public DisseminationBarrier(int parties, IWaitStrategy waitStrategy) {
+        if(parties < 1)
+            throw new IllegalArgumentException(format("Parties '%d' must be positive", parties));
+
+        this.parties = parties;
+        this.rounds = 32 - Integer.numberOfLeadingZeros(parties - 1); // ceil(log2(parties))
+        this.states = Party.newParties(parties);
+        this.waitStrategy = requireNonNull(waitStrategy);
+        this.flags = new AtomicIntegerArray(Math.max(1, parties * 2 * rounds * FLAG_STRIDE));
+    }
+
+    @Override
+    public void await(int party) {
+        Party state = states[party];
+        int sense = state.sense ? 1 : 0;
+        int parity = state.parity;
+
+        for (int round = 0; round < rounds; round++) {
+            int partner = (int) ((party + (1L << round)) % parties);
+            flags.lazySet(flag(partner, parity, round), sense); // signal my partner
+
+            int attempt = 0;
+            int myFlag = flag(party, parity, round);
+            while(flags.get(myFlag) != sense) // wait for my own signal
+                waitStrategy.idle(attempt++);
+        }
+
+        if(parity == 1)
+            state.sense = !state.sense;
+        state.parity = 1 - parity;
+    }
+
+    @Override
+    public int parties() {
+        return parties;
+    }
+
+    private int flag(int party, int parity, int round) {
+        return (party * 2 * rounds + parity * rounds + round) * FLAG_STRIDE;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package barriers;
+
+/**
+ * State private to one party of a barrier, padded to a cache line of its own
+ * so that parties flipping their state do not disturb each other.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+final class Party {
+
+    /**
+     * Sense of the round the party is going to wait for next.
+     */
+    boolean sense = true;
+
+    /**
+     * Which of the two sets of flags the party uses in its next round (dissemination only).
+     */
+    int parity;
+
+    // padding which together with the above fills a 64 byte cache line
+    long p1, p2, p3, p4, p5, p6;
+
+    static Party[] newParties(int parties) {
+        Party[] states = new Party[parties];
+        for (int i = 0; i < parties; i++)
+            states[i] = new Party();
+        return states;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package barriers;
+
+import spinlocks.IWaitStrategy;
+import spinlocks.SpinHintWaitStrategy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A centralized barrier with sense reversal.
+ *
+ * <p>
+ * Arriving parties decrement a shared count and then spin on a shared sense flag. The last
+ * one to arrive resets the count and flips the sense which releases all the others. Since
+ * the sense alternates from round to round, a fast party which already waits for the next
+ * round can not be confused with the ones still leaving the current round.
+ * </p>
+ *
+ * The count is a hot spot, every arrival is an atomic update on the same cache line, which
+ * is fine up to a moderate number of parties. See {@link CombiningTreeBarrier} beyond.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SenseReversingBarrier implements IBarrier {
+
+    private final int parties;
+    private final AtomicInteger count;
+    private final Party[] states;
+    private final IWaitStrategy waitStrategy;
+
+    private volatile boolean sense = false;
+
+    public SenseReversingBarrier(int parties) {
+        this(parties, new SpinHintWaitStrategy());
+    }
+
+    /**
+     * @param waitStrategy the way parties wait for the last one, e.g. a
+     * {@link spinlocks.SpinThenParkWaitStrategy} when there are more parties than cores
+     */
+    public SenseReversingBarrier(int parties, IWaitStrategy waitStrategy) {
+        if(parties < 1)
+            throw new IllegalArgumentException(format("Parties '%d' must be positive", parties));
+
+        this.parties = parties;
+        this.count = new AtomicInteger(parties);
+        this.states = Party.newParties(parties);
+        this.waitStrategy = requireNonNull(waitStrategy);
+    }
+
+    @Override
+    public void await(int party) {
+        Party state = states[party];
+        boolean mySense = state.sense;
+
+        if(count.getAndDecrement() == 1) { // I'm the last one
+            count.set(parties);
+            sense = mySense; // release the others
+        }
+        else {
+            int attempt = 0;
+            while(sense != mySense)
+                waitStrategy.idle(attempt++);
+        }
+
+        state.sense = !mySense; // for the next round
+    }
+
+    @Override
+    public int parties() {
+        return parties;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package barriers;
+
+import spinlocks.IWaitStrategy;
+import spinlocks.SpinHintWaitStrategy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A reusable barrier with a dynamic number of parties in the fashion of
+ * {@link java.util.concurrent.Phaser}, where waiting parties spin.
+ *
+ * <p>
+ * The whole state is a single word holding the phase number, the number of registered
+ * parties and the number of parties yet to arrive in the current phase. Parties arrive
+ * by decrementing the unarrived count with a compare and swap, the last one to arrive
+ * advances the phase and refills the unarrived count, and waiting parties spin until
+ * they see the phase advanced. Parties can register and deregister between phases.
+ * </p>
+ *
+ * Up to 65535 parties can be registered. Unlike {@code Phaser} there is no tiering,
+ * termination nor interruption.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SpinPhaser implements IBarrier {
+
+    public static final int MAX_PARTIES = 0xffff;
+
+    private static final int PHASE_SHIFT = 32;
+    private static final int PARTIES_SHIFT = 16;
+    private static final long UNARRIVED_MASK = 0xffffL;
+    private static final long ONE_PARTY = (1L << PARTIES_SHIFT) | 1L;
+
+    /**
+     * phase (upper 32 bits) | registered parties (16 bits) | unarrived parties (lower 16 bits)
+     */
+    private final AtomicLong state;
+    private final IWaitStrategy waitStrategy;
+
+    public SpinPhaser(int parties) {
+        this(parties, new SpinHintWaitStrategy());
+    }
+
+    /**
+     * @param parties number of initially registered parties
+     * @param waitStrategy the way parties wait for a phase to advance
+     */
+    public SpinPhaser(int parties, IWaitStrategy waitStrategy) {
+        if(parties < 0 || parties > MAX_PARTIES)
+            throw new IllegalArgumentException(format("Parties '%d' must be between 0 and %d", parties,
+                    MAX_PARTIES));
+
+        this.state = new AtomicLong(((long) parties << PARTIES_SHIFT) | parties);
+        this.waitStrategy = requireNonNull(waitStrategy);
+    }
+
+    /**
+     * Adds a party to the current phase.
+     *
+     * @return the phase the new party takes part in
+     */
+    public int register() {
+        while(true){
+            long s = state.get();
+            if(partiesOf(s) == MAX_PARTIES)
+                throw new IllegalStateException("Too many parties");
+
+            if(state.compareAndSet(s, s + ONE_PARTY))
+                return phaseOf(s);
+        }
+    }
+
+    /**
+     * Arrives without waiting for the others.
+     *
+     * @return the phase arrived at
+     */
+    public int arrive() {
+        return doArrive(1L);
+    }
+
+    /**
+     * Arrives and removes the calling party for the next phases.
+     *
+     * @return the phase arrived at
+     */
+    public int arriveAndDeregister() {
+        return doArrive(ONE_PARTY);
+    }
+
+    /**
+     * Arrives and waits for the other parties.
+     *
+     * @return the new phase
+     */
+    public int arriveAndAwaitAdvance() {
+        return awaitAdvance(arrive());
+    }
+
+    /**
+     * Waits for the given phase to advance, returns right away if it already has.
+     *
+     * @return the new phase
+     */
+    public int awaitAdvance(int phase) {
+        int attempt = 0;
+        int current;
+        while((current = phaseOf(state.get())) == phase)
+            waitStrategy.idle(attempt++);
+        return current;
+    }
+
+    /**
+     * Same as {@link #arriveAndAwaitAdvance()}, parties are not identified.
+     */
+    @Override
+    public void await(int party) {
+        arriveAndAwaitAdvance();
+    }
+
+    @Override
+    public int parties() {
+        return partiesOf(state.get());
+    }
+
+    public int getPhase() {
+        return phaseOf(state.get());
+    }
+
+    public int getUnarrivedParties() {
+        return unarrivedOf(state.get());
+    }
+
+    private int doArrive(long adjustment) {
+        while(true){
+            long s = state.get();
+            int phase = phaseOf(s);
+            int unarrived = unarrivedOf(s);
+            if(unarrived == 0)
+                throw new IllegalStateException(format("Phase %d has no unarrived parties", phase));
+
+            long arrived = s - adjustment;
+            if(unarrived == 1) { // I'm the last one, advance the phase
+                int parties = partiesOf(arrived);
+                arrived = ((long) (phase + 1) << PHASE_SHIFT) | ((long) parties << PARTIES_SHIFT) | parties;
+            }
+
+            if(state.compareAndSet(s, arrived))
+                return phase;
+        }
+    }
+
+    private static int phaseOf(long s) {
+        return (int) (s >>> PHASE_SHIFT);
+    }
+
+    private static int partiesOf(long s) {
+        return (int) (s >>> PARTIES_SHIFT) & MAX_PARTIES;
+    }
+
+    private static int unarrivedOf(long s) {
+        return (int) (s & UNARRIVED_MASK);
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package counters;
+
+import spinlocks.CheckCheckSpinLock;
+import spinlocks.ISpinLock;
+
+import java.util.ArrayDeque;
+
+import static java.lang.String.format;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Software combining tree counter proposed by Goodman, Vernon and Woest, in
+ * the form given by Herlihy and Shavit.
+ *
+ * <br/><a href="https://dl.acm.org/citation.cfm?id=70070"><b>Link to paper</b></a>
+ *
+ * <p>
+ * Threads climb a binary tree from their leaf towards the root. When two threads meet
+ * at a node, the first one to arrive carries the combined delta of both further up
+ * while the second one waits at the node. Only one thread per combined group updates
+ * the root, after which the results are distributed back down the tree so that every
+ * thread gets the value the counter had just before its own update, i.e. the counter
+ * offers a linearizable {@link #getAndAdd(long)}, unlike the striped counters.
+ * </p>
+ * <p>
+ * Each node is guarded by a {@link CheckCheckSpinLock} and a thread which has to
+ * wait for a node's state to change releases the node's lock and spins on the state.
+ * A tree of width w serves w threads at a time, additional threads share a
+ * thread slot, one after the other.
+ * </p>
+ *
+ * The climb costs log(w) node visits, the combining pays off when many threads need the
+ * previous value under heavy contention, otherwise prefer {@link StripedCounter}.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class CombiningTreeCounter implements ICounter {
+
+    private final Node root;
+    private final Node[] leaves;
+
+    /**
+     * Two thread slots per leaf, each slot used by one thread at a time.
+     */
+    private final ISpinLock[] slots;
+
+    private final ThreadLocal<ArrayDeque<Node>> combinedPaths = new ThreadLocal<ArrayDeque<Node>>(){
+        @Override
+        protected ArrayDeque<Node> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+
+    /**
+     * @param width number of threads served at a time, a power of two not less than 2
+     */
+    public CombiningTreeCounter(int width) {
+        if(width < 2 || Integer.bitCount(width) != 1)
+            throw new IllegalArgumentException(format("Width '%d' must be a power of two not less than 2", width));
+
+        Node[] nodes = new Node[width - 1];
+        nodes[0] = root = new Node(null);
+        for (int i = 1; i < nodes.length; i++)
+            nodes[i] = new Node(nodes[(i - 1) / 2]);
+
+        leaves = new Node[width / 2];
+        for (int i = 0; i < leaves.length; i++)
+            leaves[leaves.length - i - 1] = nodes[nodes.length - i - 1];
+
+        slots = new ISpinLock[width];
+        for (int i = 0; i < width; i++)
+            slots[i] = new CheckCheckSpinLock();
+    }
+
+    @Override
+    public void add(long delta) {
+        getAndAdd(delta);
+    }
+
+    /**
+     * Adds the given delta to the counter.
+     *
+     * @return the value of the counter right before this update
+     */
+    public long getAndAdd(long delta) {
+        int slot = ThreadProbe.current().index & (slots.length - 1);
+        ISpinLock slotLock = slots[slot];
+
+        slotLock.lock();
+        try {
+            return combine(leaves[slot / 2], delta);
+        } finally {
+            slotLock.unlock();
+        }
+    }
+
+    @Override
+    public long sum() {
+        root.lock.lock();
+        try {
+            return root.result;
+        } finally {
+            root.lock.unlock();
+        }
+    }
+
+    private long combine(Node leaf, long delta) {
+        // pre-combining: climb as long as I'm the first one at a node
+        Node node = leaf;
+        while(node.precombine())
+            node = node.parent;
+        Node stop = node;
+
+        // combining: collect the deltas of the threads waiting at the nodes on my way
+        ArrayDeque<Node> path = combinedPaths.get();
+        long combined = delta;
+        for (node = leaf; node != stop; node = node.parent) {
+            combined = node.combine(combined);
+            path.push(node);
+        }
+
+        // operation: at the root or hand over to the thread which climbs further
+        long prior = stop.op(combined);
+
+        // distribution: let the waiting threads know their results
+        while(!path.isEmpty())
+            path.pop().distribute(prior);
+        return prior;
+    }
+
+    private enum Status {
+        /** no thread at the node */
+        IDLE,
+        /** one thread will go further up, a second one may still combine here */
+        FIRST,
+        /** a second thread waits here for the first one to bring back the result */
+        SECOND,
+        /** the result for the second thread is available */
+        RESULT,
+        ROOT
+    }
+
+    private static class Node {
+
+        final ISpinLock lock = new CheckCheckSpinLock();
+        final Node parent;
+
+        /**
+         * Node is busy with a combined group and can not be combined into right now.
+         */
+        volatile boolean locked;
+        volatile Status status;
+
+        // guarded by lock
+        long firstValue;
+        long secondValue;
+        long result;
+
+        Node(Node parent) {
+            this.parent = parent;
+            this.status = parent == null ? Status.ROOT : Status.IDLE;
+        }
+
+        /**
+         * @return true if the calling thread is the first one here and has to
+         * climb further up
+         */
+        boolean precombine() {
+            lock.lock();
+            try {
+                awaitUnlocked();
+                switch (status) {
+                    case IDLE:
+                        status = Status.FIRST;
+                        return true;
+                    case FIRST:
+                        locked = true; // keep others out until the first one combined
+                        status = Status.SECOND;
+                        return false;
+                    case ROOT:
+                        return false;
+                    default:
+                        throw new IllegalStateException("Unexpected node status " + status);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return the given delta combined with the one of a thread waiting here, if any
+         */
+        long combine(long combined) {
+            lock.lock();
+            try {
+                awaitUnlocked();
+                locked = true;
+                firstValue = combined;
+                switch (status) {
+                    case FIRST:
+                        return firstValue;
+                    case SECOND:
+                        return firstValue + secondValue;
+                    default:
+                        throw new IllegalStateException("Unexpected node status " + status);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long op(long combined) {
+            lock.lock();
+            try {
+                switch (status) {
+                    case ROOT:
+                        long prior = result;
+                        result += combined;
+                        return prior;
+                    case SECOND:
+                        secondValue = combined;
+                        locked = false; // let the first thread combine my delta
+                        while(status != Status.RESULT) {
+                            lock.unlock();
+                            while(status != Status.RESULT)
+                                onSpinWait();
+                            lock.lock();
+                        }
+                        locked = false;
+                        status = Status.IDLE;
+                        return result;
+                    default:
+                        throw new IllegalStateException("Unexpected node status " + status);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void distribute(long prior) {
+            lock.lock();
+            try {
+                switch (status) {
+                    case FIRST: // nobody combined with me here
+                        status = Status.IDLE;
+                        locked = false;
+                        break;
+                    case SECOND:
+                        result = prior + firstValue;
+                        status = Status.RESULT;
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected node status " + status);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Called with the lock held, returns with the lock held.
+         */
+        private void awaitUnlocked() {
+            while(locked) {
+                lock.unlock();
+                while(locked)
+                    onSpinWait();
+                lock.lock();
+            }
+        }
+    }
+}
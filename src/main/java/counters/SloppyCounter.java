@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package counters;
+
+import spinlocks.PaddedAtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * An approximate counter with a bounded error, also known as a sloppy counter.
+ *
+ * <p>
+ * Updates are accumulated in one of a number of padded local cells, picked by the thread's
+ * probe, and only when the value of a local cell reaches the threshold it is moved over to
+ * the global value. Reading the counter is reading the global value alone, a single
+ * read no matter how many cells there are, which differs from the precise value by less
+ * than {@code cells * threshold} apart from the updates in flight. {@link #preciseSum()} adds the local
+ * cells in for an exact value when no thread is updating concurrently.
+ * </p>
+ *
+ * The larger the threshold, the less often threads meet on the global value and the
+ * less precise {@link #sum()} is.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SloppyCounter implements ICounter {
+
+    private final PaddedAtomicLong global = new PaddedAtomicLong();
+    private final PaddedAtomicLong[] locals;
+    private final long threshold;
+
+    public SloppyCounter(long threshold) {
+        this(Runtime.getRuntime().availableProcessors(), threshold);
+    }
+
+    /**
+     * @param cells number of local cells, rounded up to a power of two
+     * @param threshold absolute local value at which it is moved over to the global value
+     */
+    public SloppyCounter(int cells, long threshold) {
+        if(cells < 1 || threshold < 1)
+            throw new IllegalArgumentException(format("Cells '%d' and threshold '%d' must be positive",
+                    cells, threshold));
+
+        this.locals = new PaddedAtomicLong[Integer.highestOneBit(cells * 2 - 1)];
+        for (int i = 0; i < locals.length; i++)
+            locals[i] = new PaddedAtomicLong();
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void add(long delta) {
+        ThreadProbe probe = ThreadProbe.current();
+        PaddedAtomicLong local = locals[probe.hash & (locals.length - 1)];
+
+        long v = local.get();
+        if(!local.compareAndSet(v, v + delta)) {
+            probe.advance(); // collided, use another cell next time
+            v = local.addAndGet(delta) - delta;
+        }
+
+        long updated = v + delta;
+        if(updated >= threshold || updated <= -threshold) {
+            // move over whatever has been accumulated by now
+            long moved = local.getAndSet(0);
+            global.addAndGet(moved);
+        }
+    }
+
+    /**
+     * @return the global value which differs from the precise value by less than
+     * {@link #maxError()}, apart from the updates in flight
+     */
+    @Override
+    public long sum() {
+        return global.get();
+    }
+
+    /**
+     * @return the global value with all the local cells added in, exact when no thread
+     * is updating concurrently
+     */
+    public long preciseSum() {
+        long sum = global.get();
+        for (PaddedAtomicLong local : locals)
+            sum += local.get();
+        return sum;
+    }
+
+    /**
+     * @return the bound of the difference between {@link #sum()} and the precise value
+     */
+    public long maxError() {
+        return locals.length * threshold;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package counters;
+
+import spinlocks.PaddedAtomicLong;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A counter striped over padded cells, in the fashion of {@link java.util.concurrent.atomic.LongAdder}.
+ *
+ * <p>
+ * Without contention all the updates go to a single base value. Once a compare and swap
+ * on the base fails, the updating threads move to a table of cells, each thread picking
+ * its cell by its probe hash. A thread which keeps colliding with another one on the same
+ * cell first moves its probe on to try a different cell and, should it collide again,
+ * doubles the table up to a limit of the number of cores. Each cell lives on a cache line
+ * of its own so that threads updating different cells never invalidate each other.
+ * </p>
+ *
+ * {@link #sum()} adds up the base and all cells, it is exact when no thread is updating
+ * concurrently and otherwise misses the updates which race with it.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class StripedCounter implements ICounter {
+
+    private static final int MAX_CELLS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+
+    private final PaddedAtomicLong base = new PaddedAtomicLong();
+
+    /**
+     * Table of cells, null until the first contention, its length is a power of two.
+     */
+    private volatile PaddedAtomicLong[] cells;
+
+    /**
+     * Held while the table is being created, grown or filled.
+     */
+    private final AtomicBoolean cellsBusy = new AtomicBoolean();
+
+    @Override
+    public void add(long delta) {
+        PaddedAtomicLong[] cs = cells;
+        if(cs == null) {
+            long b = base.get();
+            if(base.compareAndSet(b, b + delta))
+                return; // no contention so far
+        }
+        else {
+            PaddedAtomicLong cell = cs[ThreadProbe.current().hash & (cs.length - 1)];
+            long v;
+            if(cell != null && cell.compareAndSet(v = cell.get(), v + delta))
+                return;
+        }
+
+        addContended(delta, ThreadProbe.current());
+    }
+
+    @Override
+    public long sum() {
+        long sum = base.get();
+        PaddedAtomicLong[] cs = cells;
+        if(cs != null)
+            for (PaddedAtomicLong cell : cs)
+                if(cell != null)
+                    sum += cell.get();
+        return sum;
+    }
+
+    private void addContended(long delta, ThreadProbe probe) {
+        boolean collided = false;
+        while(true){
+            PaddedAtomicLong[] cs = cells;
+            if(cs != null) {
+                PaddedAtomicLong cell = cs[probe.hash & (cs.length - 1)];
+                long v;
+                if(cell == null) {
+                    if(tryFillCell(delta, probe.hash))
+                        return;
+                    collided = false;
+                }
+                else if(cell.compareAndSet(v = cell.get(), v + delta))
+                    return;
+                else if(cs.length >= MAX_CELLS || cs != cells)
+                    collided = false; // table can not grow or has just grown
+                else if(!collided)
+                    collided = true; // try another cell first
+                else {
+                    growCells(cs);
+                    collided = false;
+                    continue; // retry on the grown table with the same probe
+                }
+
+                probe.advance();
+            }
+            else if(tryCreateCells(delta, probe.hash))
+                return;
+            else {
+                long b = base.get();
+                if(base.compareAndSet(b, b + delta))
+                    return; // fall back on the base while someone else creates the table
+            }
+        }
+    }
+
+    private boolean tryCreateCells(long delta, int hash) {
+        if(!cellsBusy.compareAndSet(false, true))
+            return false;
+
+        try {
+            if(cells != null)
+                return false;
+
+            PaddedAtomicLong[] cs = new PaddedAtomicLong[2];
+            cs[hash & 1] = new PaddedAtomicLong(delta);
+            cells = cs;
+            return true;
+        } finally {
+            cellsBusy.set(false);
+        }
+    }
+
+    private boolean tryFillCell(long delta, int hash) {
+        if(cellsBusy.get() || !cellsBusy.compareAndSet(false, true))
+            return false;
+
+        try {
+            PaddedAtomicLong[] cs = cells;
+            int index = hash & (cs.length - 1);
+            if(cs[index] != null)
+                return false;
+
+            cs[index] = new PaddedAtomicLong(delta);
+            return true;
+        } finally {
+            cellsBusy.set(false);
+        }
+    }
+
+    private void growCells(PaddedAtomicLong[] cs) {
+        if(cellsBusy.get() || !cellsBusy.compareAndSet(false, true))
+            return;
+
+        try {
+            if(cells == cs) {
+                PaddedAtomicLong[] grown = new PaddedAtomicLong[cs.length << 1];
+                System.arraycopy(cs, 0, grown, 0, cs.length);
+                cells = grown;
+            }
+        } finally {
+            cellsBusy.set(false);
+        }
+    }
+}
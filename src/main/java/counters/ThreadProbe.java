@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package counters;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per thread values used to spread threads over the stripes of a counter.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+final class ThreadProbe {
+
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+    private static final ThreadLocal<ThreadProbe> PROBES = new ThreadLocal<ThreadProbe>(){
+        @Override
+        protected ThreadProbe initialValue() {
+            return new ThreadProbe();
+        }
+    };
+
+    /**
+     * Sequence number of the thread in the order threads first used a counter.
+     */
+    final int index = NEXT_INDEX.getAndIncrement();
+
+    /**
+     * Pseudo random hash, moved on when the thread collided with another one.
+     */
+    int hash = ThreadLocalRandom.current().nextInt() | 1;
+
+    static ThreadProbe current() {
+        return PROBES.get();
+    }
+
+    /**
+     * Moves the hash on with a xorshift step so that the thread
+     * lands on a different stripe next time.
+     */
+    void advance() {
+        int h = hash;
+        h ^= h << 13;
+        h ^= h >>> 17;
+        h ^= h << 5;
+        hash = h;
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package journal;
+
+import spinlocks.CheckCheckSpinLock;
+import spinlocks.ITrySpinLock;
+import spinlocks.IWaitStrategy;
+import spinlocks.PaddedAtomicLong;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Append only log of a file shared by many writing threads, which takes no lock on the path
+ * of a record into memory and writes the records of many threads to the file at once (group commit).
+ *
+ * <p>
+ * Records are accumulated in a ring of batch buffers. A writer claims space for its record
+ * in the current batch with a single fetch and add on the batch's reserved count and copies
+ * its record there, concurrently with the other writers. The writer whose claim does not fit
+ * anymore seals the batch at the end of the claims before its own and moves every writer on
+ * to the next batch.
+ * </p>
+ *
+ * <p>
+ * A writer which needs its records in the file {@link #commit(long)}s the position returned
+ * by {@link #append(byte[])}. The first one to win the leader's try lock becomes the leader,
+ * as the combiner of flat combining would, seals the current batch, waits for the writers
+ * still copying into it and writes the whole batch by a single write to the file, while the
+ * others append into the next batch and wait for their position to be flushed, either by
+ * this leader or by the next one elected among them.
+ * </p>
+ *
+ * Records are written as they are, framing them is up to the writers. A record can not be
+ * larger than a batch.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class GroupCommitLog implements AutoCloseable {
+
+    /**
+     * Batches in the ring, writers fill one while the leader writes out the others.
+     */
+    private static final int BATCHES = 4;
+
+    private final FileChannel channel;
+    private final boolean force;
+    private final int batchCapacity;
+    private final IWaitStrategy waitStrategy;
+
+    private final Batch[] batches = new Batch[BATCHES];
+    private volatile Batch current;
+
+    private final ITrySpinLock leader = new CheckCheckSpinLock();
+    private long flushSequence; // sequence of the next batch to write out, guarded by the leader
+
+    /**
+     * Position of the file up to which all the records have been written.
+     */
+    private final PaddedAtomicLong flushed;
+
+    private GroupCommitLog(FileChannel channel, long position, int batchCapacity, boolean force,
+                           IWaitStrategy waitStrategy) {
+        this.channel = channel;
+        this.force = force;
+        this.batchCapacity = batchCapacity;
+        this.waitStrategy = waitStrategy;
+        this.flushed = new PaddedAtomicLong(position);
+
+        for (int i = 0; i < BATCHES; i++)
+            batches[i] = new Batch(i, batchCapacity);
+        batches[0].base = position;
+        batches[0].reserved.set(0);
+        current = batches[0];
+    }
+
+    /**
+     * Opens the given file for appending records to its end, creating it if needed.
+     */
+    public static GroupCommitLog open(Path file, int batchCapacity, IWaitStrategy waitStrategy) throws IOException {
+        return open(file, batchCapacity, false, waitStrategy);
+    }
+
+    /**
+     * Opens the given file for appending records to its end, creating it if needed.
+     *
+     * @param batchCapacity bytes per batch, the largest write to the file
+     * @param force whether every write is forced to the storage device before its records count as committed
+     * @param waitStrategy the way threads wait for a batch to be written out
+     */
+    public static GroupCommitLog open(Path file, int batchCapacity, boolean force,
+                                      IWaitStrategy waitStrategy) throws IOException {
+        if(batchCapacity <= 0)
+            throw new IllegalArgumentException(format("Batch capacity '%d' must be positive", batchCapacity));
+        requireNonNull(waitStrategy);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            return new GroupCommitLog(channel, channel.size(), batchCapacity, force, waitStrategy);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the given record without waiting for it to be written to the file. Only
+     * if all the batches are full the writer waits for, or helps with, writing one out.
+     *
+     * @return position of the file right after the record, to {@link #commit(long)}
+     */
+    public long append(byte[] record) throws IOException {
+        return append(record, null, record.length);
+    }
+
+    /**
+     * Appends the remaining bytes of the given buffer, see {@link #append(byte[])}.
+     */
+    public long append(ByteBuffer record) throws IOException {
+        return append(null, record, record.remaining());
+    }
+
+    /**
+     * Appends the given record and waits for it to be written to the file.
+     *
+     * @return position of the file right after the record
+     */
+    public long appendAndCommit(byte[] record) throws IOException {
+        long position = append(record);
+        commit(position);
+        return position;
+    }
+
+    /**
+     * Waits for all the records up to the given position to be written to the file,
+     * writing them out as the leader if no other thread does.
+     */
+    public void commit(long position) throws IOException {
+        int attempt = 0;
+        while(flushed.get() < position) {
+            if(leader.tryLock()) {
+                try {
+                    while(flushed.get() < position) {
+                        Batch batch = batches[(int) flushSequence & (BATCHES - 1)];
+                        sealIfOpen(batch);
+                        writeOut(batch);
+                    }
+                } finally {
+                    leader.unlock();
+                }
+            } else {
+                waitStrategy.idle(attempt++); // the leader is writing, likely our record too
+            }
+        }
+    }
+
+    /**
+     * Writes all the records appended so far to the file.
+     */
+    public void flush() throws IOException {
+        leader.lock();
+        try {
+            Batch last = current;
+            sealIfOpen(last);
+            long lastSequence = last.sequence;
+            while(flushSequence <= lastSequence)
+                writeOut(batches[(int) flushSequence & (BATCHES - 1)]);
+        } finally {
+            leader.unlock();
+        }
+    }
+
+    /**
+     * @return position of the file up to which all the records have been written
+     */
+    public long flushedPosition() {
+        return flushed.get();
+    }
+
+    public int batchCapacity() {
+        return batchCapacity;
+    }
+
+    /**
+     * Flushes the records appended so far and closes the file. No record may be appended
+     * concurrently or afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private long append(byte[] array, ByteBuffer buffer, int length) throws IOException {
+        if(length > batchCapacity)
+            throw new IllegalArgumentException(format("Record of '%d' bytes is larger than a batch of '%d' bytes",
+                    length, batchCapacity));
+
+        while(true){
+            Batch batch = current;
+            long offset = batch.reserved.getAndAdd(length);
+            if(offset + length <= batchCapacity) {
+                if(array != null)
+                    System.arraycopy(array, 0, batch.bytes, (int) offset, length);
+                else
+                    buffer.get(batch.bytes, (int) offset, length);
+
+                batch.filled.addAndGet(length); // publishes the record to the leader
+                return batch.base + offset + length;
+            }
+
+            if(offset <= batchCapacity) // first claim beyond the end, all the claims before it fit
+                seal(batch, (int) offset, false);
+
+            int attempt = 0;
+            while(current == batch && batch.reserved.get() > batchCapacity)
+                waitStrategy.idle(attempt++);
+
+            // retry in the next batch, or in this one if it has just been opened..
+        }
+    }
+
+    /**
+     * Seals the given batch unless it has been already, by a claim which can never fit.
+     * Only the leader seals batches which are not full, so called by the leader only.
+     */
+    private void sealIfOpen(Batch batch) throws IOException {
+        if(batch != current)
+            return;
+
+        int attempt = 0;
+        while(batch.limit < 0 && batch.reserved.get() > batchCapacity) // being opened or sealed right now
+            waitStrategy.idle(attempt++);
+
+        if(batch.limit < 0) {
+            long offset = batch.reserved.getAndAdd(batchCapacity + 1L);
+            if(offset <= batchCapacity)
+                seal(batch, (int) offset, true);
+        }
+    }
+
+    /**
+     * Ends the given current batch at the given limit and makes the next batch of the ring
+     * current once all the records it held before have been written out. The next batch is
+     * opened for claims only after it has become current, so that a writer which read the
+     * current batch a lap ago fails its claim instead of claiming space in a batch to come.
+     *
+     * @param leaderHeld whether the calling thread is the leader, which then writes out the
+     *                   sealed batches itself rather than waiting for a leader to do so
+     */
+    private void seal(Batch batch, int limit, boolean leaderHeld) throws IOException {
+        batch.limit = limit;
+
+        Batch next = batches[(int) (batch.sequence + 1) & (BATCHES - 1)];
+        int attempt = 0;
+        while(next.sequence != batch.sequence + 1) {
+            // all the batches are full, help writing out the sealed ones
+            if(leaderHeld) {
+                writeOutReplaced();
+            } else {
+                writeOutSealed();
+                waitStrategy.idle(attempt++);
+            }
+        }
+
+        next.base = batch.base + limit;
+        current = next;
+        next.reserved.set(0);
+    }
+
+    /**
+     * Writes out the batches which have been sealed and replaced as the current one, unless
+     * there is a leader already.
+     */
+    private void writeOutSealed() throws IOException {
+        if(!leader.tryLock())
+            return;
+        try {
+            writeOutReplaced();
+        } finally {
+            leader.unlock();
+        }
+    }
+
+    /**
+     * Writes out the batches before the current one. Called by the leader only.
+     */
+    private void writeOutReplaced() throws IOException {
+        Batch batch;
+        while((batch = batches[(int) flushSequence & (BATCHES - 1)]) != current)
+            writeOut(batch);
+    }
+
+    /**
+     * Writes out the given sealed batch, which has to be the next one in sequence, once all the
+     * writers which claimed space in it have copied their records, and recycles it. Called by
+     * the leader only. Should the write fail, the batch stays as it is for the next leader to retry.
+     */
+    private void writeOut(Batch batch) throws IOException {
+        int attempt = 0;
+        while(current == batch || batch.filled.get() != batch.limit)
+            waitStrategy.idle(attempt++);
+
+        ByteBuffer view = batch.view;
+        view.limit(batch.limit);
+        view.position(0);
+        long position = batch.base;
+        while(view.hasRemaining())
+            position += channel.write(view, position);
+        if(force)
+            channel.force(false);
+
+        flushed.set(batch.base + batch.limit);
+        flushSequence++;
+
+        // stays closed for claims until it is current again
+        batch.filled.set(0);
+        batch.limit = -1;
+        batch.sequence += BATCHES; // free for the writers of its next lap
+    }
+
+    private static class Batch {
+
+        final byte[] bytes;
+        final ByteBuffer view;
+
+        /**
+         * Bytes claimed by writers, claims beyond the capacity fail. Beyond the capacity
+         * from being sealed until being current again.
+         */
+        final PaddedAtomicLong reserved;
+
+        /**
+         * Bytes of the records which have been copied completely.
+         */
+        final PaddedAtomicLong filled = new PaddedAtomicLong();
+
+        /**
+         * Number of the lap of the ring this batch is for.
+         */
+        volatile long sequence;
+
+        /**
+         * Position of the file the batch starts at, set before it becomes current.
+         */
+        volatile long base;
+
+        /**
+         * End of the records once sealed, -1 while open.
+         */
+        volatile int limit = -1;
+
+        Batch(long sequence, int capacity) {
+            this.sequence = sequence;
+            this.reserved = new PaddedAtomicLong(capacity + 1L);
+            this.bytes = new byte[capacity];
+            this.view = ByteBuffer.wrap(bytes);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package offheap;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Stamps identifying the owner of a shared lock across processes. A stamp carries
+ * the process id in its upper half and the thread id in its lower half, and is
+ * never zero as process ids are positive.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+final class OwnerStamp {
+
+    private static final Path PROC = Paths.get("/proc");
+
+    static final int CURRENT_PID = currentPid();
+
+    private OwnerStamp() {
+    }
+
+    static long ofCurrentThread() {
+        return of(CURRENT_PID, Thread.currentThread().getId());
+    }
+
+    static long of(int pid, long threadId) {
+        return ((long) pid << 32) | (threadId & 0xFFFF_FFFFL);
+    }
+
+    static int pid(long stamp) {
+        return (int) (stamp >>> 32);
+    }
+
+    static int threadId(long stamp) {
+        return (int) stamp;
+    }
+
+    /**
+     * Tells whether the given process is alive as far as it can be told. Liveness is
+     * read from {@code /proc}, without it every process is taken to be alive.
+     */
+    static boolean isAlive(int pid) {
+        if(pid == CURRENT_PID || !Files.isDirectory(PROC))
+            return true;
+
+        return Files.exists(PROC.resolve(Integer.toString(pid)));
+    }
+
+    private static int currentPid() {
+        String name = ManagementFactory.getRuntimeMXBean().getName(); // "pid@host" on the usual JVMs
+        try {
+            return Integer.parseInt(name.substring(0, name.indexOf('@')));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Can not tell the process id from '" + name + "'", e);
+        }
+    }
+}
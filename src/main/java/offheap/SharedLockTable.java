@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package offheap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static java.lang.String.format;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * A table of spin locks living in a memory mapped file, so that several processes on
+ * the same host can share the locks by mapping the same file, preferably one in a
+ * memory backed file system like {@code /dev/shm}.
+ *
+ * <p>
+ * Every lock is a 64 bit word in a slot of its own cache line. A free lock is zero, an
+ * owned lock holds the stamp of its owner made of the owner's process id and thread id.
+ * Locks are taken by a compare and swap on the word, waiters spin on the word and check
+ * now and then whether the owning process is still alive. The lock of a process which has
+ * died while holding it is recovered, i.e. released, by the next waiter or by an explicit
+ * {@link #recover(int)}.
+ * </p>
+ *
+ * Liveness of processes is read from {@code /proc}, on systems without it locks of dead
+ * processes are never recovered. A reused process id keeps a lock held. Locks held by
+ * threads which died in a live process are not recovered either. The locks are not
+ * reentrant.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SharedLockTable implements Closeable {
+
+    /**
+     * Bytes per slot, one cache line so that locks do not share lines.
+     */
+    static final int SLOT_SIZE = 64;
+
+    /**
+     * Spins of a waiter in between two checks of the owner's liveness.
+     */
+    private static final int SPINS_PER_LIVENESS_CHECK = 1 << 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer; // keeps the mapping reachable
+    private final long address;
+    private final int slots;
+
+    private SharedLockTable(FileChannel channel, MappedByteBuffer buffer, int slots) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.address = UnsafeAccess.address(buffer);
+        this.slots = slots;
+    }
+
+    /**
+     * Maps the given file as a table of the given number of locks, creating the file
+     * if needed. A newly created or extended region of the file reads as free locks.
+     */
+    public static SharedLockTable open(Path file, int slots) throws IOException {
+        if(slots <= 0)
+            throw new IllegalArgumentException(format("Slots '%d' must be positive", slots));
+        if(!UnsafeAccess.isAvailable())
+            throw new UnsupportedOperationException("Atomic off-heap access is not available on this JVM");
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) slots * SLOT_SIZE);
+            return new SharedLockTable(channel, buffer, slots);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the lock of the given slot as an {@link spinlocks.ISpinLock}.
+     */
+    public SharedSpinLock lockAt(int slot) {
+        return new SharedSpinLock(this, checkSlot(slot));
+    }
+
+    public void lock(int slot) {
+        long word = wordOf(slot);
+        long stamp = OwnerStamp.ofCurrentThread();
+
+        int attempt = 0;
+        while(true){
+            long owner;
+            while((owner = UnsafeAccess.getLongVolatile(word)) != 0) {
+                if(++attempt % SPINS_PER_LIVENESS_CHECK == 0)
+                    recover(word, owner);
+                else
+                    onSpinWait(); // locally spin on cached state from now on
+            }
+
+            if(UnsafeAccess.compareAndSwapLong(word, 0, stamp))
+                return; //means this thread is owner now
+
+            // retry from scratch ..
+        }
+    }
+
+    public boolean tryLock(int slot) {
+        long word = wordOf(slot);
+        return UnsafeAccess.getLongVolatile(word) == 0
+                && UnsafeAccess.compareAndSwapLong(word, 0, OwnerStamp.ofCurrentThread());
+    }
+
+    /**
+     * @throws IllegalMonitorStateException if the calling thread does not own the lock,
+     * e.g. because it has been recovered from it
+     */
+    public void unlock(int slot) {
+        long word = wordOf(slot);
+        long stamp = OwnerStamp.ofCurrentThread();
+        long owner = UnsafeAccess.getLongVolatile(word);
+        if(owner != stamp)
+            throw new IllegalMonitorStateException(format("Lock '%d' is owned by process '%d' thread '%d'",
+                    slot, OwnerStamp.pid(owner), OwnerStamp.threadId(owner)));
+
+        UnsafeAccess.putOrderedLong(word, 0);
+    }
+
+    /**
+     * Releases the lock of the given slot if it is held by a process which is no longer alive.
+     *
+     * @return true if the lock has been recovered
+     */
+    public boolean recover(int slot) {
+        long word = wordOf(slot);
+        long owner = UnsafeAccess.getLongVolatile(word);
+        return owner != 0 && recover(word, owner);
+    }
+
+    /**
+     * Returns the process id of the owner of the given slot's lock, 0 if the lock is free.
+     */
+    public int ownerPid(int slot) {
+        return OwnerStamp.pid(UnsafeAccess.getLongVolatile(wordOf(slot)));
+    }
+
+    public int slots() {
+        return slots;
+    }
+
+    /**
+     * Closes the file, the mapping itself is released once the table is garbage collected.
+     * Locks of the table must not be used any more.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean recover(long word, long owner) {
+        return !OwnerStamp.isAlive(OwnerStamp.pid(owner)) && UnsafeAccess.compareAndSwapLong(word, owner, 0);
+    }
+
+    private long wordOf(int slot) {
+        return address + (long) checkSlot(slot) * SLOT_SIZE;
+    }
+
+    private int checkSlot(int slot) {
+        if(slot < 0 || slot >= slots)
+            throw new IndexOutOfBoundsException(format("Slot '%d' out of '%d' slots", slot, slots));
+        return slot;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package offheap;
+
+import spinlocks.ITrySpinLock;
+
+/**
+ * A lock of a {@link SharedLockTable}, shared with the other processes which map the same file.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SharedSpinLock implements ITrySpinLock {
+
+    private final SharedLockTable table;
+    private final int slot;
+
+    SharedSpinLock(SharedLockTable table, int slot) {
+        this.table = table;
+        this.slot = slot;
+    }
+
+    @Override
+    public void lock() {
+        table.lock(slot);
+    }
+
+    @Override
+    public boolean tryLock() {
+        return table.tryLock(slot);
+    }
+
+    @Override
+    public void unlock() {
+        table.unlock(slot);
+    }
+
+    public int slot() {
+        return slot;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package offheap;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Atomic operations on off-heap memory through {@code sun.misc.Unsafe}, which Java 8
+ * does not offer on buffers otherwise. The methods are looked up reflectively as
+ * method handles, so the code compiles without the internal API and fails only at
+ * runtime on a JVM which does not provide it.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+final class UnsafeAccess {
+
+    private static final MethodHandle COMPARE_AND_SWAP_LONG;
+    private static final MethodHandle GET_LONG_VOLATILE;
+    private static final MethodHandle PUT_ORDERED_LONG;
+    private static final MethodHandle GET_LONG;
+    private static final long ADDRESS_OFFSET;
+
+    static {
+        MethodHandle cas = null, getVolatile = null, putOrdered = null, get = null;
+        long addressOffset = -1;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            cas = lookup.findVirtual(unsafeClass, "compareAndSwapLong", MethodType.methodType(boolean.class,
+                    Object.class, long.class, long.class, long.class)).bindTo(unsafe);
+            getVolatile = lookup.findVirtual(unsafeClass, "getLongVolatile", MethodType.methodType(long.class,
+                    Object.class, long.class)).bindTo(unsafe);
+            putOrdered = lookup.findVirtual(unsafeClass, "putOrderedLong", MethodType.methodType(void.class,
+                    Object.class, long.class, long.class)).bindTo(unsafe);
+            get = lookup.findVirtual(unsafeClass, "getLong", MethodType.methodType(long.class,
+                    Object.class, long.class)).bindTo(unsafe);
+
+            MethodHandle fieldOffset = lookup.findVirtual(unsafeClass, "objectFieldOffset",
+                    MethodType.methodType(long.class, Field.class)).bindTo(unsafe);
+            addressOffset = (long) fieldOffset.invokeExact(Buffer.class.getDeclaredField("address"));
+        } catch (Throwable e) {
+            cas = null; // not available on this JVM
+        }
+
+        COMPARE_AND_SWAP_LONG = cas;
+        GET_LONG_VOLATILE = getVolatile;
+        PUT_ORDERED_LONG = putOrdered;
+        GET_LONG = get;
+        ADDRESS_OFFSET = addressOffset;
+    }
+
+    private UnsafeAccess() {
+    }
+
+    static boolean isAvailable() {
+        return COMPARE_AND_SWAP_LONG != null;
+    }
+
+    /**
+     * Returns the native address of the given direct buffer.
+     */
+    static long address(ByteBuffer buffer) {
+        if(!buffer.isDirect())
+            throw new IllegalArgumentException("Buffer must be a direct buffer");
+        try {
+            return (long) GET_LONG.invokeExact((Object) buffer, ADDRESS_OFFSET);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static boolean compareAndSwapLong(long address, long expected, long value) {
+        try {
+            return (boolean) COMPARE_AND_SWAP_LONG.invokeExact((Object) null, address, expected, value);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static long getLongVolatile(long address) {
+        try {
+            return (long) GET_LONG_VOLATILE.invokeExact((Object) null, address);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void putOrderedLong(long address, long value) {
+        try {
+            PUT_ORDERED_LONG.invokeExact((Object) null, address, value);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package pools;
+
+import counters.StripedCounter;
+import queues.MPMCBoundedQueue;
+import spinlocks.BusySpinWaitStrategy;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pool of reusable objects, e.g. queue nodes or buffers, built as the magazine layer
+ * proposed by Bonwick and Adams for the slab allocator.
+ *
+ * <br/><a href="https://www.usenix.org/legacy/event/usenix01/full_papers/bonwick/bonwick.pdf"><b>Link to paper</b></a>
+ *
+ * <p>
+ * Every thread caches objects in two magazines of its own, arrays of a fixed size which it
+ * takes objects from and puts them back to without any synchronization. Only when both of
+ * them are empty on acquire, or full on release, the thread exchanges a whole magazine with a
+ * shared depot: full magazines are taken from and given to a {@link MPMCBoundedQueue}, the
+ * emptied ones are kept in another one for refilling. A batch of objects thus moves between
+ * threads by a single lock-free offer and poll, e.g. from the consumer of a queue releasing
+ * its nodes to the producers acquiring them.
+ * </p>
+ *
+ * <p>
+ * The depot holds a bounded number of magazines. Once it is full, objects released beyond
+ * the thread's own magazines are handed to the release policy and dropped from the pool, to
+ * be collected or to free resources they hold. When the pool runs dry, objects are created
+ * by the factory. Once the pool has warmed up to the working set, acquiring and releasing
+ * allocate nothing.
+ * </p>
+ *
+ * Objects cached by a thread which terminates are left to the garbage collector.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class ObjectPool<T> {
+
+    private final Supplier<? extends T> factory;
+    private final Consumer<? super T> releasePolicy;
+    private final int magazineSize;
+
+    private final MPMCBoundedQueue<Magazine> fullMagazines;
+    private final MPMCBoundedQueue<Magazine> emptyMagazines;
+
+    private final ThreadLocal<Cache> cache;
+
+    private final StripedCounter created = new StripedCounter();
+    private final StripedCounter dropped = new StripedCounter();
+
+    /**
+     * A pool with magazines of 32 objects and a depot of up to 64 magazines, dropping the
+     * objects beyond.
+     */
+    public ObjectPool(Supplier<? extends T> factory) {
+        this(factory, 32, 64, object -> {});
+    }
+
+    /**
+     * @param factory creates the objects when the pool has none
+     * @param magazineSize objects per magazine, the batch moved to and from the depot at once
+     * @param depotCapacity maximum number of full magazines in the depot, must be a power of two
+     * @param releasePolicy invoked with every object released while the depot is full,
+     *                      before the object is dropped
+     */
+    public ObjectPool(Supplier<? extends T> factory, int magazineSize, int depotCapacity,
+                      Consumer<? super T> releasePolicy) {
+        if(magazineSize <= 0)
+            throw new IllegalArgumentException(format("Magazine size '%d' must be positive", magazineSize));
+
+        this.factory = requireNonNull(factory);
+        this.releasePolicy = requireNonNull(releasePolicy);
+        this.magazineSize = magazineSize;
+        this.fullMagazines = new MPMCBoundedQueue<>(depotCapacity, new BusySpinWaitStrategy());
+        this.emptyMagazines = new MPMCBoundedQueue<>(depotCapacity, new BusySpinWaitStrategy());
+
+        cache = new ThreadLocal<Cache>(){
+            @Override
+            protected Cache initialValue() {
+                return new Cache();
+            }
+        };
+    }
+
+    /**
+     * @return a pooled object, or a new one if the pool has none left
+     */
+    public T acquire() {
+        Cache cache = this.cache.get();
+        if(cache.loaded.isEmpty()) {
+            if(!cache.previous.isEmpty()) {
+                cache.swap();
+            } else {
+                Magazine full = fullMagazines.poll();
+                if(full == null) {
+                    created.increment();
+                    return factory.get();
+                }
+                emptyMagazines.offer(cache.loaded); // dropped if there are enough empty ones
+                cache.loaded = full;
+            }
+        }
+        return cache.loaded.pop();
+    }
+
+    /**
+     * Returns the given object to the pool, it must not be used by the caller anymore.
+     */
+    public void release(T object) {
+        requireNonNull(object);
+
+        Cache cache = this.cache.get();
+        if(cache.loaded.isFull()) {
+            if(!cache.previous.isFull()) {
+                cache.swap();
+            } else if(fullMagazines.offer(cache.previous)) {
+                Magazine empty = emptyMagazines.poll();
+                cache.previous = empty != null ? empty : new Magazine(magazineSize);
+                cache.swap();
+            } else {
+                dropped.increment();
+                releasePolicy.accept(object);
+                return;
+            }
+        }
+        cache.loaded.push(object);
+    }
+
+    /**
+     * @return number of objects created by the factory so far
+     */
+    public long created() {
+        return created.sum();
+    }
+
+    /**
+     * @return number of objects handed to the release policy so far
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return number of full magazines in the depot
+     */
+    public int depotSize() {
+        return fullMagazines.size();
+    }
+
+    public int magazineSize() {
+        return magazineSize;
+    }
+
+    /**
+     * The magazines of a single thread, the loaded one is used first, the previous one
+     * keeps a thread which alternates around a magazine boundary from going to the depot.
+     */
+    private class Cache {
+        Magazine loaded = new Magazine(magazineSize);
+        Magazine previous = new Magazine(magazineSize);
+
+        void swap() {
+            Magazine magazine = loaded;
+            loaded = previous;
+            previous = magazine;
+        }
+    }
+
+    /**
+     * Fixed size stack of objects, confined to one thread at a time.
+     */
+    private static class Magazine {
+        private final Object[] objects;
+        private int count;
+
+        Magazine(int size) {
+            objects = new Object[size];
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        boolean isFull() {
+            return count == objects.length;
+        }
+
+        void push(Object object) {
+            objects[count++] = object;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T pop() {
+            T object = (T) objects[--count];
+            objects[count] = null; // the pool must not keep objects in use reachable
+            return object;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package queues;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Position of one side (producer or consumer) of a single producer single
+ * consumer queue along with the last position it has seen of the opposite side.
+ *
+ * The position is written by the owning side only and read by the opposite side. The
+ * cached opposite position is private to the owning side which re-reads the opposite
+ * side's position, i.e. causes a probable cache miss, only when the cached one tells
+ * the queue is full (producer) or empty (consumer). The fields are padded to a cache
+ * line of their own so that the two sides do not invalidate each other's lines.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+final class Cursor {
+
+    private static final AtomicLongFieldUpdater<Cursor> POSITION =
+            AtomicLongFieldUpdater.newUpdater(Cursor.class, "position");
+
+    private volatile long position;
+
+    /**
+     * Last seen position of the opposite side, only touched by the owning side.
+     */
+    long cachedOpposite;
+
+    // 6 longs = 48 bytes which together with the above fill a 64 byte cache line
+    long p1, p2, p3, p4, p5, p6;
+
+    long get() {
+        return position;
+    }
+
+    /**
+     * Publishes a new position with a store which is not followed by a full fence,
+     * writes done before it are visible to a thread which reads the new position.
+     */
+    void lazySet(long newPosition) {
+        POSITION.lazySet(this, newPosition);
+    }
+}
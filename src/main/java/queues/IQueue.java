@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package queues;
+
+import java.util.function.Consumer;
+
+/**
+ * Contract for non-blocking queues used to hand elements over between threads.
+ *
+ * Null elements are not permitted, a null returned from {@link #poll()} means
+ * the queue was found empty.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public interface IQueue<E> {
+
+    /**
+     * Adds the given element if there is space for it.
+     *
+     * @return false if the queue was found full
+     */
+    boolean offer(E e);
+
+    /**
+     * Adds as many elements of the given batch, in order, as there is space for.
+     *
+     * @return number of elements added from the beginning of the batch
+     */
+    int offer(E[] batch);
+
+    /**
+     * Removes the head of the queue.
+     *
+     * @return the removed element or null if the queue was found empty
+     */
+    E poll();
+
+    /**
+     * Removes up to the given number of elements and hands them, in order, to the
+     * given consumer.
+     *
+     * @return number of elements handed to the consumer
+     */
+    int drain(Consumer<? super E> consumer, int limit);
+
+    /**
+     * @return an estimate of the number of elements in the queue, exact only
+     * when no other thread is modifying it.
+     */
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package queues;
+
+import spinlocks.IWaitStrategy;
+import spinlocks.PaddedAtomicLong;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Bounded multi-producer multi-consumer queue proposed by Dmitry Vyukov.
+ *
+ * <br/><a href="http://www.1024cores.net/home/lock-free-algorithms/queues/bounded-mpmc-queue"><b>Link to article</b></a>
+ *
+ * <p>
+ * The queue is a ring buffer where every slot carries its own sequence number
+ * telling whose turn it is on that slot. A producer claims the slot at the tail by
+ * a single compare and swap on the enqueue position once the slot's sequence says
+ * it is free for this lap, fills it and then publishes it by advancing the slot's
+ * sequence. Consumers do the same at the head with the dequeue position.
+ * </p>
+ *<p>
+ * <h1>Benefits</h1>
+ * <ul>
+ *  <li>Producers and consumers never contend on a common lock, they only contend
+ *  among themselves on their own (padded) position counter.</li>
+ *  <li>A slot is only ever touched by the one producer and the one consumer which
+ *  claimed it.</li>
+ *  <li>Batches are claimed with a single compare and swap.</li>
+ * </ul>
+ *</p>
+ *
+ * Threads which need to wait for space or elements do so through the given
+ * {@link IWaitStrategy} in {@link #put(Object)} and {@link #take()}.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class MPMCBoundedQueue<E> implements IQueue<E> {
+
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicReferenceArray<E> buffer;
+
+    /**
+     * Turn of every slot. A slot at position p is free for the producer of p when
+     * its sequence is p and is filled for the consumer of p when its sequence is p + 1.
+     */
+    private final AtomicLongArray sequences;
+
+    private final PaddedAtomicLong enqueuePosition = new PaddedAtomicLong();
+    private final PaddedAtomicLong dequeuePosition = new PaddedAtomicLong();
+
+    private final IWaitStrategy waitStrategy;
+
+    /**
+     * @param capacity maximum number of elements, must be a power of two
+     * @param waitStrategy the way threads wait in {@link #put(Object)} and {@link #take()}
+     */
+    public MPMCBoundedQueue(int capacity, IWaitStrategy waitStrategy) {
+        if(capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException(format("Capacity '%d' must be a power of two larger than one",
+                    capacity));
+
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.waitStrategy = requireNonNull(waitStrategy);
+
+        for (int i = 0; i < capacity; i++)
+            sequences.lazySet(i, i);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        requireNonNull(e);
+
+        long position = enqueuePosition.get();
+        while(true){
+            int index = (int) position & mask;
+            long turn = sequences.get(index) - position;
+
+            if(turn == 0) { // slot is free for this lap
+                if(enqueuePosition.compareAndSet(position, position + 1)) {
+                    fill(index, e, position);
+                    return true;
+                }
+            }
+            else if(turn < 0) // slot still holds an element of the previous lap
+                return false;
+
+            // some other producer moved ahead, retry from its position..
+            position = enqueuePosition.get();
+        }
+    }
+
+    @Override
+    public int offer(E[] batch) {
+        return offer(batch, 0, batch.length);
+    }
+
+    /**
+     * Adds as many elements of the given range of the batch, in order, as there is
+     * space for. The slots for all of them are claimed with a single compare and swap.
+     *
+     * @return number of elements added from the beginning of the range
+     */
+    public int offer(E[] batch, int from, int length) {
+        for (int i = from; i < from + length; i++)
+            requireNonNull(batch[i]);
+
+        while(true){
+            long position = enqueuePosition.get();
+            long free = capacity - (position - dequeuePosition.get());
+            if(free <= 0)
+                return 0;
+
+            int n = (int) Math.min(free, length);
+            if(enqueuePosition.compareAndSet(position, position + n)) {
+                // every claimed slot has been claimed by some consumer already
+                // which might still be about to free it
+                for (int i = 0; i < n; i++) {
+                    long slotPosition = position + i;
+                    int index = (int) slotPosition & mask;
+                    while(sequences.get(index) != slotPosition)
+                        onSpinWait();
+
+                    fill(index, batch[from + i], slotPosition);
+                }
+                return n;
+            }
+
+            // retry from scratch..
+        }
+    }
+
+    @Override
+    public E poll() {
+        long position = dequeuePosition.get();
+        while(true){
+            int index = (int) position & mask;
+            long turn = sequences.get(index) - (position + 1);
+
+            if(turn == 0) { // slot has been filled for this lap
+                if(dequeuePosition.compareAndSet(position, position + 1))
+                    return empty(index, position);
+            }
+            else if(turn < 0) // slot not filled yet
+                return null;
+
+            // some other consumer moved ahead, retry from its position..
+            position = dequeuePosition.get();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The slots of all the drained elements are claimed with a single compare and swap.
+     * Should the consumer throw, the remaining elements of the claimed batch are dropped.
+     */
+    @Override
+    public int drain(Consumer<? super E> consumer, int limit) {
+        while(true){
+            long position = dequeuePosition.get();
+            long available = enqueuePosition.get() - position;
+            if(available <= 0 || limit <= 0)
+                return 0;
+
+            int n = (int) Math.min(available, limit);
+            if(dequeuePosition.compareAndSet(position, position + n)) {
+                int i = 0;
+                try {
+                    for (; i < n; i++)
+                        consumer.accept(awaitAndEmpty(position + i));
+                } finally {
+                    // a failing consumer must not leave claimed slots behind
+                    // as they would block the producers of the next lap
+                    for (i++; i < n; i++)
+                        awaitAndEmpty(position + i);
+                }
+                return n;
+            }
+
+            // retry from scratch..
+        }
+    }
+
+    /**
+     * Adds the given element, waiting for space if the queue is full.
+     */
+    public void put(E e) {
+        int attempt = 0;
+        while(!offer(e))
+            waitStrategy.idle(attempt++);
+    }
+
+    /**
+     * Removes the head of the queue, waiting for an element if the queue is empty.
+     */
+    public E take() {
+        int attempt = 0;
+        E e;
+        while((e = poll()) == null)
+            waitStrategy.idle(attempt++);
+        return e;
+    }
+
+    @Override
+    public int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private void fill(int index, E e, long position) {
+        buffer.lazySet(index, e);
+        sequences.lazySet(index, position + 1); // publish to the consumer of this lap
+    }
+
+    private E empty(int index, long position) {
+        E e = buffer.get(index);
+        buffer.lazySet(index, null);
+        sequences.lazySet(index, position + capacity); // free for the producer of next lap
+        return e;
+    }
+
+    private E awaitAndEmpty(long position) {
+        int index = (int) position & mask;
+        // the producer of this claimed slot might still be filling it
+        while(sequences.get(index) != position + 1)
+            onSpinWait();
+
+        return empty(index, position);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package queues;
+
+import pools.ObjectPool;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Unbounded queue for many producer threads and exactly one consumer thread
+ * proposed by Dmitry Vyukov.
+ *
+ * <br/><a href="http://www.1024cores.net/home/lock-free-algorithms/queues/non-intrusive-mpsc-node-based-queue"><b>Link to article</b></a>
+ *
+ * <p>
+ * Producers enqueue the same way requesters join the queue of {@link spinlocks.Q_MCSSpinLock}:
+ * a single unconditional swap of the tail makes the new node the last one and hands back
+ * the predecessor which is then linked to it. Producers therefore never retry and never
+ * spin. A batch is linked up privately and joins the queue with a single swap.
+ * </p>
+ * <p>
+ * The consumer owns the head which is a stub node whose successor holds the next element.
+ * Between a producer's swap and its link the successor is not visible yet, in that window
+ * the consumer waits for the producer to reveal it, just like {@code Q_MCSSpinLock.unlock()}
+ * waits for a successor.
+ * </p>
+ *
+ * Every offered element costs one node allocation, unless the queue pools its nodes. Then
+ * producers take nodes from an {@link ObjectPool} shared by all such queues and the consumer
+ * returns every node it has moved past, which is safe as its predecessor link has been made
+ * by then and no producer touches it anymore.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class MPSCLinkedQueue<E> implements IQueue<E> {
+
+    /**
+     * Last node in the queue, swapped in by producers.
+     */
+    private final AtomicReference<Node<E>> tail;
+
+    /**
+     * Stub node preceding the first element, owned by the consumer.
+     */
+    private Node<E> head;
+
+    private final boolean pooledNodes;
+
+    public MPSCLinkedQueue() {
+        this(false);
+    }
+
+    /**
+     * @param pooledNodes whether nodes are reused through a pool rather than allocated for every element
+     */
+    public MPSCLinkedQueue(boolean pooledNodes) {
+        this.pooledNodes = pooledNodes;
+        head = new Node<>(null);
+        tail = new AtomicReference<>(head);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Node<E> node = newNode(requireNonNull(e));
+
+        Node<E> predecessor = tail.getAndSet(node); // I'm the last node now
+        predecessor.lazySetNext(node); // reveal myself to the consumer
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All the elements are added, the batch joins the queue with a single swap of the tail.
+     */
+    @Override
+    public int offer(E[] batch) {
+        if(batch.length == 0)
+            return 0;
+
+        for (E e : batch)
+            requireNonNull(e);
+
+        Node<E> first = newNode(batch[0]);
+        Node<E> last = first;
+        for (int i = 1; i < batch.length; i++) {
+            Node<E> node = newNode(batch[i]);
+            last.lazySetNext(node); // private until published by the swap below
+            last = node;
+        }
+
+        Node<E> predecessor = tail.getAndSet(last);
+        predecessor.lazySetNext(first);
+        return batch.length;
+    }
+
+    @Override
+    public E poll() {
+        Node<E> next = successorOfHead();
+        if(next == null)
+            return null;
+
+        return advanceHead(next);
+    }
+
+    @Override
+    public int drain(Consumer<? super E> consumer, int limit) {
+        int n = 0;
+        Node<E> next;
+        while(n < limit && (next = successorOfHead()) != null) {
+            n++;
+            consumer.accept(advanceHead(next));
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Counting walks the nodes, it is meant for monitoring only.
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        Node<E> node = head;
+        Node<E> last = tail.get();
+        while(node != last && size < Integer.MAX_VALUE) {
+            Node<E> next = node.next;
+            if(next == null || next == node) // not linked yet or consumed in the meantime
+                break;
+            node = next;
+            size++;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head == tail.get();
+    }
+
+    /**
+     * Consumer side only.
+     *
+     * @return the node holding the next element or null if the queue is empty
+     */
+    private Node<E> successorOfHead() {
+        Node<E> next = head.next;
+        if(next == null && head != tail.get()) {
+            // Guard
+            // Being here means some producer has swapped the tail
+            // and is about to link itself to my head
+            while((next = head.next) == null) // wait until it reveals itself
+                onSpinWait();
+        }
+        return next;
+    }
+
+    /**
+     * Consumer side only. Makes the given successor of head the new stub.
+     */
+    private E advanceHead(Node<E> next) {
+        E e = next.value;
+        next.value = null;
+
+        Node<E> consumed = head;
+        head = next;
+        consumed.lazySetNext(consumed); // unlink so a promoted garbage node does not retain the queue
+        if(pooledNodes)
+            NodePool.NODES.release(consumed);
+        return e;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<E> newNode(E e) {
+        if(!pooledNodes)
+            return new Node<>(e);
+
+        Node<E> node = (Node<E>) NodePool.NODES.acquire();
+        node.value = e;
+        node.lazySetNext(null); // private until published by the swap of the tail
+        return node;
+    }
+
+    /**
+     * Holds the pool shared by the queues which pool their nodes, created on first use.
+     */
+    private static class NodePool {
+        static final ObjectPool<Node<?>> NODES = new ObjectPool<>(() -> new Node<>(null));
+    }
+
+    private static class Node<E> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+        E value;
+        volatile Node<E> next;
+
+        Node(E value) {
+            this.value = value;
+        }
+
+        void lazySetNext(Node<E> node) {
+            NEXT.lazySet(this, node);
+        }
+    }
+}
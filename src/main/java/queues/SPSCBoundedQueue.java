@@ -0,0 +1,179 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package queues;
+
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounded queue for exactly one producer thread and one consumer thread
+ * (Lamport's ring buffer with cached positions).
+ *
+ * <p>
+ * Since each position has a single writer, neither side ever needs an atomic read modify
+ * write instruction. Elements are published by a lazy set of the producer position and
+ * slots are freed by a lazy set of the consumer position, none of which stalls the writing
+ * core on a full fence. Each side remembers the last seen position of the opposite
+ * side and only reads the opposite side's cache line again when the remembered position
+ * says the queue is full (producer) or empty (consumer).
+ * </p>
+ *
+ * Batches are published and drained with a single position update. Neither offering
+ * nor draining allocates.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SPSCBoundedQueue<E> implements IQueue<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final E[] buffer;
+
+    private final Cursor producer = new Cursor();
+    private final Cursor consumer = new Cursor();
+
+    /**
+     * @param capacity maximum number of elements, must be a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public SPSCBoundedQueue(int capacity) {
+        if(capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException(format("Capacity '%d' must be a power of two larger than one",
+                    capacity));
+
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.buffer = (E[]) new Object[capacity];
+    }
+
+    @Override
+    public boolean offer(E e) {
+        requireNonNull(e);
+
+        long position = producer.get();
+        if(freeSlots(position, 1) == 0)
+            return false;
+
+        buffer[(int) position & mask] = e;
+        producer.lazySet(position + 1); // publish to the consumer
+        return true;
+    }
+
+    @Override
+    public int offer(E[] batch) {
+        for (E e : batch)
+            requireNonNull(e);
+
+        long position = producer.get();
+        int n = (int) Math.min(freeSlots(position, batch.length), batch.length);
+        for (int i = 0; i < n; i++)
+            buffer[(int) (position + i) & mask] = batch[i];
+
+        if(n > 0)
+            producer.lazySet(position + n); // publish the whole batch at once
+        return n;
+    }
+
+    @Override
+    public E poll() {
+        long position = consumer.get();
+        if(filledSlots(position, 1) == 0)
+            return null;
+
+        int index = (int) position & mask;
+        E e = buffer[index];
+        buffer[index] = null;
+        consumer.lazySet(position + 1); // free the slot for the producer
+        return e;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The drained slots are freed for the producer with a single position update.
+     */
+    @Override
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long position = this.consumer.get();
+        int n = (int) Math.min(filledSlots(position, limit), Math.max(0, limit));
+
+        int i = 0;
+        try {
+            for (; i < n; i++) {
+                int index = (int) (position + i) & mask;
+                E e = buffer[index];
+                buffer[index] = null;
+                consumer.accept(e);
+            }
+        } finally {
+            if(i < n)
+                i++; // the element the consumer failed on has been taken out already
+
+            if(i > 0)
+                this.consumer.lazySet(position + i);
+        }
+        return n;
+    }
+
+    @Override
+    public int size() {
+        long size = producer.get() - consumer.get();
+        return (int) Math.max(0, Math.min(capacity, size));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Producer side only.
+     *
+     * @param wanted number of slots the producer is looking for
+     */
+    private long freeSlots(long producerPosition, int wanted) {
+        long free = capacity - (producerPosition - producer.cachedOpposite);
+        if(free < wanted) { // looks full, check where the consumer actually is
+            producer.cachedOpposite = consumer.get();
+            free = capacity - (producerPosition - producer.cachedOpposite);
+        }
+        return free;
+    }
+
+    /**
+     * Consumer side only.
+     *
+     * @param wanted number of elements the consumer is looking for
+     */
+    private long filledSlots(long consumerPosition, int wanted) {
+        long filled = consumer.cachedOpposite - consumerPosition;
+        if(filled < wanted) { // looks empty, check where the producer actually is
+            consumer.cachedOpposite = producer.get();
+            filled = consumer.cachedOpposite - consumerPosition;
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package reclamation;
+
+import spinlocks.CheckCheckSpinLock;
+import spinlocks.ISpinLock;
+import spinlocks.PaddedAtomicLong;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Epoch based reclamation proposed by Keir Fraser, deferring the release of objects
+ * unlinked from a shared structure until no reader can still be looking at them.
+ *
+ * <br/><a href="https://www.cl.cam.ac.uk/techreports/UCAM-CL-TR-579.pdf"><b>Link to thesis</b></a>
+ *
+ * <p>
+ * Readers mark the beginning and the end of their traversal with {@link #enter()} and
+ * {@link #exit()}, which only write the reader's own padded epoch slot. A writer which has
+ * unlinked an object hands it over to {@link #retire(Object, Consumer)} together with the
+ * action releasing it, e.g. returning a buffer to a pool or freeing off-heap memory. The
+ * object is tagged with the global epoch of that moment. The global epoch only moves on
+ * once every reader inside a traversal has observed the current one, so once it has moved
+ * on twice past the tag of an object, all readers which might have seen the object have
+ * left (a grace period) and the object is released.
+ * </p>
+ *
+ * Traversals may be nested by the same thread. Retiring and reclaiming are serialized by
+ * an internal lock, readers never touch it. Reclaimers run under that lock, so they must not
+ * retire objects themselves. A reader which stays inside a traversal holds
+ * back all reclamation, while the garbage collector takes care of the objects' memory anyway.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class EpochReclaimer {
+
+    private static final long INACTIVE = 0;
+
+    private final PaddedAtomicLong globalEpoch = new PaddedAtomicLong(1);
+
+    /**
+     * Epoch slots of all the readers ever registered, copied on every registration.
+     */
+    private final AtomicReference<Participant[]> participants = new AtomicReference<>(new Participant[0]);
+
+    private final ThreadLocal<Participant> self = new ThreadLocal<Participant>(){
+        @Override
+        protected Participant initialValue() {
+            return register();
+        }
+    };
+
+    private final ISpinLock retiredLock = new CheckCheckSpinLock();
+    private final ArrayDeque<Retired<?>> retired = new ArrayDeque<>();
+
+    /**
+     * Marks the beginning of a traversal by the calling thread.
+     */
+    public void enter() {
+        Participant me = self.get();
+        if(me.depth++ == 0)
+            me.set(active(globalEpoch.get())); // volatile store, ordered before the reads of the traversal
+    }
+
+    /**
+     * Marks the end of a traversal by the calling thread.
+     */
+    public void exit() {
+        Participant me = self.get();
+        if(me.depth == 0)
+            throw new IllegalStateException("Exit without enter");
+        if(--me.depth == 0)
+            me.lazySet(INACTIVE);
+    }
+
+    /**
+     * Defers the release of an object which has been unlinked and can no longer be reached
+     * by readers entering from now on. Also tries to reclaim previously retired objects.
+     *
+     * @param object the unlinked object
+     * @param reclaimer releases the object once no reader can be looking at it any more
+     */
+    public <T> void retire(T object, Consumer<? super T> reclaimer) {
+        Retired<T> entry = new Retired<>(requireNonNull(object), requireNonNull(reclaimer), globalEpoch.get());
+
+        retiredLock.lock();
+        try {
+            retired.addLast(entry);
+        } finally {
+            retiredLock.unlock();
+        }
+
+        tryReclaim();
+    }
+
+    /**
+     * Moves the global epoch on if all the readers inside a traversal have observed it
+     * and releases the objects whose grace period has passed.
+     *
+     * @return number of released objects
+     */
+    public int tryReclaim() {
+        retiredLock.lock();
+        try {
+            tryAdvance();
+            return releaseBefore(globalEpoch.get() - 1);
+        } finally {
+            retiredLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every object retired so far has been released. Must not be called
+     * from inside a traversal.
+     */
+    public void synchronize() {
+        long target = globalEpoch.get() + 2;
+        while(true){
+            retiredLock.lock();
+            try {
+                tryAdvance();
+                long epoch = globalEpoch.get();
+                releaseBefore(epoch - 1);
+                if(epoch >= target)
+                    return;
+            } finally {
+                retiredLock.unlock();
+            }
+
+            onSpinWait(); // readers still in an older epoch..
+        }
+    }
+
+    /**
+     * Returns the number of retired objects which are not released yet.
+     */
+    public int pending() {
+        retiredLock.lock();
+        try {
+            return retired.size();
+        } finally {
+            retiredLock.unlock();
+        }
+    }
+
+    private void tryAdvance() {
+        long epoch = globalEpoch.get();
+        long current = active(epoch);
+        for (Participant participant : participants.get()) {
+            long state = participant.get();
+            if(state != INACTIVE && state != current)
+                return; // a reader has not observed the current epoch yet
+        }
+        globalEpoch.compareAndSet(epoch, epoch + 1);
+    }
+
+    /**
+     * Releases the retired objects tagged with an epoch lower than the given one.
+     */
+    private int releaseBefore(long epoch) {
+        int released = 0;
+        Retired<?> entry;
+        while((entry = retired.peekFirst()) != null && entry.epoch < epoch) {
+            retired.pollFirst();
+            entry.release();
+            released++;
+        }
+        return released;
+    }
+
+    private Participant register() {
+        Participant participant = new Participant();
+        while(true){
+            Participant[] current = participants.get();
+            Participant[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = participant;
+            if(participants.compareAndSet(current, next))
+                return participant;
+
+            // retry from scratch..
+        }
+    }
+
+    private static long active(long epoch) {
+        return epoch << 1 | 1;
+    }
+
+    /**
+     * Epoch slot of a reader, {@link #INACTIVE} outside of traversals.
+     */
+    private static class Participant extends PaddedAtomicLong {
+        private static final long serialVersionUID = 1L;
+
+        int depth; // only touched by the owning thread
+    }
+
+    private static class Retired<T> {
+        final T object;
+        final Consumer<? super T> reclaimer;
+        final long epoch;
+
+        Retired(T object, Consumer<? super T> reclaimer, long epoch) {
+            this.object = object;
+            this.reclaimer = reclaimer;
+            this.epoch = epoch;
+        }
+
+        void release() {
+            reclaimer.accept(object);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package reclamation;
+
+import spinlocks.ISpinLock;
+import spinlocks.PaddedAtomicLong;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Left-Right concurrency control proposed by Pedro Ramalhete and Andreia Correia, giving
+ * wait-free reads of a structure which is not thread safe itself, e.g. a {@code HashMap}.
+ *
+ * <p>
+ * The structure is kept twice. Readers arrive at one of two read indicators, read whichever
+ * copy is active and depart, they never retry and never wait. Writers are serialized by the
+ * given {@link ISpinLock}. A writer applies its mutation to the inactive copy, makes it the
+ * active one and then waits until every reader which might still be reading the previously
+ * active copy has departed, by toggling the version which tells readers where to arrive and
+ * waiting for both indicators to drain in turn. Then it applies the same mutation to the
+ * other copy, which no reader can reach anymore.
+ * </p>
+ *
+ * Unlike a sequence lock, readers never see a copy while it is modified, so they need not
+ * validate nor retry. A read indicator is a padded slot per reader thread which only that
+ * thread writes, the first read of a thread registers its slot. Reads may be nested by the
+ * same thread. Mutations must be deterministic, as they are applied to both copies, and must
+ * not keep references into a copy; reads must not leak references into a copy either. A
+ * mutation throwing halfway leaves the copies differing.
+ *
+ * <br/><a href="https://hal.archives-ouvertes.fr/hal-01207881/document"><b>Link to paper</b></a>
+ *
+ * @param <T> type of the structure
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class LeftRight<T> {
+
+    private static final long NOT_READING = 0;
+
+    private final T left;
+    private final T right;
+    private final ISpinLock writerLock;
+
+    /**
+     * The copy readers read, true for the left one.
+     */
+    private volatile boolean readLeft = true;
+
+    /**
+     * The read indicator readers arrive at, 0 or 1.
+     */
+    private volatile int versionIndex;
+
+    /**
+     * Read indicators of all the readers ever registered, copied on every registration.
+     */
+    private final AtomicReference<Reader[]> readers = new AtomicReference<>(new Reader[0]);
+
+    private final ThreadLocal<Reader> self = new ThreadLocal<Reader>(){
+        @Override
+        protected Reader initialValue() {
+            return register();
+        }
+    };
+
+    /**
+     * @param left one copy of the structure
+     * @param right the other copy, equal to the first one but not sharing any mutable state
+     * @param writerLock serializes the writers
+     */
+    public LeftRight(T left, T right, ISpinLock writerLock) {
+        if(left == right)
+            throw new IllegalArgumentException("Copies must be distinct instances");
+
+        this.left = requireNonNull(left);
+        this.right = requireNonNull(right);
+        this.writerLock = requireNonNull(writerLock);
+    }
+
+    /**
+     * Applies the given function to the active copy, which will not be modified
+     * before the function returns.
+     */
+    public <R> R read(Function<? super T, ? extends R> reader) {
+        Reader me = self.get();
+        if(me.depth++ > 0) { // already arrived by an outer read
+            try {
+                return reader.apply(readLeft ? left : right);
+            } finally {
+                me.depth--;
+            }
+        }
+
+        me.set(versionIndex + 1); // arrive, volatile store ordered before reading the copy
+        try {
+            return reader.apply(readLeft ? left : right);
+        } finally {
+            me.depth = 0;
+            me.lazySet(NOT_READING); // depart
+        }
+    }
+
+    /**
+     * Applies the given mutation to both copies, one after the other.
+     */
+    public void write(Consumer<? super T> mutation) {
+        writeAndGet(copy -> {
+            mutation.accept(copy);
+            return null;
+        });
+    }
+
+    /**
+     * Applies the given mutation to both copies, one after the other.
+     *
+     * @return what the mutation returned for the first copy
+     */
+    public <R> R writeAndGet(Function<? super T, ? extends R> mutation) {
+        writerLock.lock();
+        try {
+            boolean wasLeft = readLeft;
+            R result = mutation.apply(wasLeft ? right : left); // nobody reads the inactive copy
+
+            readLeft = !wasLeft; // readers arriving from now on read the modified copy
+            toggleVersionAndWait();
+
+            mutation.apply(wasLeft ? left : right); // nobody can still be reading the previous copy
+            return result;
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * A reader which arrived before the copies were switched might read the previously active
+     * copy, whichever indicator it arrived at. The indicator readers will arrive at next is
+     * drained first, so that readers there surely leave, then readers are moved over to it
+     * and the previous indicator is drained.
+     */
+    private void toggleVersionAndWait() {
+        int previous = versionIndex;
+        int next = previous ^ 1;
+
+        awaitDeparture(next);
+        versionIndex = next;
+        awaitDeparture(previous);
+    }
+
+    private void awaitDeparture(int index) {
+        long arrived = index + 1;
+        for (Reader reader : readers.get()) {
+            while(reader.get() == arrived)
+                onSpinWait(); // its read is in progress..
+        }
+    }
+
+    private Reader register() {
+        Reader reader = new Reader();
+        while(true){
+            Reader[] current = readers.get();
+            Reader[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = reader;
+            if(readers.compareAndSet(current, next))
+                return reader;
+
+            // retry from scratch..
+        }
+    }
+
+    /**
+     * Read indicator of a reader, the version index it arrived at plus one or {@link #NOT_READING}.
+     */
+    private static class Reader extends PaddedAtomicLong {
+        private static final long serialVersionUID = 1L;
+
+        int depth; // only touched by the owning thread
+    }
+}
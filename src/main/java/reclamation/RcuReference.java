@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package reclamation;
+
+import spinlocks.ISpinLock;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A read-copy-update reference for read dominated structures, e.g. routing tables.
+ *
+ * <p>
+ * Readers work on the current version inside a traversal of an {@link EpochReclaimer},
+ * they neither take a lock nor write anything shared. Writers are serialized by the
+ * given {@link ISpinLock}, copy the current version, modify the copy and publish it
+ * with a single volatile store. The replaced version is retired and released by the
+ * given reclaimer once no reader can be working on it any more.
+ * </p>
+ *
+ * Versions must not be modified once published.
+ *
+ * @param <T> type of the versions
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class RcuReference<T> {
+
+    private final ISpinLock writerLock;
+    private final EpochReclaimer reclaimer;
+    private final Consumer<? super T> release;
+
+    private volatile T current;
+
+    /**
+     * @param initial the first version
+     * @param writerLock serializes the writers
+     * @param reclaimer defers the release of replaced versions, may be shared by several references
+     * @param release releases a replaced version once no reader can be working on it
+     */
+    public RcuReference(T initial, ISpinLock writerLock, EpochReclaimer reclaimer, Consumer<? super T> release) {
+        this.current = requireNonNull(initial);
+        this.writerLock = requireNonNull(writerLock);
+        this.reclaimer = requireNonNull(reclaimer);
+        this.release = requireNonNull(release);
+    }
+
+    /**
+     * Applies the given function to the current version, which will not be released
+     * before the function returns. The function must not leak the version.
+     */
+    public <R> R read(Function<? super T, ? extends R> reader) {
+        reclaimer.enter();
+        try {
+            return reader.apply(current);
+        } finally {
+            reclaimer.exit();
+        }
+    }
+
+    /**
+     * Replaces the current version by the one the given function derives from it.
+     * The function must return a new version, not modify the current one.
+     *
+     * @return the new version
+     */
+    public T update(UnaryOperator<T> copyAndModify) {
+        T replaced;
+        T next;
+
+        writerLock.lock();
+        try {
+            replaced = current;
+            next = requireNonNull(copyAndModify.apply(replaced));
+            current = next; // readers entering from now on see the new version
+        } finally {
+            writerLock.unlock();
+        }
+
+        if(next != replaced)
+            reclaimer.retire(replaced, release);
+        return next;
+    }
+}
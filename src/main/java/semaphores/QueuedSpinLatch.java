@@ -0,0 +1,230 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package semaphores;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.String.format;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * A one shot count down latch whose waiters spin on nodes of their own.
+ *
+ * <p>
+ * A waiting thread pushes its own node onto a list of waiters and spins on the node's flag,
+ * so waiters do not hammer the count which the counting threads update. The thread which
+ * counts down to zero detaches the whole list with a single swap and raises the flags one
+ * after the other, unparking only those waiters which have given up spinning.
+ * </p>
+ *
+ * Waiting does not respond to interruption. Every thread which has to wait allocates a node.
+ * A waiter which times out marks its node cancelled, and every waiter pushing its node unlinks
+ * the cancelled ones, so the list never holds more than the waiters still waiting plus those
+ * which timed out since the last push.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class QueuedSpinLatch {
+
+    /**
+     * Replaces the list of waiters once the latch is open.
+     */
+    private static final Waiter OPEN = new Waiter(null);
+
+    private final AtomicInteger count;
+    private final AtomicReference<Waiter> waiters = new AtomicReference<>();
+    private final int spinsBeforePark;
+
+    public QueuedSpinLatch(int count) {
+        this(count, 1000);
+    }
+
+    /**
+     * @param count number of times {@link #countDown()} must be invoked to open the latch
+     * @param spinsBeforePark number of spins a waiter does before it parks
+     */
+    public QueuedSpinLatch(int count, int spinsBeforePark) {
+        if(count < 0 || spinsBeforePark < 0)
+            throw new IllegalArgumentException(format("Count '%d' and spins '%d' must not be negative",
+                    count, spinsBeforePark));
+
+        this.count = new AtomicInteger(count);
+        this.spinsBeforePark = spinsBeforePark;
+        if(count == 0)
+            waiters.set(OPEN);
+    }
+
+    public void countDown() {
+        countDown(1);
+    }
+
+    /**
+     * Counts down the given number of times at once, opening the latch if the count
+     * reaches zero. Counting down an open latch has no effect.
+     */
+    public void countDown(int n) {
+        if(n <= 0)
+            throw new IllegalArgumentException(format("Count '%d' must be positive", n));
+
+        while(true){
+            int c = count.get();
+            if(c == 0)
+                return;
+
+            int next = Math.max(0, c - n);
+            if(count.compareAndSet(c, next)) {
+                if(next == 0)
+                    open();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits until the latch is open.
+     */
+    public void await() {
+        await(Long.MAX_VALUE);
+    }
+
+    /**
+     * Waits at most the given time for the latch to open.
+     *
+     * @return true if the latch is open, false if timed out
+     */
+    public boolean await(long timeout, TimeUnit unit) {
+        return await(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    public int getCount() {
+        return count.get();
+    }
+
+    private boolean await(long deadline) {
+        if(waiters.get() == OPEN)
+            return true;
+
+        Waiter me = new Waiter(Thread.currentThread());
+        while(true){
+            Waiter first = waiters.get();
+            if(first == OPEN)
+                return true;
+
+            me.next = unlinkCancelled(first);
+            if(waiters.compareAndSet(first, me))
+                break;
+        }
+
+        int attempt = 0;
+        while(!me.released) {
+            if(deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+                // the next waiter to push unlinks my node, should the latch not open first
+                me.cancelled = true;
+                return me.released;
+            }
+
+            if(attempt++ < spinsBeforePark) {
+                onSpinWait();
+                continue;
+            }
+
+            me.parked = true;
+            if(!me.released) { // re-check after announcing the park
+                if(deadline == Long.MAX_VALUE)
+                    LockSupport.park(this);
+                else
+                    LockSupport.parkNanos(this, deadline - System.nanoTime());
+            }
+            me.parked = false;
+        }
+        return true;
+    }
+
+    /**
+     * @return number of nodes on the list of waiters, including the cancelled ones not unlinked yet
+     */
+    int queueLength() {
+        int length = 0;
+        for (Waiter waiter = waiters.get(); waiter != null && waiter != OPEN; waiter = waiter.next)
+            length++;
+        return length;
+    }
+
+    /**
+     * Unlinks the cancelled nodes from the list starting with the given node. Pushing waiters
+     * may do so concurrently: every one only ever links a node to one further down, skipping
+     * cancelled nodes only, and nodes are only ever added on top. Thus a node which is not
+     * cancelled stays reachable, while a cancelled one may be linked back in by a racing
+     * waiter and is skipped over by the next.
+     *
+     * @return the first node which is not cancelled, null if none
+     */
+    private static Waiter unlinkCancelled(Waiter first) {
+        while(first != null && first.cancelled)
+            first = first.next;
+
+        for (Waiter waiter = first; waiter != null; ) {
+            Waiter next = waiter.next;
+            if(next != null && next.cancelled) {
+                do {
+                    next = next.next;
+                } while(next != null && next.cancelled);
+                waiter.next = next;
+            }
+            waiter = next;
+        }
+        return first;
+    }
+
+    private void open() {
+        Waiter waiter = waiters.getAndSet(OPEN);
+        while(waiter != null && waiter != OPEN) {
+            Waiter next = waiter.next;
+            waiter.released = true;
+            if(waiter.parked)
+                LockSupport.unpark(waiter.thread);
+            waiter = next;
+        }
+    }
+
+    private static class Waiter {
+        final Thread thread;
+        /**
+         * Set before the node is pushed, afterwards only to unlink cancelled nodes
+         */
+        volatile Waiter next;
+
+        volatile boolean released;
+        volatile boolean parked;
+        volatile boolean cancelled;
+
+        Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
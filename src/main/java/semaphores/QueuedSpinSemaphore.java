@@ -0,0 +1,290 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package semaphores;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.String.format;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * A counting semaphore whose waiters queue up the way requesters of
+ * {@link spinlocks.Q_MCSSpinLock} do.
+ *
+ * <p>
+ * A thread which finds too few permits (or other threads already waiting) appends its own
+ * node to the queue with a single swap of the tail. Only the thread at the head of the queue
+ * watches the permit count, every other waiter spins on a flag of its own node which its
+ * predecessor sets when handing over the head of the queue. Permits are therefore handed
+ * out in first-come-first-served order, also to threads asking for several permits at once,
+ * and a release does not stampede all the waiters.
+ * </p>
+ * <p>
+ * Waiters spin for a configurable number of times before they park, a releaser unparks
+ * the head waiter and a leaving head unparks its successor only if they did park, so the
+ * handoff between running threads never goes through the scheduler.
+ * </p>
+ *
+ * Waiting does not respond to interruption. Every thread which has to wait allocates a node.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class QueuedSpinSemaphore {
+
+    private static final int WAITING = 0;
+    private static final int HEAD = 1;
+    private static final int CANCELLED = 2;
+
+    private final AtomicInteger permits;
+    private final AtomicReference<Waiter> tail = new AtomicReference<>();
+
+    /**
+     * Waiter currently at the head of the queue, null when the queue is empty.
+     */
+    private volatile Waiter head;
+
+    private final int spinsBeforePark;
+
+    public QueuedSpinSemaphore(int permits) {
+        this(permits, 1000);
+    }
+
+    /**
+     * @param permits initially available permits
+     * @param spinsBeforePark number of spins a waiter does before it parks
+     */
+    public QueuedSpinSemaphore(int permits, int spinsBeforePark) {
+        if(permits < 0 || spinsBeforePark < 0)
+            throw new IllegalArgumentException(format("Permits '%d' and spins '%d' must not be negative",
+                    permits, spinsBeforePark));
+
+        this.permits = new AtomicInteger(permits);
+        this.spinsBeforePark = spinsBeforePark;
+    }
+
+    public void acquire() {
+        acquire(1);
+    }
+
+    /**
+     * Takes the given number of permits, waiting until they are available.
+     */
+    public void acquire(int n) {
+        checkPermits(n);
+        if(!tryAcquire(n))
+            queueAndAcquire(n, Long.MAX_VALUE);
+    }
+
+    /**
+     * Takes the given number of permits if they are available and no other thread is waiting.
+     *
+     * @return true if the permits have been taken
+     */
+    public boolean tryAcquire(int n) {
+        checkPermits(n);
+        return tail.get() == null && takePermits(n);
+    }
+
+    /**
+     * Takes the given number of permits, waiting at most the given time for them.
+     *
+     * @return true if the permits have been taken, false if timed out
+     */
+    public boolean tryAcquire(int n, long timeout, TimeUnit unit) {
+        checkPermits(n);
+        if(tryAcquire(n))
+            return true;
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return queueAndAcquire(n, deadline);
+    }
+
+    public void release() {
+        release(1);
+    }
+
+    /**
+     * Gives back the given number of permits.
+     */
+    public void release(int n) {
+        checkPermits(n);
+        permits.addAndGet(n);
+
+        Waiter h = head;
+        if(h != null && h.parked)
+            LockSupport.unpark(h.thread);
+    }
+
+    public int availablePermits() {
+        return permits.get();
+    }
+
+    /**
+     * @return true if some thread is waiting for permits
+     */
+    public boolean hasQueuedThreads() {
+        return tail.get() != null;
+    }
+
+    private boolean queueAndAcquire(int n, long deadline) {
+        Waiter me = new Waiter(n);
+
+        // set self as the last node in the queue
+        Waiter predecessor = tail.getAndSet(me);
+        if(predecessor == null)
+            becomeHead(me);
+        else {
+            predecessor.next = me; // I'm successor now
+
+            // wait until predecessor hands the head over to me
+            if(!awaitHead(me, deadline))
+                return false; // timed out and left the queue
+        }
+
+        // being the head, I'm the only waiter watching the permits
+        int attempt = 0;
+        while(!takePermits(n)) {
+            if(System.nanoTime() - deadline >= 0 && deadline != Long.MAX_VALUE) {
+                passHead(me);
+                return false;
+            }
+            idle(me, attempt++, deadline);
+        }
+
+        passHead(me);
+        return true;
+    }
+
+    /**
+     * @return false if timed out and cancelled before becoming the head
+     */
+    private boolean awaitHead(Waiter me, long deadline) {
+        int attempt = 0;
+        while(me.status != HEAD) {
+            if(deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+                if(STATUS.compareAndSet(me, WAITING, CANCELLED))
+                    return false; // predecessor will skip me
+
+                // got the head handed over in the meantime
+                break;
+            }
+            idle(me, attempt++, deadline);
+        }
+        return true;
+    }
+
+    private void becomeHead(Waiter me) {
+        me.status = HEAD;
+        head = me;
+    }
+
+    /**
+     * Hands the head of the queue over to the next waiter which has not cancelled,
+     * or empties the queue.
+     */
+    private void passHead(Waiter me) {
+        Waiter node = me;
+        while(true){
+            Waiter successor = node.next;
+            if(successor == null) {
+                head = null;
+                if(tail.compareAndSet(node, null))
+                    return; // means nobody else is waiting
+
+                // Guard
+                // Being here means someone has added itself as tail
+                // and is next in line to become my successor
+                while((successor = node.next) == null) // wait until successor reveals itself
+                    onSpinWait();
+            }
+
+            if(STATUS.compareAndSet(successor, WAITING, HEAD)) {
+                head = successor;
+                if(successor.parked)
+                    LockSupport.unpark(successor.thread);
+                return;
+            }
+
+            node = successor; // successor has cancelled, skip it
+        }
+    }
+
+    /**
+     * Spins first, then parks until unparked by a releaser or predecessor,
+     * or until the deadline.
+     */
+    private void idle(Waiter me, int attempt, long deadline) {
+        if(attempt < spinsBeforePark) {
+            onSpinWait();
+            return;
+        }
+
+        me.parked = true;
+        // re-check after announcing the park, a releaser or predecessor
+        // who missed the announcement has already done its part
+        if(me.status == HEAD ? permits.get() < me.permits : me.status == WAITING) {
+            if(deadline == Long.MAX_VALUE)
+                LockSupport.park(this);
+            else
+                LockSupport.parkNanos(this, deadline - System.nanoTime());
+        }
+        me.parked = false;
+    }
+
+    private boolean takePermits(int n) {
+        while(true){
+            int available = permits.get();
+            if(available < n)
+                return false;
+            if(permits.compareAndSet(available, available - n))
+                return true;
+        }
+    }
+
+    private static void checkPermits(int n) {
+        if(n <= 0)
+            throw new IllegalArgumentException(format("Number of permits '%d' must be positive", n));
+    }
+
+    private static final AtomicIntegerFieldUpdater<Waiter> STATUS =
+            AtomicIntegerFieldUpdater.newUpdater(Waiter.class, "status");
+
+    private static class Waiter {
+        final int permits;
+        final Thread thread = Thread.currentThread();
+
+        volatile int status = WAITING;
+        volatile boolean parked;
+        volatile Waiter next;
+
+        Waiter(int permits) {
+            this.permits = permits;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sets;
+
+/**
+ * Sorted linked list with a lock per node, traversed by lock coupling (hand-over-hand):
+ * a thread holds the lock of a node while it acquires the lock of the successor and only
+ * then releases the first one.
+ *
+ * <p>
+ * Threads therefore move through the list in a pipeline and can work on different parts
+ * of it at the same time, unlike under a single lock. A thread holding two adjacent nodes
+ * can neither be overtaken nor have its nodes removed, so no validation is needed. The
+ * price is a lock acquisition per node passed, for every operation including
+ * {@link #contains(long)}, and a thread at the front holds up all the threads behind it.
+ * </p>
+ *
+ * @see OptimisticLinkedSet
+ * @see LazyLinkedSet
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class CoupledLockLinkedSet implements ILongSet {
+
+    private final Node head = Node.emptyList();
+
+    @Override
+    public boolean add(long key) {
+        Node.checkKey(key);
+
+        Node pred = lockWindow(key);
+        Node curr = pred.next;
+        try {
+            if(curr.key == key)
+                return false;
+
+            pred.next = new Node(key, curr);
+            return true;
+        } finally {
+            curr.unlock();
+            pred.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(long key) {
+        Node.checkKey(key);
+
+        Node pred = lockWindow(key);
+        Node curr = pred.next;
+        try {
+            if(curr.key != key)
+                return false;
+
+            pred.next = curr.next;
+            return true;
+        } finally {
+            curr.unlock();
+            pred.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(long key) {
+        Node.checkKey(key);
+
+        Node pred = lockWindow(key);
+        Node curr = pred.next;
+        try {
+            return curr.key == key;
+        } finally {
+            curr.unlock();
+            pred.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return Node.count(head);
+    }
+
+    /**
+     * Couples locks down the list up to the first node not below the given key.
+     *
+     * @return the predecessor of that node, both of them locked
+     */
+    private Node lockWindow(long key) {
+        Node pred = head;
+        pred.lock();
+        Node curr = pred.next;
+        curr.lock();
+        while(curr.key < key) {
+            pred.unlock(); // the successor is held, nobody can get in between
+            pred = curr;
+            curr = curr.next;
+            curr.lock();
+        }
+        return pred;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sets;
+
+/**
+ * Contract for concurrent sorted sets of primitive {@code long} keys, e.g. the price
+ * levels of an order book. Keys are kept unboxed.
+ *
+ * {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE} are reserved for the sentinels
+ * bounding the structures and are not permitted as keys.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public interface ILongSet {
+
+    /**
+     * @return true if the key was not in the set and has been added
+     */
+    boolean add(long key);
+
+    /**
+     * @return true if the key was in the set and has been removed
+     */
+    boolean remove(long key);
+
+    boolean contains(long key);
+
+    /**
+     * Counts the keys by walking the set, meant for monitoring only.
+     */
+    int size();
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sets;
+
+/**
+ * Sorted linked list with a lock per node where removal is split in two: a node is first
+ * marked as removed (logical removal) and then unlinked (physical removal), both while
+ * holding the locks of the node and its predecessor.
+ *
+ * <p>
+ * The mark makes the validation of {@link OptimisticLinkedSet} a local check of the two
+ * locked nodes instead of a second traversal. It also tells any traversal whether a node it
+ * runs into is still in the set, so {@link #contains(long)} takes no locks and never
+ * retries: it is wait-free, a single traversal of the list.
+ * </p>
+ *
+ * Proposed by Heller, Herlihy, Luchangco, Moir, Scherer and Shavit.
+ *
+ * @see CoupledLockLinkedSet
+ * @see OptimisticLinkedSet
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class LazyLinkedSet implements ILongSet {
+
+    private final Node head = Node.emptyList();
+
+    @Override
+    public boolean add(long key) {
+        Node.checkKey(key);
+        while(true){
+            Node pred = findPredecessor(key);
+            Node curr = pred.next;
+            pred.lock();
+            curr.lock();
+            try {
+                if(validate(pred, curr)) {
+                    if(curr.key == key)
+                        return false;
+
+                    pred.next = new Node(key, curr);
+                    return true;
+                }
+            } finally {
+                curr.unlock();
+                pred.unlock();
+            }
+
+            // retry from scratch..
+        }
+    }
+
+    @Override
+    public boolean remove(long key) {
+        Node.checkKey(key);
+        while(true){
+            Node pred = findPredecessor(key);
+            Node curr = pred.next;
+            pred.lock();
+            curr.lock();
+            try {
+                if(validate(pred, curr)) {
+                    if(curr.key != key)
+                        return false;
+
+                    curr.marked = true; // logically removed, contains() no longer finds it
+                    pred.next = curr.next; // physically removed
+                    return true;
+                }
+            } finally {
+                curr.unlock();
+                pred.unlock();
+            }
+
+            // retry from scratch..
+        }
+    }
+
+    @Override
+    public boolean contains(long key) {
+        Node.checkKey(key);
+
+        Node curr = head;
+        while(curr.key < key)
+            curr = curr.next;
+        return curr.key == key && !curr.marked;
+    }
+
+    @Override
+    public int size() {
+        return Node.count(head);
+    }
+
+    private Node findPredecessor(long key) {
+        Node pred = head;
+        Node curr = pred.next;
+        while(curr.key < key) {
+            pred = curr;
+            curr = curr.next;
+        }
+        return pred;
+    }
+
+    /**
+     * Neither node removed and still adjacent, checked while holding both locks.
+     */
+    private static boolean validate(Node pred, Node curr) {
+        return !pred.marked && !curr.marked && pred.next == curr;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sets;
+
+import spinlocks.EmbeddedTTASSpinLock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Skip list with a lock per node and lazy removal, proposed by Herlihy, Lev, Luchangco and
+ * Shavit, bringing the ideas of {@link LazyLinkedSet} to a structure with logarithmic search.
+ *
+ * <br/><a href="https://people.csail.mit.edu/shanir/publications/LazySkipList.pdf"><b>Link to paper</b></a>
+ *
+ * <p>
+ * A node is on a random number of levels. Adding a key locks the predecessors on all the levels
+ * of the new node, validates that they are unmarked and still point to the successors found,
+ * links the node bottom up and finally flags it as fully linked. Removing a key marks the node
+ * under its own lock and then unlinks it top down while holding the locks of its predecessors.
+ * Predecessors shared by adjacent levels are locked once, the node locks are not reentrant.
+ * </p>
+ *
+ * {@link #contains(long)} takes no locks and never retries: a key is in the set if its node is
+ * found fully linked and unmarked, which makes it wait-free.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class LazySkipListSet implements ILongSet {
+
+    /**
+     * Highest level index, enough for hundreds of millions of keys.
+     */
+    private static final int MAX_LEVEL = 24;
+
+    private final SkipNode head = new SkipNode(Long.MIN_VALUE, MAX_LEVEL);
+
+    public LazySkipListSet() {
+        SkipNode tail = new SkipNode(Long.MAX_VALUE, MAX_LEVEL);
+        for (int level = 0; level <= MAX_LEVEL; level++)
+            head.next.lazySet(level, tail);
+        head.fullyLinked = true;
+        tail.fullyLinked = true;
+    }
+
+    @Override
+    public boolean add(long key) {
+        Node.checkKey(key);
+
+        int topLevel = randomLevel();
+        SkipNode[] preds = new SkipNode[MAX_LEVEL + 1];
+        SkipNode[] succs = new SkipNode[MAX_LEVEL + 1];
+        while(true){
+            int found = find(key, preds, succs);
+            if(found != -1) {
+                SkipNode node = succs[found];
+                if(!node.marked) {
+                    while(!node.fullyLinked) // being added right now, wait for it to be complete
+                        onSpinWait();
+                    return false;
+                }
+                continue; // being removed, retry once it is gone..
+            }
+
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                for (int level = 0; valid && level <= topLevel; level++) {
+                    SkipNode pred = preds[level];
+                    SkipNode succ = succs[level];
+                    if(level == 0 || pred != preds[level - 1])
+                        pred.lock();
+                    highestLocked = level;
+                    valid = !pred.marked && !succ.marked && pred.next.get(level) == succ;
+                }
+                if(!valid)
+                    continue; // retry from scratch..
+
+                SkipNode node = new SkipNode(key, topLevel);
+                for (int level = 0; level <= topLevel; level++)
+                    node.next.lazySet(level, succs[level]); // private until linked below
+                for (int level = 0; level <= topLevel; level++)
+                    preds[level].next.set(level, node);
+
+                node.fullyLinked = true; // linearization point
+                return true;
+            } finally {
+                unlock(preds, highestLocked);
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(long key) {
+        Node.checkKey(key);
+
+        SkipNode victim = null;
+        boolean marked = false;
+        SkipNode[] preds = new SkipNode[MAX_LEVEL + 1];
+        SkipNode[] succs = new SkipNode[MAX_LEVEL + 1];
+        while(true){
+            int found = find(key, preds, succs);
+            if(found != -1)
+                victim = succs[found];
+
+            if(!marked) {
+                // only a node found on its top level, complete and unmarked can be removed
+                if(found == -1 || !victim.fullyLinked || victim.topLevel != found || victim.marked)
+                    return false;
+
+                victim.lock();
+                if(victim.marked) { // somebody else is removing it
+                    victim.unlock();
+                    return false;
+                }
+                victim.marked = true; // linearization point, removed logically
+                marked = true;
+            }
+
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                for (int level = 0; valid && level <= victim.topLevel; level++) {
+                    SkipNode pred = preds[level];
+                    if(level == 0 || pred != preds[level - 1])
+                        pred.lock();
+                    highestLocked = level;
+                    valid = !pred.marked && pred.next.get(level) == victim;
+                }
+                if(!valid)
+                    continue; // a predecessor changed, find them again..
+
+                for (int level = victim.topLevel; level >= 0; level--)
+                    preds[level].next.set(level, victim.next.get(level));
+
+                victim.unlock();
+                return true;
+            } finally {
+                unlock(preds, highestLocked);
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(long key) {
+        Node.checkKey(key);
+
+        SkipNode pred = head;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            SkipNode curr = pred.next.get(level);
+            while(curr.key < key) {
+                pred = curr;
+                curr = pred.next.get(level);
+            }
+            if(curr.key == key)
+                return curr.fullyLinked && !curr.marked;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (SkipNode node = head.next.get(0); node.key != Long.MAX_VALUE; node = node.next.get(0)) {
+            if(node.fullyLinked && !node.marked)
+                size++;
+        }
+        return size;
+    }
+
+    /**
+     * Fills in the predecessor and the successor of the given key on every level.
+     *
+     * @return the highest level the key was found on, -1 if it was not found
+     */
+    private int find(long key, SkipNode[] preds, SkipNode[] succs) {
+        int found = -1;
+        SkipNode pred = head;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            SkipNode curr = pred.next.get(level);
+            while(curr.key < key) {
+                pred = curr;
+                curr = pred.next.get(level);
+            }
+            if(found == -1 && curr.key == key)
+                found = level;
+            preds[level] = pred;
+            succs[level] = curr;
+        }
+        return found;
+    }
+
+    /**
+     * Unlocks the predecessors locked up to the given level, each of them once.
+     */
+    private static void unlock(SkipNode[] preds, int highestLocked) {
+        for (int level = 0; level <= highestLocked; level++) {
+            if(level == 0 || preds[level] != preds[level - 1])
+                preds[level].unlock();
+        }
+    }
+
+    /**
+     * @return a level index with probability 1/2 for every next level, up to {@link #MAX_LEVEL}
+     */
+    private static int randomLevel() {
+        return Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt() | 1 << MAX_LEVEL);
+    }
+
+    private static class SkipNode {
+
+        private static final EmbeddedTTASSpinLock<SkipNode> LOCK = new EmbeddedTTASSpinLock<>(
+                AtomicIntegerFieldUpdater.newUpdater(SkipNode.class, "lock"));
+
+        final long key;
+        final int topLevel;
+        final AtomicReferenceArray<SkipNode> next;
+
+        volatile boolean marked;
+        volatile boolean fullyLinked;
+
+        private volatile int lock;
+
+        SkipNode(long key, int topLevel) {
+            this.key = key;
+            this.topLevel = topLevel;
+            this.next = new AtomicReferenceArray<>(topLevel + 1);
+        }
+
+        void lock() {
+            LOCK.lock(this);
+        }
+
+        void unlock() {
+            LOCK.unlock(this);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sets;
+
+import spinlocks.EmbeddedTTASSpinLock;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static java.lang.String.format;
+
+/**
+ * Node of the linked sets, carrying its lock as an embedded {@link EmbeddedTTASSpinLock}
+ * field, so that a node is just its key, its successor, the lock word and the mark.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+class Node {
+
+    private static final EmbeddedTTASSpinLock<Node> LOCK = new EmbeddedTTASSpinLock<>(
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "lock"));
+
+    final long key;
+    volatile Node next;
+
+    /**
+     * True once the node has been logically removed, only used by {@link LazyLinkedSet}.
+     */
+    volatile boolean marked;
+
+    private volatile int lock;
+
+    Node(long key, Node next) {
+        this.key = key;
+        this.next = next;
+    }
+
+    void lock() {
+        LOCK.lock(this);
+    }
+
+    void unlock() {
+        LOCK.unlock(this);
+    }
+
+    /**
+     * @return the head sentinel of an empty list, followed by the tail sentinel
+     */
+    static Node emptyList() {
+        return new Node(Long.MIN_VALUE, new Node(Long.MAX_VALUE, null));
+    }
+
+    static long checkKey(long key) {
+        if(key == Long.MIN_VALUE || key == Long.MAX_VALUE)
+            throw new IllegalArgumentException(format("Key '%d' is reserved for the sentinels", key));
+        return key;
+    }
+
+    /**
+     * Counts the nodes between the given head and the tail sentinel which are not marked.
+     */
+    static int count(Node head) {
+        int size = 0;
+        for (Node node = head.next; node.key != Long.MAX_VALUE; node = node.next) {
+            if(!node.marked)
+                size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sets;
+
+/**
+ * Sorted linked list with a lock per node, traversed without any locks: a thread finds the
+ * two nodes around its key, locks just these two and then validates that they are still
+ * reachable and adjacent, retrying from scratch otherwise.
+ *
+ * <p>
+ * Traversals no longer hold each other up, an operation takes two locks only. The
+ * validation walks the list once more, which pays off as long as traversing is much
+ * cheaper than locking and conflicts are rare. As a removed node looks like any other
+ * node to a traversal, {@link #contains(long)} has to lock and validate as well.
+ * </p>
+ *
+ * @see CoupledLockLinkedSet
+ * @see LazyLinkedSet
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class OptimisticLinkedSet implements ILongSet {
+
+    private final Node head = Node.emptyList();
+
+    @Override
+    public boolean add(long key) {
+        Node.checkKey(key);
+        while(true){
+            Node pred = findPredecessor(key);
+            Node curr = pred.next;
+            pred.lock();
+            curr.lock();
+            try {
+                if(validate(pred, curr)) {
+                    if(curr.key == key)
+                        return false;
+
+                    pred.next = new Node(key, curr);
+                    return true;
+                }
+            } finally {
+                curr.unlock();
+                pred.unlock();
+            }
+
+            // retry from scratch..
+        }
+    }
+
+    @Override
+    public boolean remove(long key) {
+        Node.checkKey(key);
+        while(true){
+            Node pred = findPredecessor(key);
+            Node curr = pred.next;
+            pred.lock();
+            curr.lock();
+            try {
+                if(validate(pred, curr)) {
+                    if(curr.key != key)
+                        return false;
+
+                    pred.next = curr.next;
+                    return true;
+                }
+            } finally {
+                curr.unlock();
+                pred.unlock();
+            }
+
+            // retry from scratch..
+        }
+    }
+
+    @Override
+    public boolean contains(long key) {
+        Node.checkKey(key);
+        while(true){
+            Node pred = findPredecessor(key);
+            Node curr = pred.next;
+            pred.lock();
+            curr.lock();
+            try {
+                if(validate(pred, curr))
+                    return curr.key == key;
+            } finally {
+                curr.unlock();
+                pred.unlock();
+            }
+
+            // retry from scratch..
+        }
+    }
+
+    @Override
+    public int size() {
+        return Node.count(head);
+    }
+
+    /**
+     * @return the last node below the given key, found without locking
+     */
+    private Node findPredecessor(long key) {
+        Node pred = head;
+        Node curr = pred.next;
+        while(curr.key < key) {
+            pred = curr;
+            curr = curr.next;
+        }
+        return pred;
+    }
+
+    /**
+     * Tells whether the locked predecessor is still reachable and still points to the locked
+     * successor. Being reachable means it has not been removed, being locked it cannot be now.
+     */
+    private boolean validate(Node pred, Node curr) {
+        Node node = head;
+        while(node.key <= pred.key) {
+            if(node == pred)
+                return pred.next == curr;
+            node = node.next;
+        }
+        return false;
+    }
+}
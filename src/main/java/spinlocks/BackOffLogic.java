@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.String.format;
+
+/**
+ * Adaptive backoff logic which upon every next invocation
+ * increases the time delay.
+ *
+ * The delay is picked randomly below an upper bound which starts at the
+ * minimum delay and doubles on every back-off until it reaches the maximum
+ * delay. Instances are stateful and meant to be confined to a single waiting
+ * thread; callers which only keep an attempt count can use the stateless
+ * {@link #backOff(long, long, TimeUnit, int)} instead.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class BackOffLogic {
+
+    private final long minDelay;
+    private final long maxDelay;
+    private final TimeUnit unit;
+    private long upperBound;
+
+    /**
+     * @param minDelay minimum delay in millisecs
+     * @param maxDelay maximum delay in millisecs
+     */
+    public BackOffLogic(int minDelay, int maxDelay) {
+        this(minDelay, maxDelay, TimeUnit.MILLISECONDS);
+    }
+
+    public BackOffLogic(long minDelay, long maxDelay, TimeUnit unit) {
+        checkDelays(minDelay, maxDelay);
+
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.unit = unit;
+        this.upperBound = minDelay;
+    }
+
+    /**
+     * Parks the calling thread for a random delay below the current
+     * upper bound and then widens the bound for the next invocation.
+     */
+    public void backOff() {
+        long delay = ThreadLocalRandom.current().nextLong(upperBound);
+        upperBound = Math.min(maxDelay, 2 * upperBound);
+        LockSupport.parkNanos(unit.toNanos(delay));
+    }
+
+    /**
+     * Narrows the upper bound back to the minimum delay, e.g. after the
+     * awaited condition has been met.
+     */
+    public void reset() {
+        upperBound = minDelay;
+    }
+
+    /**
+     * Stateless variant of {@link #backOff()}. The upper bound is derived from the
+     * number of consecutive unsuccessful attempts, doubling with each attempt. A
+     * negative attempt count is treated as having exhausted the doubling already.
+     *
+     * @param minDelay the minimum delay
+     * @param maxDelay the maximum delay
+     * @param unit unit of the delays
+     * @param attempt number of consecutive unsuccessful attempts so far, starting at 0
+     */
+    public static void backOff(long minDelay, long maxDelay, TimeUnit unit, int attempt) {
+        long bound = attempt < 0 || attempt >= Long.numberOfLeadingZeros(minDelay) - 1 ?
+                maxDelay : Math.min(maxDelay, minDelay << attempt);
+        LockSupport.parkNanos(unit.toNanos(ThreadLocalRandom.current().nextLong(bound)));
+    }
+
+    static void checkDelays(long minDelay, long maxDelay) {
+        if(minDelay <= 0 || minDelay > maxDelay)
+            throw new IllegalArgumentException(format("Min delay '%d' must be positive and not larger than max delay '%d'",
+                    minDelay, maxDelay));
+    }
+}
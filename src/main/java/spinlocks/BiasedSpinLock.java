@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * An asymmetric lock biased towards a dominant owner thread.
+ *
+ * <p>
+ * The owner and the other threads ("intruders") agree on the lock by a Dekker style
+ * handshake on two flags. The owner raises its flag and checks the intruders' flag, and
+ * releases the lock by lowering its flag again. This way the owner's fast path is made of
+ * a volatile store, a load and an ordered store, without any atomic read-modify-write
+ * instruction and without writing to a cache line the intruders write to: the two flags
+ * live in objects of their own, the owner's one padded. An intruder first wins a
+ * {@link CheckCheckSpinLock} against the other intruders, then raises the intruders' flag
+ * and waits for the owner's flag to drop. On a conflict the owner backs off, so the two
+ * sides can not live lock.
+ * </p>
+ *
+ * <p>
+ * The lock is biased towards the first thread which locks it. Once intruders have taken the
+ * lock a number of times in a row without the owner taking it in between, or once
+ * {@link #revokeBias()} is invoked, the bias is revoked for good and the former owner goes
+ * the intruders' way as well. The owner's flag counts the owner's acquisitions, so intruders
+ * tell whether the owner has taken the lock since their last acquisition without the owner
+ * writing anything for them. Revocation needs no coordination with the owner, as intruders
+ * keep checking the owner's flag anyway.
+ * </p>
+ *
+ * Neither locking nor unlocking is reentrant.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class BiasedSpinLock implements ISpinLock {
+
+    private final AtomicReference<Thread> owner = new AtomicReference<>();
+    private final int revokeThreshold;
+
+    private volatile boolean biased = true;
+
+    /**
+     * Written by the owner only. Odd while the owner wants or holds the lock, raised from
+     * and lowered to the next even value, so it also counts the owner's acquisitions.
+     * Allocated right before the intruders' side, its padding keeps them apart.
+     */
+    private final PaddedAtomicLong ownerFlag = new PaddedAtomicLong();
+
+    private final IntruderSide intruderSide = new IntruderSide();
+    private final ISpinLock intruders = new CheckCheckSpinLock();
+
+    public BiasedSpinLock() {
+        this(1024);
+    }
+
+    /**
+     * @param revokeThreshold number of intruder acquisitions in a row which revoke the bias
+     */
+    public BiasedSpinLock(int revokeThreshold) {
+        if(revokeThreshold <= 0)
+            throw new IllegalArgumentException(format("Revoke threshold '%d' must be positive", revokeThreshold));
+
+        this.revokeThreshold = revokeThreshold;
+    }
+
+    @Override
+    public void lock() {
+        if(biased && isOwner()) {
+            lockAsOwner();
+            return;
+        }
+
+        intruders.lock();
+        IntruderSide side = intruderSide;
+        side.flag = 1; // volatile store, ordered before reading the owner's flag
+        long ownerEpoch;
+        while(((ownerEpoch = ownerFlag.get()) & 1) == 1)
+            onSpinWait(); // owner holds the lock or is about to back off
+
+        // guarded by the intruders' lock
+        if(ownerEpoch != side.ownerEpoch) { // the owner has taken the lock in between
+            side.ownerEpoch = ownerEpoch;
+            side.intrusions = 0;
+        }
+        if(++side.intrusions >= revokeThreshold)
+            biased = false;
+    }
+
+    @Override
+    public void unlock() {
+        long flag = ownerFlag.get();
+        if((flag & 1) == 1 && owner.get() == Thread.currentThread()) {
+            ownerFlag.lazySet(flag + 1);
+            return;
+        }
+
+        IntruderSide.FLAG.lazySet(intruderSide, 0);
+        intruders.unlock();
+    }
+
+    /**
+     * Revokes the bias, from now on every thread including the owner takes
+     * the lock through a read-modify-write instruction.
+     */
+    public void revokeBias() {
+        biased = false;
+    }
+
+    public boolean isBiased() {
+        return biased;
+    }
+
+    private boolean isOwner() {
+        Thread me = Thread.currentThread();
+        Thread current = owner.get();
+        return current == me || current == null && owner.compareAndSet(null, me); // the very first lock biases
+    }
+
+    private void lockAsOwner() {
+        long lowered = ownerFlag.get();
+        while(true){
+            ownerFlag.set(lowered + 1); // volatile store, ordered before reading the intruders' flag
+            if(intruderSide.flag == 0)
+                break;
+
+            // an intruder is in or about to enter, let it go first
+            ownerFlag.lazySet(lowered);
+            while(intruderSide.flag == 1)
+                onSpinWait();
+
+            // retry from scratch..
+        }
+    }
+
+    /**
+     * State written by intruders only, away from the owner's flag.
+     */
+    private static class IntruderSide {
+
+        static final AtomicIntegerFieldUpdater<IntruderSide> FLAG =
+                AtomicIntegerFieldUpdater.newUpdater(IntruderSide.class, "flag");
+
+        /**
+         * Raised by the one intruder which wants or holds the lock.
+         */
+        volatile int flag;
+
+        /**
+         * Owner's flag as of the last intruder acquisition and the intruder acquisitions since
+         * it last changed, guarded by the intruders' lock.
+         */
+        long ownerEpoch;
+        int intrusions;
+    }
+}
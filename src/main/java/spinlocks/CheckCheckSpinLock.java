@@ -38,7 +38,7 @@ import static spinlocks.SpinLockShared.*;
  *
  * @author Nitin S (sin.nitins@gmail.com)
  */
-public class CheckCheckSpinLock implements ISpinLock {
+public class CheckCheckSpinLock implements ITrySpinLock {
 
     /**
      * A true value of this lock means lock has been acquired.
@@ -47,15 +47,25 @@ public class CheckCheckSpinLock implements ISpinLock {
 
     @Override
     public void lock() {
+       if(tryAcquire(lock))
+           return; // uncontended
+
+       SpinLockMonitor.spinning(this);
        while(true){
            while(getCurrentLockStateWithProbableCacheMiss(lock) == ALREADY_OWNED)
                continue; // locally spin on cached state from now on
 
            if(getLockStateWithAcquisitionAttemptWhileCausingCCN(lock, true) != ALREADY_OWNED)
-               return; //means this thread is owner now
+               break; //means this thread is owner now
 
            // retry from scratch ..
        }
+       SpinLockMonitor.acquired(this);
+    }
+
+    @Override
+    public boolean tryLock() {
+        return tryAcquire(lock);
     }
 
     @Override
@@ -24,10 +24,7 @@
 
 package spinlocks;
 
-import java.util.Random;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.LockSupport;
 
 import static java.lang.String.format;
 import static spinlocks.SpinLockShared.*;
@@ -41,7 +38,7 @@ import static spinlocks.SpinLockShared.*;
  * @author Nitin S (sin.nitins@gmail.com)
  *
  */
-public class CheckWithAdaptiveBackoffSpinLock implements ISpinLock {
+public class CheckWithAdaptiveBackoffSpinLock implements ITrySpinLock {
 
     /**
      * A true value of this lock means lock has been acquired.
@@ -50,13 +47,15 @@ public class CheckWithAdaptiveBackoffSpinLock implements ISpinLock {
 
     /**
      * Back off time range in millisecs.
+     *
+     * @see BackOffLogic
      */
     private int minDelay;
     private int maxDelay;
 
     public CheckWithAdaptiveBackoffSpinLock(int minDelay, int maxDelay) {
         if(minDelay >= maxDelay)
-            throw new IllegalArgumentException(format("Min delay '{}' ms must be smaller than max delay '{}' ms",
+            throw new IllegalArgumentException(format("Min delay '%d' ms must be smaller than max delay '%d' ms",
                     minDelay, maxDelay));
 
         this.minDelay = minDelay > 0 && minDelay <= 5? minDelay : 1;
@@ -65,8 +64,8 @@ public class CheckWithAdaptiveBackoffSpinLock implements ISpinLock {
 
     @Override
     public void lock() {
+        BackOffLogic backOffLogic = new BackOffLogic(minDelay, maxDelay);
         while(true){
-            BackOffLogic backOffLogic = new BackOffLogic(minDelay, maxDelay);
             while(getCurrentLockStateWithProbableCacheMiss(lock) == SpinLockShared.ALREADY_OWNED)
                 continue; // locally spin on cached state from now on
 
@@ -81,32 +80,12 @@ public class CheckWithAdaptiveBackoffSpinLock implements ISpinLock {
     }
 
     @Override
-    public void unlock() {
-        setLockStateWhileCausingCCN(lock, false); // release the lock
+    public boolean tryLock() {
+        return tryAcquire(lock);
     }
 
-    /**
-     * Adaptive backoff logic which upon every next invocation
-     * increases the time delay.
-     */
-    private static class BackOffLogic{
-        private final Random random;
-        private final int minDelay;
-        private final int maxDelay;
-        private int upperrBound;
-
-        public BackOffLogic(int minDelay, int maxDelay) {
-            this.minDelay = minDelay;
-            this.maxDelay = maxDelay;
-            this.upperrBound = minDelay;
-            random = new Random();
-
-        }
-
-        public void backOff() {
-           long delay = random.nextInt(upperrBound);
-           upperrBound = Math.max(maxDelay, 2*upperrBound);
-            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(delay));
-        }
+    @Override
+    public void unlock() {
+        setLockStateWhileCausingCCN(lock, false); // release the lock
     }
 }
@@ -38,7 +38,7 @@ import static spinlocks.SpinLockShared.*;
  *
  * @author Nitin S (sin.nitins@gmail.com)
  */
-public class CheckWithSimpleBackoffSpinLock implements ISpinLock {
+public class CheckWithSimpleBackoffSpinLock implements ITrySpinLock {
 
     /**
      * A true value of this lock means lock has been acquired.
@@ -70,6 +70,11 @@ public class CheckWithSimpleBackoffSpinLock implements ISpinLock {
 
     }
 
+    @Override
+    public boolean tryLock() {
+        return tryAcquire(lock);
+    }
+
     @Override
     public void unlock() {
         setLockStateWhileCausingCCN(lock, false); // release the lock
@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Flight Recorder events of contended lock operations, reported as {@code spinlocks.ContendedSpinLock}
+ * with the duration of the wait, the class and the identity of the lock and whether the wait was
+ * for acquiring it or for a successor while releasing it. Only waits above the threshold of the
+ * recording, 20 ms by default, get recorded.
+ *
+ * <p>
+ * The Flight Recorder API is not part of Java 8, so the event type is defined at runtime through
+ * {@code jdk.jfr.EventFactory} and driven through method handles, the same way
+ * {@link SpinLockShared} gets to newer APIs. Without the Flight Recorder nothing is recorded and
+ * neither is anything allocated.
+ * </p>
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+final class ContentionEvents {
+
+    private static final Recorder RECORDER = Recorder.lookup();
+
+    private ContentionEvents() {
+    }
+
+    /**
+     * @return true if events can be recorded on the running JVM
+     */
+    static boolean isAvailable() {
+        return RECORDER != null;
+    }
+
+    /**
+     * Starts timing a wait.
+     *
+     * @return the event to pass to {@link #commit(Object, Object, String)}, null if not recording
+     */
+    static Object begin() {
+        if(RECORDER == null)
+            return null;
+
+        try {
+            if(!(boolean) RECORDER.isEnabled.invokeExact())
+                return null;
+
+            Object event = RECORDER.newEvent.invokeExact();
+            RECORDER.begin.invokeExact(event);
+            return event;
+        } catch (Throwable e) {
+            return null; // recording is best effort
+        }
+    }
+
+    /**
+     * Ends timing a wait and records it if it took longer than the threshold.
+     */
+    static void commit(Object event, Object lock, String phase) {
+        if(event == null)
+            return;
+
+        try {
+            RECORDER.end.invokeExact(event);
+            if((boolean) RECORDER.shouldCommit.invokeExact(event)) {
+                RECORDER.set.invokeExact(event, 0, (Object) lock.getClass().getName());
+                RECORDER.set.invokeExact(event, 1, (Object) System.identityHashCode(lock));
+                RECORDER.set.invokeExact(event, 2, (Object) phase);
+                RECORDER.commit.invokeExact(event);
+            }
+        } catch (Throwable e) {
+            // recording is best effort
+        }
+    }
+
+    /**
+     * Handles to the event type defined at runtime and to the methods of {@code jdk.jfr.Event}.
+     */
+    private static final class Recorder {
+        final MethodHandle isEnabled;
+        final MethodHandle newEvent;
+        final MethodHandle begin;
+        final MethodHandle end;
+        final MethodHandle shouldCommit;
+        final MethodHandle set;
+        final MethodHandle commit;
+
+        private Recorder(Class<?> factoryClass, Object factory, Class<?> eventClass) throws ReflectiveOperationException {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Object eventType = factoryClass.getMethod("getEventType").invoke(factory);
+
+            isEnabled = lookup.unreflect(Class.forName("jdk.jfr.EventType").getMethod("isEnabled")).bindTo(eventType)
+                    .asType(MethodType.methodType(boolean.class));
+            newEvent = lookup.unreflect(factoryClass.getMethod("newEvent")).bindTo(factory)
+                    .asType(MethodType.methodType(Object.class));
+
+            MethodType action = MethodType.methodType(void.class, Object.class);
+            begin = lookup.unreflect(eventClass.getMethod("begin")).asType(action);
+            end = lookup.unreflect(eventClass.getMethod("end")).asType(action);
+            commit = lookup.unreflect(eventClass.getMethod("commit")).asType(action);
+            shouldCommit = lookup.unreflect(eventClass.getMethod("shouldCommit"))
+                    .asType(MethodType.methodType(boolean.class, Object.class));
+            set = lookup.unreflect(eventClass.getMethod("set", int.class, Object.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+        }
+
+        static Recorder lookup() {
+            try {
+                Class<?> eventClass = Class.forName("jdk.jfr.Event");
+                Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+                Class<?> annotationClass = Class.forName("jdk.jfr.AnnotationElement");
+                Class<?> fieldClass = Class.forName("jdk.jfr.ValueDescriptor");
+
+                Constructor<?> annotation = annotationClass.getConstructor(Class.class, Object.class);
+                Constructor<?> field = fieldClass.getConstructor(Class.class, String.class, List.class);
+
+                List<Object> annotations = Arrays.asList(
+                        annotation.newInstance(Class.forName("jdk.jfr.Name"), "spinlocks.ContendedSpinLock"),
+                        annotation.newInstance(Class.forName("jdk.jfr.Label"), "Contended Spin Lock"),
+                        annotation.newInstance(Class.forName("jdk.jfr.Category"), new String[]{"Java Application", "Spin Locks"}),
+                        annotation.newInstance(Class.forName("jdk.jfr.Threshold"), "20 ms"),
+                        annotation.newInstance(Class.forName("jdk.jfr.StackTrace"), true));
+
+                Class<?> label = Class.forName("jdk.jfr.Label");
+                List<Object> fields = Arrays.asList(
+                        field.newInstance(String.class, "lockClass", Arrays.asList(annotation.newInstance(label, "Lock Class"))),
+                        field.newInstance(int.class, "lockId", Arrays.asList(annotation.newInstance(label, "Lock Identity"))),
+                        field.newInstance(String.class, "phase", Arrays.asList(annotation.newInstance(label, "Waiting While"))));
+
+                Object factory = factoryClass.getMethod("create", List.class, List.class).invoke(null, annotations, fields);
+                return new Recorder(factoryClass, factory, eventClass);
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                return null; // no Flight Recorder on this JVM
+            }
+        }
+    }
+}
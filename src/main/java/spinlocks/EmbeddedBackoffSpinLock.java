@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link CheckWithAdaptiveBackoffSpinLock} embedded as a volatile {@code int} field into
+ * the guarded objects.
+ *
+ * @see EmbeddedTTASSpinLock
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class EmbeddedBackoffSpinLock<T> implements IEmbeddedSpinLock<T> {
+
+    private final AtomicIntegerFieldUpdater<T> lock;
+    private final long minDelay;
+    private final long maxDelay;
+    private final TimeUnit unit;
+
+    public EmbeddedBackoffSpinLock(AtomicIntegerFieldUpdater<T> lock) {
+        this(lock, 1, 64, TimeUnit.MICROSECONDS);
+    }
+
+    public EmbeddedBackoffSpinLock(AtomicIntegerFieldUpdater<T> lock, long minDelay, long maxDelay, TimeUnit unit) {
+        BackOffLogic.checkDelays(minDelay, maxDelay);
+
+        this.lock = requireNonNull(lock);
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.unit = requireNonNull(unit);
+    }
+
+    @Override
+    public void lock(T host) {
+        EmbeddedSpinLockShared.lockWithBackOff(lock, host, minDelay, maxDelay, unit);
+    }
+
+    public boolean tryLock(T host) {
+        return EmbeddedSpinLockShared.tryLock(lock, host);
+    }
+
+    @Override
+    public void unlock(T host) {
+        EmbeddedSpinLockShared.unlock(lock, host);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Shared utilities for spin locks embedded as a field into the guarded object, the
+ * counterpart of {@link SpinLockShared} for lock state driven by field updaters instead
+ * of a separate atomic object.
+ *
+ * A test and set lock is an {@code int} field which is 0 when free and 1 when owned. A
+ * ticket lock is a {@code long} field holding the next ticket in its upper half and the
+ * ticket being served in its lower half.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public final class EmbeddedSpinLockShared {
+
+    public static final int FREE = 0;
+    public static final int OWNED = 1;
+
+    private static final long NEXT_TICKET = 1L << 32;
+    private static final long SERVING_MASK = NEXT_TICKET - 1;
+
+    private EmbeddedSpinLockShared() {
+    }
+
+    /**
+     * Attempts to acquire the test and set lock of the given object once.
+     *
+     * @return true if the lock has been acquired
+     */
+    public static <T> boolean tryLock(AtomicIntegerFieldUpdater<T> lock, T host) {
+        return lock.get(host) == FREE && lock.compareAndSet(host, FREE, OWNED);
+    }
+
+    /**
+     * Acquires the test and set lock of the given object, spinning on the cached state
+     * while it is owned and attempting to swap it only once it looks free.
+     */
+    public static <T> void lock(AtomicIntegerFieldUpdater<T> lock, T host) {
+        while(true){
+            while(lock.get(host) == OWNED)
+                onSpinWait(); // locally spin on cached state from now on
+
+            if(lock.getAndSet(host, OWNED) == FREE)
+                return; //means this thread is owner now
+
+            // retry from scratch ..
+        }
+    }
+
+    /**
+     * Acquires the test and set lock of the given object, backing off for a random
+     * and growing delay whenever the swap fails.
+     */
+    public static <T> void lockWithBackOff(AtomicIntegerFieldUpdater<T> lock, T host,
+                                           long minDelay, long maxDelay, TimeUnit unit) {
+        int attempt = 0;
+        while(true){
+            while(lock.get(host) == OWNED)
+                onSpinWait();
+
+            if(lock.getAndSet(host, OWNED) == FREE)
+                return;
+
+            BackOffLogic.backOff(minDelay, maxDelay, unit, attempt++); // somebody got it first, step back
+        }
+    }
+
+    /**
+     * Releases the test and set lock of the given object. Only the ordering of the
+     * preceding writes is needed here, not a full fence.
+     */
+    public static <T> void unlock(AtomicIntegerFieldUpdater<T> lock, T host) {
+        lock.lazySet(host, FREE);
+    }
+
+    /**
+     * Draws a ticket on the ticket lock of the given object and spins until it is served.
+     */
+    public static <T> void lockTicket(AtomicLongFieldUpdater<T> lock, T host) {
+        int ticket = (int) (lock.getAndAdd(host, NEXT_TICKET) >>> 32);
+        while((int) lock.get(host) != ticket)
+            onSpinWait();
+    }
+
+    /**
+     * Serves the next ticket of the ticket lock of the given object. The served ticket
+     * wraps around within the lower half, so the next ticket drawn in between is kept.
+     */
+    public static <T> void unlockTicket(AtomicLongFieldUpdater<T> lock, T host) {
+        while(true){
+            long state = lock.get(host);
+            long next = (state & ~SERVING_MASK) | ((state + 1) & SERVING_MASK);
+            if(lock.compareAndSet(host, state, next))
+                return;
+
+            // a ticket has been drawn in between, retry..
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link CheckCheckSpinLock} embedded as a volatile {@code int} field into the guarded
+ * objects. Guarding a million objects costs a million ints instead of a million lock
+ * objects each with an atomic wrapper, and the lock shares the cache line with the data.
+ *
+ * <pre>
+ * class Record {
+ *     static final EmbeddedTTASSpinLock&lt;Record&gt; LOCK = new EmbeddedTTASSpinLock&lt;&gt;(
+ *             AtomicIntegerFieldUpdater.newUpdater(Record.class, "lock"));
+ *
+ *     volatile int lock;
+ *     long balance;
+ * }
+ * </pre>
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class EmbeddedTTASSpinLock<T> implements IEmbeddedSpinLock<T> {
+
+    private final AtomicIntegerFieldUpdater<T> lock;
+
+    public EmbeddedTTASSpinLock(AtomicIntegerFieldUpdater<T> lock) {
+        this.lock = requireNonNull(lock);
+    }
+
+    @Override
+    public void lock(T host) {
+        EmbeddedSpinLockShared.lock(lock, host);
+    }
+
+    public boolean tryLock(T host) {
+        return EmbeddedSpinLockShared.tryLock(lock, host);
+    }
+
+    @Override
+    public void unlock(T host) {
+        EmbeddedSpinLockShared.unlock(lock, host);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Fair ticket lock embedded as a volatile {@code long} field into the guarded objects.
+ * A requester draws the next ticket from the upper half of the field and spins until
+ * the lower half serves it, so the lock is granted in first-come-first-served order.
+ * At most 2^32 - 1 threads may wait on the same object at a time.
+ *
+ * @see EmbeddedTTASSpinLock
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class EmbeddedTicketSpinLock<T> implements IEmbeddedSpinLock<T> {
+
+    private final AtomicLongFieldUpdater<T> lock;
+
+    public EmbeddedTicketSpinLock(AtomicLongFieldUpdater<T> lock) {
+        this.lock = requireNonNull(lock);
+    }
+
+    @Override
+    public void lock(T host) {
+        EmbeddedSpinLockShared.lockTicket(lock, host);
+    }
+
+    @Override
+    public void unlock(T host) {
+        EmbeddedSpinLockShared.unlockTicket(lock, host);
+    }
+}
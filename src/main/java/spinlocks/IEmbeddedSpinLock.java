@@ -0,0 +1,49 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+/**
+ * Contract for spin locks whose state is embedded as a field into the guarded object
+ * itself. A single instance serves all the objects of a class, the object to lock is
+ * passed to every call.
+ *
+ * @param <T> type of the objects carrying the lock field
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public interface IEmbeddedSpinLock<T> {
+
+    /**
+     * The thread invoking this method falls into an implementation specific
+     * spin locking approach on the lock field of the given object. Returning
+     * from this method means, the lock has been acquired.
+     */
+    void lock(T host);
+
+    /**
+     * Request to unlock the lock field of the given object.
+     */
+    void unlock(T host);
+}
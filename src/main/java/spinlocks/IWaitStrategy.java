@@ -0,0 +1,47 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+/**
+ * Contract for the way a thread waits for a condition which is
+ * going to be satisfied by some other thread, e.g. an element to
+ * become available in a queue or a slot to become free.
+ *
+ * Implementations are stateless and can be shared among threads, the
+ * waiting thread keeps the count of its consecutive unsuccessful attempts.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public interface IWaitStrategy {
+
+    /**
+     * Invoked by a waiting thread every time it found the awaited
+     * condition unsatisfied.
+     *
+     * @param attempt number of consecutive unsuccessful attempts so far starting at 0,
+     *                a negative value means the count has overflowed.
+     */
+    void idle(int attempt);
+}
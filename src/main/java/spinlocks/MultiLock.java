@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A group of spin locks acquired as a whole and released as a whole, e.g. the locks of
+ * the accounts of a transfer.
+ *
+ * <pre>
+ * try (MultiLock ignored = MultiLock.lockAll(from.lock, to.lock)) {
+ *     from.balance -= amount;
+ *     to.balance += amount;
+ * }
+ * </pre>
+ *
+ * <p>
+ * {@link #lockAll(ISpinLock...)} takes the locks one after the other in a global order, the
+ * identity hash codes of the locks, so that two groups can never wait for each other in a
+ * cycle. Locks sharing a hash code have no order among each other, so a group containing
+ * such a tie takes a global tie breaking lock first.
+ * {@link #tryLockAll(long, long, TimeUnit, ITrySpinLock...)} instead attempts every lock
+ * without waiting, and on the first failure releases what it got and backs off before
+ * trying again, so that nobody spins while holding part of a group.
+ * </p>
+ *
+ * Duplicate locks are taken once. The locks are released in reverse order on {@link #close()}
+ * and right away should acquiring any of them fail.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public final class MultiLock implements AutoCloseable {
+
+    private static final Comparator<ISpinLock> IDENTITY_ORDER = Comparator.comparingInt(System::identityHashCode);
+
+    private static final ISpinLock TIE_LOCK = new CheckCheckSpinLock();
+
+    /**
+     * Locks held in the order of acquisition.
+     */
+    private final ISpinLock[] locks;
+    private final boolean tieLocked;
+    private boolean closed;
+
+    private MultiLock(ISpinLock[] locks, boolean tieLocked) {
+        this.locks = locks;
+        this.tieLocked = tieLocked;
+    }
+
+    /**
+     * Acquires all the given locks in their global order, waiting on each of them in turn.
+     */
+    public static MultiLock lockAll(ISpinLock... locks) {
+        ISpinLock[] ordered = ordered(locks);
+        boolean tied = hasTie(ordered);
+
+        if(tied)
+            TIE_LOCK.lock();
+
+        int acquired = 0;
+        try {
+            for (; acquired < ordered.length; acquired++)
+                ordered[acquired].lock();
+        } catch (RuntimeException | Error e) {
+            release(ordered, acquired, tied);
+            throw e;
+        }
+        return new MultiLock(ordered, tied);
+    }
+
+    /**
+     * Acquires all the given locks, attempting each of them without waiting. Should any of
+     * them be taken, the ones acquired so far are released and the calling thread backs off
+     * for a random delay growing from the minimum up to the maximum delay before it retries.
+     */
+    public static MultiLock tryLockAll(long minDelay, long maxDelay, TimeUnit unit, ITrySpinLock... locks) {
+        BackOffLogic.checkDelays(minDelay, maxDelay);
+        ISpinLock[] ordered = ordered(locks);
+
+        int attempt = 0;
+        while(true){
+            int acquired = 0;
+            try {
+                while(acquired < ordered.length && ((ITrySpinLock) ordered[acquired]).tryLock())
+                    acquired++;
+            } catch (RuntimeException | Error e) {
+                release(ordered, acquired, false);
+                throw e;
+            }
+
+            if(acquired == ordered.length)
+                return new MultiLock(ordered, false);
+
+            release(ordered, acquired, false);
+            BackOffLogic.backOff(minDelay, maxDelay, unit, attempt++); // a lock is taken, step back
+
+            // retry from scratch..
+        }
+    }
+
+    /**
+     * Runs the given action holding all the given locks.
+     */
+    public static <R> R withAll(Supplier<R> action, ISpinLock... locks) {
+        MultiLock group = lockAll(locks);
+        try {
+            return action.get();
+        } finally {
+            group.close();
+        }
+    }
+
+    /**
+     * Releases all the locks of the group in reverse order of acquisition. Closing a
+     * group a second time has no effect.
+     */
+    @Override
+    public void close() {
+        if(closed)
+            return;
+
+        closed = true;
+        release(locks, locks.length, tieLocked);
+    }
+
+    private static ISpinLock[] ordered(ISpinLock[] locks) {
+        ISpinLock[] ordered = locks.clone();
+        for (ISpinLock lock : ordered)
+            requireNonNull(lock);
+        Arrays.sort(ordered, IDENTITY_ORDER);
+
+        // drop duplicates, they are next to each other unless hash codes tie
+        int distinct = 0;
+        for (int i = 0; i < ordered.length; i++) {
+            if(!containsFrom(ordered, distinct, ordered[i]))
+                ordered[distinct++] = ordered[i];
+        }
+        return Arrays.copyOf(ordered, distinct);
+    }
+
+    private static boolean containsFrom(ISpinLock[] ordered, int distinct, ISpinLock lock) {
+        int hash = System.identityHashCode(lock);
+        for (int i = distinct - 1; i >= 0 && System.identityHashCode(ordered[i]) == hash; i--) {
+            if(ordered[i] == lock)
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean hasTie(ISpinLock[] ordered) {
+        for (int i = 1; i < ordered.length; i++) {
+            if(System.identityHashCode(ordered[i - 1]) == System.identityHashCode(ordered[i]))
+                return true;
+        }
+        return false;
+    }
+
+    private static void release(ISpinLock[] locks, int acquired, boolean tieLocked) {
+        for (int i = acquired - 1; i >= 0; i--)
+            locks[i].unlock();
+
+        if(tieLocked)
+            TIE_LOCK.unlock();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static spinlocks.SpinLockShared.loadFence;
+import static spinlocks.SpinLockShared.onSpinWait;
+import static spinlocks.SpinLockShared.storeFence;
+
+/**
+ * Any {@link ISpinLock} extended by optimistic reads in the manner of the optimistic
+ * mode of {@link java.util.concurrent.locks.StampedLock}.
+ *
+ * <p>
+ * Besides taking the underlying lock, a writer makes a version counter odd while it holds
+ * the lock and even again on release. A read-only critical section does not take the lock
+ * at all. It notes the version, reads and then validates that the version has not moved in
+ * the meantime, in which case no writer can have been in between. Otherwise the section is
+ * retried, and after a number of failed attempts it falls back to taking the lock, so that
+ * readers make progress under a steady stream of writers.
+ * </p>
+ *
+ * Optimistic readers may see the guarded state half way through a write. They must
+ * not act upon what they have read before validation, e.g. follow references which might
+ * be null or index arrays with unchecked values. An exception thrown by a section which
+ * then fails validation is taken as an invalid attempt.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class OptimisticSpinLock implements ISpinLock {
+
+    /**
+     * Stamp of an optimistic read which could not start as the lock is held, never validates.
+     */
+    public static final long INVALID_STAMP = 0;
+
+    private final ISpinLock lock;
+    private final int optimisticAttempts;
+
+    /**
+     * Even while the lock is free and odd while it is held, starts above the invalid stamp.
+     */
+    private final PaddedAtomicLong version = new PaddedAtomicLong(2);
+
+    public OptimisticSpinLock() {
+        this(new CheckCheckSpinLock(), 3);
+    }
+
+    /**
+     * @param lock the lock taken by writers and by readers falling back
+     * @param optimisticAttempts number of optimistic attempts of a read before it takes the lock
+     */
+    public OptimisticSpinLock(ISpinLock lock, int optimisticAttempts) {
+        if(optimisticAttempts < 0)
+            throw new IllegalArgumentException(format("Optimistic attempts '%d' must not be negative",
+                    optimisticAttempts));
+
+        this.lock = requireNonNull(lock);
+        this.optimisticAttempts = optimisticAttempts;
+    }
+
+    @Override
+    public void lock() {
+        lock.lock();
+        version.lazySet(version.get() + 1); // odd, only the owner writes the version
+        storeFence(); // announce the write before doing it
+    }
+
+    @Override
+    public void unlock() {
+        version.lazySet(version.get() + 1); // even, ordered after the writes of the section
+        lock.unlock();
+    }
+
+    /**
+     * Starts an optimistic read.
+     *
+     * @return the stamp to validate the read with, {@link #INVALID_STAMP} if the lock is held
+     */
+    public long tryOptimisticRead() {
+        long stamp = version.get();
+        return (stamp & 1) == 0 ? stamp : INVALID_STAMP;
+    }
+
+    /**
+     * Tells whether no writer has held the lock since the given stamp was handed out.
+     */
+    public boolean validate(long stamp) {
+        loadFence(); // the reads of the section happen before reading the version again
+        return stamp != INVALID_STAMP && version.get() == stamp;
+    }
+
+    /**
+     * Runs the given read-only section optimistically, and under the lock should it keep
+     * failing validation.
+     *
+     * @return the result of the section of a validated or locked run
+     */
+    public <R> R read(Supplier<R> section) {
+        for (int attempt = 0; attempt < optimisticAttempts; attempt++) {
+            long stamp = tryOptimisticRead();
+            if(stamp == INVALID_STAMP) {
+                onSpinWait(); // a writer is in, its section is short
+                continue;
+            }
+
+            R result;
+            try {
+                result = section.get();
+            } catch (RuntimeException e) {
+                if(validate(stamp))
+                    throw e; // a genuine failure of the section
+                continue;
+            }
+
+            if(validate(stamp))
+                return result;
+
+            // a writer has been in between, retry..
+        }
+
+        lock.lock(); // keeps writers out, the version stays as is for the other readers
+        try {
+            return section.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isWriteLocked() {
+        return (version.get() & 1) != 0;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.String.format;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * A lock handing off to the waiter of the highest priority rather than to the longest
+ * waiting one, so that latency critical threads do not queue up behind batch threads.
+ *
+ * <p>
+ * The priority is given per acquisition through {@link #lock(int)}, {@link #lock()} takes
+ * the priority of the calling thread, {@link Thread#getPriority()}. Higher values mean higher
+ * priority. Waiters of equal priority are served in arrival order.
+ * </p>
+ * <p>
+ * To keep low priority waiters from starving, bypassing is bounded: every time a waiter
+ * arriving later is handed the lock, all the waiters which arrived before it have been
+ * bypassed once more. A waiter bypassed the maximum number of times is served next, ahead of
+ * any priority. A waiter therefore waits for at most that many later arrivals on top of those
+ * which were there before it.
+ * </p>
+ *
+ * The waiters are kept in arrival order under a guard lock which is only ever held for a
+ * few instructions. Every waiter spins on a slot of its own which the releasing owner sets,
+ * similar to {@link Q_MCSSpinLock}. An acquisition finding the lock free and an owner
+ * releasing without waiters do not touch the guard and take a single compare and swap.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class PrioritySpinLock implements ITrySpinLock {
+
+    private static final int FREE = 0;
+    private static final int OWNED = 1;
+    private static final int OWNED_WITH_WAITERS = 2;
+
+    /**
+     * Slot of the calling thread. It only waits on one lock at a time.
+     */
+    private static final ThreadLocal<Waiter> SELF = new ThreadLocal<Waiter>(){
+        @Override
+        protected Waiter initialValue() {
+            return new Waiter();
+        }
+    };
+
+    private final AtomicInteger state = new AtomicInteger(FREE);
+    private final int maxBypass;
+
+    private final ISpinLock guard = new CheckCheckSpinLock();
+
+    /**
+     * Guarded by {@link #guard}.
+     */
+    private final ArrayList<Waiter> waiters = new ArrayList<>();
+
+    public PrioritySpinLock() {
+        this(16);
+    }
+
+    /**
+     * @param maxBypass number of later arrivals a waiter lets pass at most
+     */
+    public PrioritySpinLock(int maxBypass) {
+        if(maxBypass < 0)
+            throw new IllegalArgumentException(format("Max bypass '%d' must not be negative", maxBypass));
+
+        this.maxBypass = maxBypass;
+    }
+
+    /**
+     * Acquires the lock with the priority of the calling thread.
+     */
+    @Override
+    public void lock() {
+        lock(Thread.currentThread().getPriority());
+    }
+
+    /**
+     * Acquires the lock with the given priority, higher values are served first.
+     */
+    public void lock(int priority) {
+        if(state.compareAndSet(FREE, OWNED))
+            return;
+
+        Waiter self = SELF.get();
+        guard.lock();
+        try {
+            while(true){
+                int current = state.get();
+                if(current == FREE) {
+                    if(state.compareAndSet(FREE, OWNED))
+                        return; // released in the meantime
+                }
+                else if(current == OWNED_WITH_WAITERS || state.compareAndSet(OWNED, OWNED_WITH_WAITERS))
+                    break; // the owner will have to look at the waiters now
+
+                // retry from scratch..
+            }
+
+            self.priority = priority;
+            self.bypassed = 0;
+            self.granted = false;
+            waiters.add(self);
+        } finally {
+            guard.unlock();
+        }
+
+        while(!self.granted) // spin until an owner hands the lock to me
+            onSpinWait();
+    }
+
+    @Override
+    public boolean tryLock() {
+        return state.get() == FREE && state.compareAndSet(FREE, OWNED);
+    }
+
+    @Override
+    public void unlock() {
+        if(state.compareAndSet(OWNED, FREE))
+            return; // nobody waiting
+
+        Waiter next;
+        guard.lock();
+        try {
+            int index = nextWaiter();
+            next = waiters.remove(index);
+            for (int i = 0; i < index; i++) // everybody who arrived before got bypassed
+                waiters.get(i).bypassed++;
+
+            if(waiters.isEmpty())
+                state.set(OWNED); // the lock stays owned, by the next waiter
+        } finally {
+            guard.unlock();
+        }
+
+        next.granted = true;
+    }
+
+    /**
+     * @return number of threads waiting for the lock, meant for monitoring only
+     */
+    public int getQueueLength() {
+        guard.lock();
+        try {
+            return waiters.size();
+        } finally {
+            guard.unlock();
+        }
+    }
+
+    /**
+     * Guarded by {@link #guard}.
+     *
+     * @return index of the waiter to hand the lock to
+     */
+    private int nextWaiter() {
+        int best = 0;
+        for (int i = 0; i < waiters.size(); i++) {
+            Waiter waiter = waiters.get(i);
+            if(waiter.bypassed >= maxBypass)
+                return i; // the longest waiting one which must not be bypassed anymore
+
+            if(waiter.priority > waiters.get(best).priority)
+                best = i;
+        }
+        return best;
+    }
+
+    private static class Waiter {
+        int priority;
+        int bypassed;
+        volatile boolean granted;
+    }
+}
@@ -99,10 +99,15 @@ public class Q_CLHSpinLock implements ISpinLock {
         LockSlot predecessorSlot = tail.getAndSet(slot);
         predecessor.set(predecessorSlot);
 
+        if(!predecessorSlot.isLocked)
+            return; // uncontended
+
         // spin on the predecessor's lock until the predecessor
         // releases it.
+        SpinLockMonitor.spinning(this);
         while (predecessorSlot.isLocked)
             continue; //spin until predecessor releases
+        SpinLockMonitor.acquired(this);
     }
 
     @Override
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Compact queue based spin locking approach proposed by Dice and Kogan in
+ * "Hemlock: Compact and Scalable Mutual Exclusion".
+ *
+ * <p>
+ * Like {@link Q_MCSSpinLock} the waiting threads form a queue through the tail of the lock,
+ * but the lock needs nothing more than the tail and every thread owns one slot only, which it
+ * uses for all the locks it ever takes. A releasing thread which has a successor publishes the
+ * address of the lock in its slot ("grant") and waits until the successor, which spins on the
+ * predecessor's slot for exactly that lock, acknowledges the hand over by clearing it again.
+ * </p>
+ *<p>
+ * <h1>Benefits</h1>
+ * <ul>
+ *  <li>One word per lock and one slot per thread, shared across all the locks, instead of
+ *  a slot per thread per lock.</li>
+ *  <li>Slots are never handed over to other threads (unlike {@link Q_CLHSpinLock}) and never
+ *  recycled.</li>
+ *  <li>First-come-first-served ordering and local spinning as with the other queue locks.</li>
+ * </ul>
+ *</p>
+ *
+ * The lock word is a field of the lock itself driven by a field updater, so no atomic
+ * wrapper is allocated per lock. The cost is that a releasing thread waits for its
+ * successor's acknowledgement.
+ *
+ * @see Q_MCSSpinLock
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class Q_HemlockSpinLock implements ISpinLock {
+
+    private static final AtomicReferenceFieldUpdater<Q_HemlockSpinLock, Grant> TAIL =
+            AtomicReferenceFieldUpdater.newUpdater(Q_HemlockSpinLock.class, Grant.class, "tail");
+
+    /**
+     * Slot of every thread, shared by all the locks.
+     */
+    private static final ThreadLocal<Grant> SELF = new ThreadLocal<Grant>(){
+        @Override
+        protected Grant initialValue() {
+            return new Grant();
+        }
+    };
+
+    /**
+     * Slot of the last requester.
+     */
+    private volatile Grant tail;
+
+    @Override
+    public void lock() {
+        Grant mySlot = SELF.get();
+
+        Grant predecessor = TAIL.getAndSet(this, mySlot);
+        if(predecessor == null) // means I'm the only one here alone
+            return;
+
+        // spin until the predecessor grants me this very lock, it might
+        // be granting other locks to other successors in the meantime
+        while(predecessor.lock != this)
+            onSpinWait();
+
+        predecessor.lock = null; // acknowledge, predecessor's slot is free again
+    }
+
+    @Override
+    public void unlock() {
+        Grant mySlot = SELF.get();
+
+        if(TAIL.compareAndSet(this, mySlot, null))
+            return; // means I was the only one here alone
+
+        mySlot.lock = this; // let the successor know that I'm done
+
+        while(mySlot.lock != null) // wait until successor acknowledges
+            onSpinWait();
+    }
+
+    private static class Grant {
+        volatile Q_HemlockSpinLock lock = null;
+    }
+}
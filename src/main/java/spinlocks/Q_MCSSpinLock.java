@@ -77,8 +77,10 @@ public class Q_MCSSpinLock implements ISpinLock {
 
         predecessor.next = mySlot; // I'm successor now
 
+        SpinLockMonitor.spinning(this);
         while(mySlot.locked) // spin until predecessor releases me
             continue;
+        SpinLockMonitor.acquired(this);
     }
 
     @Override
@@ -94,8 +96,10 @@ public class Q_MCSSpinLock implements ISpinLock {
             // Guard
             // Being here means someone has added itself as tail
             // and is next in line to become my successor
+            SpinLockMonitor.awaitingSuccessor(this);
             while(mySLot.next == null) // wait until successor reveals itself
                 continue;
+            SpinLockMonitor.released(this);
         }
 
         mySLot.next.locked = false; // let the successor know that I'm done
@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.lang.String.format;
+import static spinlocks.SpinLockShared.isVirtual;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Queue based lock in the spirit of {@link Q_MCSSpinLock} whose waiters spin only
+ * for a bounded number of times and then park until their predecessor hands the
+ * lock over.
+ *
+ * <p>
+ * A pure spin lock is a poor fit for virtual threads. A spinning virtual thread holds
+ * on to its carrier thread, and once all carriers spin the lock holder or the successor
+ * it has released might not get a carrier at all. Here a waiting virtual thread never
+ * spins on the processor, it yields a few times (which lets other virtual threads run on
+ * its carrier) and then parks, which unmounts it. Platform threads spin with a hint to
+ * the processor before they park. Since the lock does not use monitors, neither holding
+ * nor waiting for it pins a virtual thread to its carrier.
+ * </p>
+ *
+ * The lock is handed over in FIFO order and the releasing thread unparks its successor
+ * only if that one has announced that it is parking. Virtual threads are detected on
+ * JVMs which have them (21+), elsewhere every thread is treated as a platform thread.
+ * Every acquisition allocates a node of its own, so that thousands of threads do not
+ * need thread local state for every lock.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class Q_SpinThenParkLock implements ISpinLock {
+
+    private final AtomicReference<LockSlot> tail = new AtomicReference<>();
+    private final int spins;
+    private final int virtualYields;
+
+    /**
+     * Slot of the current owner, only ever touched by the owner.
+     */
+    private LockSlot owner;
+
+    public Q_SpinThenParkLock() {
+        this(1000, 8);
+    }
+
+    /**
+     * @param spins number of spins of a platform thread before it parks
+     * @param virtualYields number of yields of a virtual thread before it parks
+     */
+    public Q_SpinThenParkLock(int spins, int virtualYields) {
+        if(spins < 0 || virtualYields < 0)
+            throw new IllegalArgumentException(format("Spins '%d' and yields '%d' must not be negative",
+                    spins, virtualYields));
+
+        this.spins = spins;
+        this.virtualYields = virtualYields;
+    }
+
+    @Override
+    public void lock() {
+        Thread me = Thread.currentThread();
+        LockSlot mySlot = new LockSlot(me);
+
+        LockSlot predecessor = tail.getAndSet(mySlot);
+        if(predecessor != null) {
+            predecessor.next = mySlot; // let the predecessor know whom to hand over to
+            awaitHandOver(mySlot, isVirtual(me));
+        }
+
+        owner = mySlot;
+    }
+
+    @Override
+    public void unlock() {
+        LockSlot mySlot = owner;
+        owner = null;
+
+        LockSlot successor = mySlot.next;
+        if(successor == null) {
+            if(tail.compareAndSet(mySlot, null))
+                return; // nobody waiting
+
+            // a successor has swapped the tail but not linked itself yet
+            int attempt = 0;
+            while((successor = mySlot.next) == null) {
+                if(attempt++ < spins)
+                    onSpinWait();
+                else
+                    Thread.yield();
+            }
+        }
+
+        successor.locked = false;
+        if(successor.parked)
+            LockSupport.unpark(successor.thread);
+    }
+
+    private void awaitHandOver(LockSlot mySlot, boolean virtual) {
+        int attempt = 0;
+        while(mySlot.locked) {
+            if(virtual ? attempt < virtualYields : attempt < spins) {
+                attempt++;
+                if(virtual)
+                    Thread.yield(); // gives the carrier to another virtual thread
+                else
+                    onSpinWait();
+                continue;
+            }
+
+            mySlot.parked = true;
+            if(mySlot.locked) // re-check after announcing the park
+                LockSupport.park(this);
+            mySlot.parked = false;
+        }
+    }
+
+    private static class LockSlot {
+        final Thread thread;
+
+        volatile boolean locked = true;
+        volatile boolean parked;
+        volatile LockSlot next;
+
+        LockSlot(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
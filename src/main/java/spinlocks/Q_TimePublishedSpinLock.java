@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Preemption tolerant variant of {@link Q_MCSSpinLock} in the spirit of the time published
+ * queue locks proposed by He, Scherer and Scott in "Preemption Adaptivity in Time-Published
+ * Queue-Based Spin Locks".
+ *
+ * <p>
+ * A strict FIFO hand over collapses once there are more threads than cores, as the lock
+ * keeps being handed to a waiter which has been descheduled while every thread behind it
+ * spins away its time slice. Here every waiter publishes a heartbeat, the time it was last
+ * seen spinning. A releasing thread hands the lock over to the first waiter in line whose
+ * heartbeat is fresh and marks the stale ones on its way as skipped. A skipped waiter finds
+ * out once it runs again and queues up anew at the tail.
+ * </p>
+ *
+ * Skipping trades fairness for throughput, a waiter is only passed over while it is not
+ * running. A lock holder which is descheduled still holds everybody up. Every acquisition
+ * which has to wait allocates a node, as skipped nodes are abandoned.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class Q_TimePublishedSpinLock implements ISpinLock {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int SKIPPED = 2;
+
+    /**
+     * Spins of a waiter in between two heartbeats.
+     */
+    private static final int SPINS_PER_HEARTBEAT = 64;
+
+    private final AtomicReference<LockSlot> tail = new AtomicReference<>();
+    private final long stalenessNanos;
+
+    /**
+     * Slot of the current owner, only ever touched by the owner.
+     */
+    private LockSlot owner;
+
+    public Q_TimePublishedSpinLock() {
+        this(100, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * @param staleness time since its last heartbeat after which a waiter is
+     *                  taken to be descheduled and is skipped
+     */
+    public Q_TimePublishedSpinLock(long staleness, TimeUnit unit) {
+        if(staleness <= 0)
+            throw new IllegalArgumentException(format("Staleness '%d' must be positive", staleness));
+
+        this.stalenessNanos = unit.toNanos(staleness);
+    }
+
+    @Override
+    public void lock() {
+        while(true){
+            LockSlot mySlot = new LockSlot(System.nanoTime());
+
+            LockSlot predecessor = tail.getAndSet(mySlot);
+            if(predecessor == null) { // means I'm the only one here alone
+                owner = mySlot;
+                return;
+            }
+
+            predecessor.next = mySlot;
+
+            int state;
+            int spins = 0;
+            while((state = mySlot.state) == WAITING) {
+                if(++spins % SPINS_PER_HEARTBEAT == 0)
+                    mySlot.heartbeat = System.nanoTime(); // still running, don't skip me
+                onSpinWait();
+            }
+
+            if(state == GRANTED) {
+                owner = mySlot;
+                return;
+            }
+
+            // skipped while descheduled, queue up anew..
+        }
+    }
+
+    @Override
+    public void unlock() {
+        LockSlot slot = owner;
+        owner = null;
+
+        while(true){
+            LockSlot successor = slot.next;
+            if(successor == null) {
+                if(tail.compareAndSet(slot, null))
+                    return; // nobody (left) waiting
+
+                // a successor has swapped the tail but not linked itself yet
+                successor = awaitSuccessor(slot);
+            }
+
+            if(System.nanoTime() - successor.heartbeat < stalenessNanos) {
+                successor.state = GRANTED; // let the successor know that I'm done
+                return;
+            }
+
+            // the successor is not running, pass it over and look at the one behind it
+            successor.state = SKIPPED;
+            slot = successor;
+        }
+    }
+
+    private static LockSlot awaitSuccessor(LockSlot slot) {
+        LockSlot successor;
+        int spins = 0;
+        while((successor = slot.next) == null) {
+            if(++spins < SPINS_PER_HEARTBEAT)
+                onSpinWait();
+            else
+                Thread.yield(); // the successor might have been descheduled right in between
+        }
+        return successor;
+    }
+
+    private static class LockSlot {
+        volatile int state = WAITING;
+        volatile long heartbeat;
+        volatile LockSlot next;
+
+        LockSlot(long heartbeat) {
+            this.heartbeat = heartbeat;
+        }
+    }
+}
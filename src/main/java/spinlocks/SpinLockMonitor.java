@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps track of threads spinning on a lock, for {@link SpinLockWatchdog} to sample and for
+ * the Flight Recorder to record, see {@link ContentionEvents}.
+ *
+ * <p>
+ * Locks call in here on their contended path only: right before a thread starts spinning and
+ * right after it stops. The uncontended path stays exactly as it is, so monitoring can be left
+ * on in production. It is on by default, {@code -Dspinlocks.monitor=false} turns the calls
+ * into no-ops which the JIT removes altogether.
+ * </p>
+ *
+ * The owner of a lock is not known as taking a free lock is not tracked. Instead every thread
+ * remembers the last few locks it took after having waited for them, and forgets one once it
+ * has waited for a successor to hand it to. The thread which took a lock so last is its last contended
+ * acquirer, which may have released the lock uncontended since. Locks are remembered by their
+ * identity hashes, so tracking keeps no lock from being collected, and threads which have
+ * terminated are dropped whenever a thread starts being tracked or the watchdog samples.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public final class SpinLockMonitor {
+
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("spinlocks.monitor"));
+
+    /**
+     * Number of contended acquisitions remembered per thread, a power of two.
+     */
+    private static final int RECENT = 4;
+
+    private static final Set<Spinner> SPINNERS = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private static final ThreadLocal<Spinner> SELF = new ThreadLocal<Spinner>(){
+        @Override
+        protected Spinner initialValue() {
+            pruneTerminated();
+
+            Spinner spinner = new Spinner(Thread.currentThread());
+            SPINNERS.add(spinner);
+            return spinner;
+        }
+    };
+
+    private SpinLockMonitor() {
+    }
+
+    /**
+     * The calling thread starts spinning to acquire the given lock.
+     */
+    public static void spinning(Object lock) {
+        if(ENABLED)
+            SELF.get().begin(lock, Phase.ACQUIRING);
+    }
+
+    /**
+     * The calling thread stopped spinning and owns the lock now.
+     */
+    public static void acquired(Object lock) {
+        if(ENABLED)
+            SELF.get().end(lock);
+    }
+
+    /**
+     * The calling thread, releasing the given lock, starts spinning for its successor.
+     */
+    public static void awaitingSuccessor(Object lock) {
+        if(ENABLED)
+            SELF.get().begin(lock, Phase.RELEASING);
+    }
+
+    /**
+     * The calling thread stopped spinning and has released the lock.
+     */
+    public static void released(Object lock) {
+        if(ENABLED)
+            SELF.get().end(lock);
+    }
+
+    static Collection<Spinner> spinners() {
+        return SPINNERS;
+    }
+
+    static void pruneTerminated() {
+        SPINNERS.removeIf(spinner -> !spinner.thread.isAlive());
+    }
+
+    enum Phase {
+        ACQUIRING, RELEASING
+    }
+
+    /**
+     * What a thread is spinning on, written by the thread only and sampled by others.
+     */
+    static final class Spinner {
+        final Thread thread;
+
+        /**
+         * The lock spun on, null while not spinning. Written last on begin
+         * and first on end, so a sampler seeing it sees the fields below.
+         */
+        volatile Object lock;
+        volatile Phase phase;
+        volatile long since;
+
+        /**
+         * Identity hashes of the locks taken after waiting, and when, {@link Long#MIN_VALUE}
+         * for none or for one handed to a successor since.
+         */
+        private final AtomicIntegerArray recentLocks = new AtomicIntegerArray(RECENT);
+        private final AtomicLongArray recentTimes = new AtomicLongArray(RECENT);
+        private int next;
+
+        private Object event;
+
+        Spinner(Thread thread) {
+            this.thread = thread;
+            for (int i = 0; i < RECENT; i++)
+                recentTimes.set(i, Long.MIN_VALUE);
+        }
+
+        void begin(Object lock, Phase phase) {
+            event = ContentionEvents.begin();
+            this.phase = phase;
+            since = System.nanoTime();
+            this.lock = lock;
+        }
+
+        void end(Object lock) {
+            Phase phase = this.phase;
+            this.lock = null;
+
+            int hash = System.identityHashCode(lock);
+            if(phase == Phase.ACQUIRING) {
+                int index = next++ & (RECENT - 1);
+                recentLocks.lazySet(index, hash);
+                recentTimes.lazySet(index, System.nanoTime());
+            } else {
+                for (int i = 0; i < RECENT; i++) {
+                    if(recentLocks.get(i) == hash)
+                        recentTimes.lazySet(i, Long.MIN_VALUE);
+                }
+            }
+
+            ContentionEvents.commit(event, lock, phase == Phase.ACQUIRING ? "lock" : "unlock");
+            event = null;
+        }
+
+        /**
+         * @return when the thread last took the given lock after waiting for it, or
+         * {@link Long#MIN_VALUE} if it is not among the last few it did or has been handed on
+         */
+        long acquiredAt(Object lock) {
+            int hash = System.identityHashCode(lock);
+            long at = Long.MIN_VALUE;
+            for (int i = 0; i < RECENT; i++) {
+                long time = recentTimes.get(i);
+                if(time != Long.MIN_VALUE && recentLocks.get(i) == hash && (at == Long.MIN_VALUE || time - at > 0))
+                    at = time;
+            }
+            return at;
+        }
+    }
+}
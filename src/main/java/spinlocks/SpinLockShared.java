@@ -24,6 +24,10 @@
 
 package spinlocks;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -35,6 +39,30 @@ public class SpinLockShared {
 
     public static final boolean ALREADY_OWNED = true;
 
+    /**
+     * Handle to {@code Thread.onSpinWait()} when running on a JVM which provides it (9+),
+     * otherwise null.
+     */
+    private static final MethodHandle ON_SPIN_WAIT = lookupOnSpinWait();
+
+    /**
+     * Handle to {@code Thread.isVirtual()} when running on a JVM which provides it (21+),
+     * otherwise null.
+     */
+    private static final MethodHandle IS_VIRTUAL = lookupIsVirtual();
+
+    /**
+     * Handles to the acquire and release fences of {@code VarHandle} (9+), or else to the
+     * load and store fences of {@code sun.misc.Unsafe} (8), otherwise null.
+     */
+    private static final MethodHandle LOAD_FENCE = lookupFence("acquireFence", "loadFence");
+    private static final MethodHandle STORE_FENCE = lookupFence("releaseFence", "storeFence");
+
+    /**
+     * Target of the fallback fences when no fence is available.
+     */
+    private static volatile int fallbackFence;
+
     /**
      * Checks the current state of the given lock and modifies it to given new value. Since getAndSet()
      * is a loop effectively, the call only returns when the state has been successfully modified. During its
@@ -79,4 +107,117 @@ public class SpinLockShared {
     public static boolean getCurrentLockStateWithProbableCacheMiss(AtomicBoolean lock) {
         return lock.get();
     }
+
+    /**
+     * Makes a single attempt to acquire the given lock, checking its cached state first so that
+     * an owned lock does not cause any shared bus traffic.
+     *
+     * @param lock the lock under consideration
+     * @return true if the calling thread is owner now
+     */
+    public static boolean tryAcquire(AtomicBoolean lock) {
+        return getCurrentLockStateWithProbableCacheMiss(lock) != ALREADY_OWNED
+                && getLockStateWithAcquisitionAttemptWhileCausingCCN(lock, true) != ALREADY_OWNED;
+    }
+
+    /**
+     * Hints the processor that the calling thread is in a spin loop (e.g. the x86
+     * PAUSE instruction) which frees up pipeline resources for a sibling hardware
+     * thread and avoids a memory order violation when leaving the loop. Delegates
+     * to {@code Thread.onSpinWait()} when the running JVM provides it and is a
+     * no-op otherwise.
+     */
+    public static void onSpinWait() {
+        if(ON_SPIN_WAIT != null) {
+            try {
+                ON_SPIN_WAIT.invokeExact();
+            } catch (Throwable ignored) {
+                // the intrinsic never throws
+            }
+        }
+    }
+
+    /**
+     * Tells whether the given thread is a virtual thread. A virtual thread which spins
+     * holds on to its carrier thread and keeps other virtual threads from running on it,
+     * so waiting should rather be done by yielding or parking, which unmounts it.
+     * Always false on a JVM without virtual threads.
+     */
+    public static boolean isVirtual(Thread thread) {
+        if(IS_VIRTUAL != null) {
+            try {
+                return (boolean) IS_VIRTUAL.invokeExact(thread);
+            } catch (Throwable ignored) {
+                // a plain getter never throws
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the loads before the fence from being reordered with the loads and stores
+     * after it, e.g. the reads of an optimistic critical section with the validation of
+     * its version. Falls back to a full fence if no such fence is available.
+     */
+    public static void loadFence() {
+        if(LOAD_FENCE != null) {
+            try {
+                LOAD_FENCE.invokeExact();
+                return;
+            } catch (Throwable ignored) {
+                // the intrinsic never throws
+            }
+        }
+        fallbackFence = 0;
+    }
+
+    /**
+     * Keeps the loads and stores before the fence from being reordered with the stores
+     * after it, e.g. the announcement of a write with the writes themselves. Falls back
+     * to a full fence if no such fence is available.
+     */
+    public static void storeFence() {
+        if(STORE_FENCE != null) {
+            try {
+                STORE_FENCE.invokeExact();
+                return;
+            } catch (Throwable ignored) {
+                // the intrinsic never throws
+            }
+        }
+        fallbackFence = 0;
+    }
+
+    private static MethodHandle lookupOnSpinWait() {
+        try {
+            return MethodHandles.lookup().findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null; // pre Java 9 runtime
+        }
+    }
+
+    private static MethodHandle lookupIsVirtual() {
+        try {
+            return MethodHandles.lookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null; // pre Java 21 runtime
+        }
+    }
+
+    private static MethodHandle lookupFence(String varHandleFence, String unsafeFence) {
+        MethodType type = MethodType.methodType(void.class);
+        try {
+            return MethodHandles.lookup().findStatic(Class.forName("java.lang.invoke.VarHandle"), varHandleFence, type);
+        } catch (ReflectiveOperationException e) {
+            // pre Java 9 runtime, try the internal API
+        }
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup().findVirtual(unsafeClass, unsafeFence, type).bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,321 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Samples the threads spinning on locks, as tracked by {@link SpinLockMonitor}, and reports
+ * those spinning for longer than a threshold together with their stacks:
+ *
+ * <ul>
+ *  <li>{@link Incident.Kind#LONG_HOLD}: a thread waits for a lock whose last contended acquirer
+ *  has not handed it on, the stack of the acquirer tells what it is doing meanwhile. The owner
+ *  is not known for sure, the acquirer may have released the lock uncontended since and
+ *  somebody else taken it uncontended.</li>
+ *  <li>{@link Incident.Kind#STUCK_SPINNER}: a thread waits for a lock without a known acquirer,
+ *  e.g. one which was taken uncontended, or a releasing owner waits for a successor which does
+ *  not show up, e.g. as it got descheduled in between.</li>
+ *  <li>{@link Incident.Kind#SUSPECTED_DEADLOCK}: threads spin for each other in a cycle, every
+ *  one of them for a lock last acquired by the next one. An acquirer which is not spinning
+ *  itself ends the chain, so an acquirer which moved on from the lock long ago only makes for
+ *  a cycle if it spins on a lock taken by one of the others.</li>
+ * </ul>
+ *
+ * Every incident is reported once. Sampling costs the spinning threads nothing, stacks are
+ * only taken of the threads of an incident.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SpinLockWatchdog implements AutoCloseable {
+
+    private final long thresholdNanos;
+    private final Consumer<Incident> listener;
+
+    /**
+     * When each of the spinners reported last started to spin, so incidents get reported once.
+     */
+    private final Map<SpinLockMonitor.Spinner, Long> reported = new HashMap<>();
+
+    private volatile Thread sampler;
+
+    /**
+     * Reports the incidents to standard error.
+     */
+    public SpinLockWatchdog(long threshold, TimeUnit unit) {
+        this(threshold, unit, System.err::println);
+    }
+
+    /**
+     * @param threshold spinning for longer than this is an incident
+     * @param listener receives the incidents, on the sampling thread
+     */
+    public SpinLockWatchdog(long threshold, TimeUnit unit, Consumer<Incident> listener) {
+        if(threshold <= 0)
+            throw new IllegalArgumentException(format("Threshold '%d' must be positive", threshold));
+
+        this.thresholdNanos = unit.toNanos(threshold);
+        this.listener = requireNonNull(listener);
+    }
+
+    /**
+     * Starts a daemon thread sampling twice per threshold.
+     */
+    public synchronized SpinLockWatchdog start() {
+        if(sampler != null)
+            return this;
+
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(1), thresholdNanos / 2);
+        Thread thread = new Thread(() -> {
+            while(sampler == Thread.currentThread()) {
+                sample();
+                LockSupport.parkNanos(period);
+            }
+        }, "spinlock-watchdog");
+        thread.setDaemon(true);
+        sampler = thread;
+        thread.start();
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        Thread thread = sampler;
+        sampler = null;
+        if(thread != null)
+            LockSupport.unpark(thread);
+    }
+
+    /**
+     * Takes a sample right away and passes the incidents not reported before to the listener.
+     *
+     * @return the new incidents
+     */
+    public synchronized List<Incident> sample() {
+        SpinLockMonitor.pruneTerminated();
+        long now = System.nanoTime();
+
+        // who spins on what for longer than the threshold
+        Map<SpinLockMonitor.Spinner, Wait> waits = new LinkedHashMap<>();
+        for (SpinLockMonitor.Spinner spinner : SpinLockMonitor.spinners()) {
+            Object lock = spinner.lock;
+            if(lock == null)
+                continue;
+
+            long since = spinner.since;
+            if(now - since >= thresholdNanos)
+                waits.put(spinner, new Wait(spinner, lock, spinner.phase, since, now - since));
+        }
+        reported.keySet().retainAll(waits.keySet());
+
+        for (Wait wait : waits.values()) {
+            if(wait.phase == SpinLockMonitor.Phase.ACQUIRING)
+                wait.acquirer = lastAcquirer(wait.lock);
+        }
+
+        List<Incident> incidents = new ArrayList<>();
+        for (Wait wait : waits.values()) {
+            if(isReported(wait))
+                continue;
+
+            List<Wait> cycle = cycleFrom(wait, waits);
+            if(cycle != null) {
+                cycle.forEach(this::markReported);
+                incidents.add(new Incident(Incident.Kind.SUSPECTED_DEADLOCK, cycle));
+            }
+        }
+        for (Wait wait : waits.values()) {
+            if(isReported(wait))
+                continue;
+
+            markReported(wait);
+            if(wait.acquirer != null) {
+                Wait acquirer = new Wait(wait.acquirer, wait.lock, null, 0, 0);
+                incidents.add(new Incident(Incident.Kind.LONG_HOLD, Arrays.asList(wait, acquirer)));
+            } else {
+                incidents.add(new Incident(Incident.Kind.STUCK_SPINNER, Collections.singletonList(wait)));
+            }
+        }
+
+        incidents.forEach(listener);
+        return incidents;
+    }
+
+    /**
+     * @return the live thread which took the given lock last after waiting for it, has not handed
+     * it on since and is not waiting for it now
+     */
+    private static SpinLockMonitor.Spinner lastAcquirer(Object lock) {
+        SpinLockMonitor.Spinner acquirer = null;
+        long acquiredAt = Long.MIN_VALUE;
+        for (SpinLockMonitor.Spinner spinner : SpinLockMonitor.spinners()) {
+            long at = spinner.acquiredAt(lock);
+            if(at != Long.MIN_VALUE && (acquirer == null || at - acquiredAt > 0)
+                    && spinner.lock != lock && spinner.thread.isAlive()) {
+                acquirer = spinner;
+                acquiredAt = at;
+            }
+        }
+        return acquirer;
+    }
+
+    /**
+     * Follows the last acquirers of the locks waited for, starting from the given wait, as long
+     * as they are spinning themselves.
+     *
+     * @return the waits of the cycle leading back to the given wait, null if there is none
+     */
+    private static List<Wait> cycleFrom(Wait start, Map<SpinLockMonitor.Spinner, Wait> waits) {
+        List<Wait> path = new ArrayList<>();
+        Wait wait = start;
+        while(wait != null && wait.acquirer != null && !path.contains(wait)) {
+            path.add(wait);
+            wait = waits.get(wait.acquirer);
+        }
+        if(wait != start || path.size() < 2)
+            return null;
+
+        // start the cycle at the longest wait, keeping its order
+        int longest = 0;
+        for (int i = 1; i < path.size(); i++) {
+            if(path.get(i).nanos > path.get(longest).nanos)
+                longest = i;
+        }
+        Collections.rotate(path, -longest);
+        return path;
+    }
+
+    private boolean isReported(Wait wait) {
+        Long since = reported.get(wait.spinner);
+        return since != null && since == wait.since;
+    }
+
+    private void markReported(Wait wait) {
+        reported.put(wait.spinner, wait.since);
+    }
+
+    /**
+     * A thread spinning on a lock as sampled.
+     */
+    private static final class Wait {
+        final SpinLockMonitor.Spinner spinner;
+        final Object lock;
+        final SpinLockMonitor.Phase phase;
+        final long since;
+        final long nanos;
+        SpinLockMonitor.Spinner acquirer;
+
+        Wait(SpinLockMonitor.Spinner spinner, Object lock, SpinLockMonitor.Phase phase, long since, long nanos) {
+            this.spinner = spinner;
+            this.lock = lock;
+            this.phase = phase;
+            this.since = since;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Threads found spinning for too long, with their stacks as of the time they were found.
+     */
+    public static final class Incident {
+
+        public enum Kind {
+            LONG_HOLD, STUCK_SPINNER, SUSPECTED_DEADLOCK
+        }
+
+        private final Kind kind;
+        private final long nanos;
+        private final List<Thread> threads = new ArrayList<>();
+        private final List<String> states = new ArrayList<>();
+        private final List<StackTraceElement[]> stacks = new ArrayList<>();
+
+        private Incident(Kind kind, List<Wait> waits) {
+            this.kind = kind;
+            long nanos = 0;
+            for (Wait wait : waits) {
+                nanos = Math.max(nanos, wait.nanos);
+                threads.add(wait.spinner.thread);
+                stacks.add(wait.spinner.thread.getStackTrace());
+
+                String lock = wait.lock.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(wait.lock));
+                if(wait.phase == null)
+                    states.add("last contended acquirer of " + lock + ", not handed on since");
+                else if(wait.phase == SpinLockMonitor.Phase.RELEASING)
+                    states.add(format("releasing %s, waiting for a successor for %d ms", lock, toMillis(wait.nanos)));
+                else
+                    states.add(format("waiting for %s for %d ms", lock, toMillis(wait.nanos)));
+            }
+            this.nanos = nanos;
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        /**
+         * @return the threads involved, the one waiting for the longest first. It is followed by
+         * the last contended acquirer for a {@link Kind#LONG_HOLD}, and by the rest of the cycle
+         * for a {@link Kind#SUSPECTED_DEADLOCK}, every thread waiting for a lock last acquired by
+         * the next one.
+         */
+        public List<Thread> threads() {
+            return Collections.unmodifiableList(threads);
+        }
+
+        /**
+         * @return the longest wait of the threads involved
+         */
+        public long duration(TimeUnit unit) {
+            return unit.convert(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder(format("%s for %d ms", kind, toMillis(nanos)));
+            for (int t = 0; t < threads.size(); t++) {
+                report.append(format("%n\"%s\" %s", threads.get(t).getName(), states.get(t)));
+                for (StackTraceElement frame : stacks.get(t))
+                    report.append(format("%n\tat %s", frame));
+            }
+            return report.toString();
+        }
+
+        private static long toMillis(long nanos) {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+    }
+}
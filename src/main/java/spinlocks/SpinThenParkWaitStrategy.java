@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Spins for a number of attempts, then yields the processor for a number
+ * of attempts and finally parks the waiting thread for a fixed period
+ * on every further attempt.
+ *
+ * Short waits are served at spinning latency while long waits stop
+ * consuming the core.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SpinThenParkWaitStrategy implements IWaitStrategy {
+
+    private final int spins;
+    private final int yields;
+    private final long parkNanos;
+
+    public SpinThenParkWaitStrategy() {
+        this(100, 10, 1, TimeUnit.MICROSECONDS);
+    }
+
+    public SpinThenParkWaitStrategy(int spins, int yields, long parkPeriod, TimeUnit unit) {
+        if(spins < 0 || yields < 0 || parkPeriod <= 0)
+            throw new IllegalArgumentException("Spins and yields must not be negative and park period must be positive");
+
+        this.spins = spins;
+        this.yields = spins + yields;
+        this.parkNanos = unit.toNanos(parkPeriod);
+    }
+
+    @Override
+    public void idle(int attempt) {
+        if(attempt >= 0 && attempt < spins)
+            onSpinWait();
+        else if(attempt >= 0 && attempt < yields)
+            Thread.yield();
+        else
+            LockSupport.parkNanos(parkNanos);
+    }
+}
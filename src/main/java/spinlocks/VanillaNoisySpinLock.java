@@ -38,7 +38,7 @@ import static spinlocks.SpinLockShared.*;
  *
  * @author Nitin S (sin.nitins@gmail.com)
  */
-public class VanillaNoisySpinLock implements ISpinLock {
+public class VanillaNoisySpinLock implements ITrySpinLock {
 
     /**
      * A true value of this lock means lock has been acquired.
@@ -47,8 +47,18 @@ public class VanillaNoisySpinLock implements ISpinLock {
 
     @Override
     public void lock() {
+       if(getLockStateWithAcquisitionAttemptWhileCausingCCN(lock, true) != ALREADY_OWNED)
+           return; // uncontended
+
+       SpinLockMonitor.spinning(this);
        while(getLockStateWithAcquisitionAttemptWhileCausingCCN(lock, true) == ALREADY_OWNED)
            continue; // keep checking while sending check requests on the shared cpu bus
+       SpinLockMonitor.acquired(this);
+    }
+
+    @Override
+    public boolean tryLock() {
+        return tryAcquire(lock);
     }
 
     @Override
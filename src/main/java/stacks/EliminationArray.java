@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package stacks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static spinlocks.SpinLockShared.onSpinWait;
+
+/**
+ * Array of exchange slots where a push and a pop which both failed on the top
+ * of the stack meet and cancel each other out.
+ *
+ * <p>
+ * A pusher parks its node in a randomly chosen empty slot and spins for a while. A
+ * popper visiting the same slot takes the node out with a compare and swap, after which
+ * the pusher finds its node gone and both return as if they had gone through the stack
+ * one right after the other. A pusher whose node was not taken removes it again. Poppers
+ * never park anything, so no exchange allocates.
+ * </p>
+ *
+ * The range of slots visited doubles with every consecutive failed attempt of a thread,
+ * the way the upper bound of {@link spinlocks.BackOffLogic} doubles, spreading the
+ * threads over more slots the more they keep colliding.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+class EliminationArray<E> {
+
+    private final AtomicReferenceArray<Node<E>> slots;
+    private final int maxRangeShift;
+    private final int spins;
+
+    /**
+     * @param capacity number of slots, a power of two
+     * @param spins number of spins a thread waits in a slot for its counter part
+     */
+    EliminationArray(int capacity, int spins) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.maxRangeShift = Integer.numberOfTrailingZeros(capacity);
+        this.spins = spins;
+    }
+
+    /**
+     * @return true if a popper has taken the given node
+     */
+    boolean offer(Node<E> node, int attempt) {
+        int slot = randomSlot(attempt);
+        if(!slots.compareAndSet(slot, null, node))
+            return false; // slot occupied by another pusher
+
+        for (int i = 0; i < spins; i++) {
+            if(slots.get(slot) != node)
+                return true; // taken by a popper
+            onSpinWait();
+        }
+
+        // withdraw, a popper might just have taken it though
+        return !slots.compareAndSet(slot, node, null);
+    }
+
+    /**
+     * @return a node taken from a pusher or null if none showed up
+     */
+    Node<E> take(int attempt) {
+        int slot = randomSlot(attempt);
+        for (int i = 0; i < spins; i++) {
+            Node<E> node = slots.get(slot);
+            if(node != null && slots.compareAndSet(slot, node, null))
+                return node;
+            onSpinWait();
+        }
+        return null;
+    }
+
+    private int randomSlot(int attempt) {
+        int range = attempt >= 0 && attempt < maxRangeShift ? 1 << attempt : slots.length();
+        return ThreadLocalRandom.current().nextInt(range);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package stacks;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Lock-free stack with elimination back-off proposed by Hendler, Shavit and Yerushalmi.
+ *
+ * <br/><a href="https://people.csail.mit.edu/shanir/publications/Lock_Free.pdf"><b>Link to paper</b></a>
+ *
+ * <p>
+ * This stack works like {@link TreiberStack} as long as the swaps on the top succeed. A
+ * thread whose swap failed does not immediately retry on the contended top, it backs off
+ * into an {@link EliminationArray} instead where it may meet a thread doing the opposite
+ * operation. Such a pair exchanges the element directly and neither of them touches the
+ * top at all. The more threads collide, the more pairs meet, so unlike the plain Treiber
+ * stack the throughput grows with the number of threads under a balanced push/pop load.
+ * </p>
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class EliminationBackoffStack<E> implements IStack<E> {
+
+    private final AtomicReference<Node<E>> top = new AtomicReference<>();
+    private final EliminationArray<E> eliminationArray;
+
+    public EliminationBackoffStack() {
+        this(Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() / 2)), 64);
+    }
+
+    /**
+     * @param eliminationSlots number of slots in the elimination array, must be a power
+     *                         of two, half the number of contending threads is a good start
+     * @param spins number of spins a thread waits in a slot for its counter part
+     */
+    public EliminationBackoffStack(int eliminationSlots, int spins) {
+        if(eliminationSlots < 1 || Integer.bitCount(eliminationSlots) != 1 || spins < 1)
+            throw new IllegalArgumentException(format("Elimination slots '%d' must be a power of two and spins " +
+                    "'%d' must be positive", eliminationSlots, spins));
+
+        this.eliminationArray = new EliminationArray<>(eliminationSlots, spins);
+    }
+
+    @Override
+    public void push(E e) {
+        Node<E> node = new Node<>(requireNonNull(e));
+        for (int attempt = 0; ; attempt++) {
+            Node<E> currentTop = top.get();
+            node.next = currentTop;
+            if(top.compareAndSet(currentTop, node))
+                return;
+
+            if(eliminationArray.offer(node, attempt))
+                return; // a popper took it
+
+            // retry from scratch..
+        }
+    }
+
+    @Override
+    public E pop() {
+        for (int attempt = 0; ; attempt++) {
+            Node<E> currentTop = top.get();
+            if(currentTop == null)
+                return null;
+
+            if(top.compareAndSet(currentTop, currentTop.next))
+                return currentTop.item;
+
+            Node<E> node = eliminationArray.take(attempt);
+            if(node != null)
+                return node.item; // taken from a pusher
+
+            // retry from scratch..
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+}
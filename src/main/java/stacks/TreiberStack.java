@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package stacks;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Lock-free stack proposed by R. Kent Treiber.
+ *
+ * <p>
+ * The stack is a linked list whose top node is swapped in and out by a compare and swap
+ * on a single reference. A thread whose swap failed has been overtaken by another one and
+ * simply retries from the new top. Every push allocates a fresh node so a node can not
+ * be seen again at the top after having been popped (no ABA problem).
+ * </p>
+ *
+ * All the threads update the same reference, under contention the top's cache line keeps
+ * moving between the cores and most swaps fail. See {@link EliminationBackoffStack}.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class TreiberStack<E> implements IStack<E> {
+
+    private final AtomicReference<Node<E>> top = new AtomicReference<>();
+
+    @Override
+    public void push(E e) {
+        Node<E> node = new Node<>(requireNonNull(e));
+        while(true){
+            Node<E> currentTop = top.get();
+            node.next = currentTop;
+            if(top.compareAndSet(currentTop, node))
+                return;
+
+            // overtaken, retry from scratch..
+        }
+    }
+
+    @Override
+    public E pop() {
+        while(true){
+            Node<E> currentTop = top.get();
+            if(currentTop == null)
+                return null;
+
+            if(top.compareAndSet(currentTop, currentTop.next))
+                return currentTop.item;
+
+            // overtaken, retry from scratch..
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package affinity;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Verifies the sanity of {@link CpuTopology}, {@link Placement} and {@link ThreadAffinity}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class ThreadAffinityTest {
+
+    @Test
+    public void verifyCpuLists() {
+        assertArrayEquals(new int[]{0, 1, 2, 3, 8, 10, 11}, CpuTopology.parseList("0-3,8,10-11\n"));
+        assertArrayEquals(new int[]{5}, CpuTopology.parseList("5"));
+        assertEquals("1,4,7", CpuTopology.formatList(1, 4, 7));
+    }
+
+    @Test
+    public void verifyPlacements() throws IOException {
+        // 2 sockets of 2 cores of 2 hardware threads, siblings numbered apart like on x86
+        CpuTopology topology = fakeTopology(new int[][]{
+                // cpu, core, socket
+                {0, 0, 0}, {1, 1, 0}, {2, 0, 1}, {3, 1, 1},
+                {4, 0, 0}, {5, 1, 0}, {6, 0, 1}, {7, 1, 1}});
+
+        assertEquals(Arrays.asList(0, 1), topology.sockets());
+        assertNull(Placement.Unpinned.cpus(topology, 2));
+        assertArrayEquals(new int[]{0, 4}, Placement.SameCore.cpus(topology, 2));
+        assertArrayEquals(new int[]{0, 1}, Placement.SameSocket.cpus(topology, 2));
+        assertArrayEquals(new int[]{0, 2, 1, 3}, Placement.CrossSocket.cpus(topology, 4));
+
+        assertFalse(Placement.SameCore.isPossible(topology, 3));
+        assertFalse(Placement.SameSocket.isPossible(topology, 3));
+        assertFalse(Placement.CrossSocket.isPossible(topology, 5));
+
+        CpuTopology single = fakeTopology(new int[][]{{0, 0, 0}, {1, 1, 0}});
+        assertFalse(Placement.SameCore.isPossible(single, 2));
+        assertFalse(Placement.CrossSocket.isPossible(single, 2));
+        assertTrue(Placement.SameSocket.isPossible(single, 2));
+        assertTrue(Placement.Unpinned.isPossible(single, 2));
+
+        try {
+            Placement.CrossSocket.cpus(single, 2);
+            fail("Impossible placement picked");
+        } catch (IllegalArgumentException expected) {
+            // continue
+        }
+
+        // e.g. under taskset -c 0-3, one hardware thread of every core
+        CpuTopology allowed = topology.restrictTo(0, 1, 2, 3, 9);
+        assertEquals(4, allowed.cpus().size());
+        assertFalse(Placement.SameCore.isPossible(allowed, 2));
+        assertArrayEquals(new int[]{0, 1}, Placement.SameSocket.cpus(allowed, 2));
+        assertArrayEquals(new int[]{0, 2}, Placement.CrossSocket.cpus(allowed, 2));
+    }
+
+    @Test
+    public void verifyPinning() {
+        Assume.assumeTrue(ThreadAffinity.isSupported());
+
+        int[] previous = ThreadAffinity.affinity();
+        int cpu = CpuTopology.readAllowed().cpus().get(0).id();
+        assertTrue(ThreadAffinity.currentThreadId() > 0);
+        try {
+            assertTrue(ThreadAffinity.pin(cpu));
+            assertArrayEquals(new int[]{cpu}, ThreadAffinity.affinity());
+
+            Thread.yield(); // gets the thread moved should it not be there yet
+            assertEquals(cpu, ThreadAffinity.currentCpu());
+        } finally {
+            assertTrue(ThreadAffinity.pin(previous));
+        }
+        assertArrayEquals(previous, ThreadAffinity.affinity());
+    }
+
+    private static CpuTopology fakeTopology(int[][] cpus) throws IOException {
+        Path sysCpu = Files.createTempDirectory("cpu");
+        Files.write(sysCpu.resolve("online"), Collections.singletonList("0-" + (cpus.length - 1)));
+        for (int[] cpu : cpus) {
+            Path topology = Files.createDirectories(sysCpu.resolve("cpu" + cpu[0]).resolve("topology"));
+            Files.write(topology.resolve("core_id"), Collections.singletonList(Integer.toString(cpu[1])));
+            Files.write(topology.resolve("physical_package_id"), Collections.singletonList(Integer.toString(cpu[2])));
+        }
+        return CpuTopology.read(sysCpu);
+    }
+}
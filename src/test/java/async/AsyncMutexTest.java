@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package async;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link AsyncMutex}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class AsyncMutexTest {
+
+    @Test
+    public void verifyUncontendedAcquisitionIsCompleted() {
+        AsyncMutex mutex = new AsyncMutex();
+
+        CompletionStage<AsyncMutex.Permit> first = mutex.acquire();
+        assertTrue(first.toCompletableFuture().isDone());
+        first.toCompletableFuture().join().release();
+
+        assertSame(first, mutex.acquire()); // the cached stage
+        assertFalse(mutex.tryAcquire());
+        mutex.permit().release();
+        assertFalse(mutex.isLocked());
+    }
+
+    @Test
+    public void verifyWaitersAreGrantedInOrder() {
+        AsyncMutex mutex = new AsyncMutex();
+        List<Integer> granted = new ArrayList<>();
+
+        assertTrue(mutex.tryAcquire());
+        for (int i = 0; i < 5; i++) {
+            final int waiter = i;
+            mutex.acquire().thenAccept(permit -> {
+                granted.add(waiter);
+                permit.release();
+            });
+        }
+        assertTrue(granted.isEmpty());
+
+        mutex.permit().release();
+        assertEquals(5, granted.size());
+        for (int i = 0; i < 5; i++)
+            assertEquals(Integer.valueOf(i), granted.get(i));
+        assertFalse(mutex.isLocked());
+    }
+
+    @Test
+    public void verifyLongQueueDoesNotNest() {
+        AsyncMutex mutex = new AsyncMutex();
+        long[] granted = new long[1];
+
+        assertTrue(mutex.tryAcquire());
+        for (int i = 0; i < 100_000; i++) {
+            mutex.acquire().thenAccept(permit -> {
+                granted[0]++;
+                permit.release();
+            });
+        }
+
+        mutex.permit().release();
+        assertEquals(100_000, granted[0]);
+    }
+
+    @Test
+    public void verifyMutualExclusionOnExecutor() {
+        doVerifyMutualExclusion(true);
+    }
+
+    @Test
+    public void verifyMutualExclusionOnReleasingThread() {
+        doVerifyMutualExclusion(false);
+    }
+
+    /**
+     * Threads fire acquisitions without waiting for them, each continuation increments a
+     * plain counter and checks that no other continuation is inside at the same time.
+     */
+    private void doVerifyMutualExclusion(boolean onExecutor) {
+        final int N = 4, requests = 2_000;
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final AsyncMutex mutex = new AsyncMutex(onExecutor ? executor : null);
+        final long[] counter = new long[1];
+        final boolean[] inside = new boolean[1];
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final List<CompletableFuture<Void>> done = Collections.synchronizedList(new ArrayList<>());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < requests; i++) {
+                    done.add(mutex.acquire().thenAccept(permit -> {
+                        if(inside[0])
+                            failure.compareAndSet(null, "Two holders at a time");
+                        inside[0] = true;
+                        counter[0]++;
+                        inside[0] = false;
+                        permit.release();
+                    }).toCompletableFuture());
+                }
+            }, "Thread" + t));
+        }
+
+        TestThreads.runAll(threads);
+        done.forEach(CompletableFuture::join);
+        executor.shutdown();
+
+        assertNull(failure.get());
+        assertEquals(N * requests, counter[0]);
+        assertFalse(mutex.isLocked());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package async;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link KeyedSerialExecutor}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class KeyedSerialExecutorTest {
+
+    @Test
+    public void verifyPerKeyOrderAndMutualExclusion() throws InterruptedException {
+        final int keys = 64, tasks = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            KeyedSerialExecutor<Integer> keyed = new KeyedSerialExecutor<>(pool, 8);
+            final AtomicIntegerArray running = new AtomicIntegerArray(keys);
+            final int[] submitted = new int[keys];
+            final int[] last = new int[keys];
+            final int[] violations = new int[1];
+            final CountDownLatch done = new CountDownLatch(tasks);
+
+            for (int i = 0; i < tasks; i++) {
+                final int key = ThreadLocalRandom.current().nextInt(keys);
+                final int sequence = ++submitted[key];
+                keyed.execute(key, () -> {
+                    if(running.incrementAndGet(key) != 1 || last[key] != sequence - 1)
+                        violations[0]++;
+                    last[key] = sequence;
+                    running.decrementAndGet(key);
+                    done.countDown();
+                });
+            }
+
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            assertEquals(0, violations[0]);
+            for (int k = 0; k < keys; k++)
+                assertEquals(submitted[k], last[k]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void verifyIdleKeysAreRetired() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            KeyedSerialExecutor<Integer> keyed = new KeyedSerialExecutor<>(pool);
+            CountDownLatch done = new CountDownLatch(10_000);
+            for (int key = 0; key < 10_000; key++)
+                keyed.forKey(key).execute(done::countDown);
+
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(0, keyed.activeKeys());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void verifyRetiredKeyTakesTasksAgain() {
+        List<Runnable> submitted = new ArrayList<>();
+        KeyedSerialExecutor<String> keyed = new KeyedSerialExecutor<>(submitted::add);
+        AtomicInteger ran = new AtomicInteger();
+
+        keyed.execute("a", ran::incrementAndGet);
+        keyed.execute("a", ran::incrementAndGet);
+        assertEquals(1, keyed.activeKeys());
+        submitted.remove(0).run();
+        assertEquals(0, keyed.activeKeys());
+
+        keyed.execute("a", ran::incrementAndGet);
+        assertEquals(1, keyed.activeKeys());
+        submitted.remove(0).run();
+
+        assertEquals(3, ran.get());
+        assertEquals(0, keyed.activeKeys());
+        assertTrue(submitted.isEmpty());
+    }
+}
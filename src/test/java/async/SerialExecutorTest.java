@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package async;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+/**
+ * Verifies the sanity of {@link SerialExecutor}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SerialExecutorTest {
+
+    @Test
+    public void verifyOrderAndMutualExclusion() throws InterruptedException {
+        final int producers = 4, perProducer = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            final SerialExecutor serial = new SerialExecutor(pool, 16);
+            final AtomicInteger running = new AtomicInteger();
+            final int[] last = new int[producers];
+            final int[] outOfOrder = new int[1];
+            final int[] overlaps = new int[1];
+            final CountDownLatch done = new CountDownLatch(producers * perProducer);
+
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final int producer = p;
+                threads.add(new Thread(() -> {
+                    for (int i = 1; i <= perProducer; i++) {
+                        final int sequence = i;
+                        serial.execute(() -> {
+                            if(running.incrementAndGet() != 1)
+                                overlaps[0]++;
+                            // plain fields, the executor must provide the visibility
+                            if(last[producer] != sequence - 1)
+                                outOfOrder[0]++;
+                            last[producer] = sequence;
+                            running.decrementAndGet();
+                            done.countDown();
+                        });
+                    }
+                }));
+            }
+
+            TestThreads.runAll(threads);
+
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            assertEquals(0, overlaps[0]);
+            assertEquals(0, outOfOrder[0]);
+            for (int p = 0; p < producers; p++)
+                assertEquals(perProducer, last[p]);
+
+            // the count drops after the batch, not after every task
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(0, serial.pending());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void verifyFailingTaskDoesNotStopExecutor() throws InterruptedException {
+        ExecutorService pool = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r);
+            thread.setUncaughtExceptionHandler((t, e) -> { /* expected */ });
+            return thread;
+        });
+        try {
+            SerialExecutor serial = new SerialExecutor(pool);
+            CountDownLatch done = new CountDownLatch(1);
+
+            serial.execute(() -> { throw new IllegalStateException(); });
+            serial.execute(done::countDown);
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void verifyBatchesYieldExecutor() {
+        List<Runnable> submitted = new ArrayList<>();
+        SerialExecutor serial = new SerialExecutor(submitted::add, 2);
+
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 5; i++)
+            serial.execute(ran::incrementAndGet);
+
+        assertEquals(1, submitted.size()); // one drain scheduled only
+
+        for (int batch = 0; batch < submitted.size(); batch++)
+            submitted.get(batch).run();
+
+        assertEquals(5, ran.get());
+        assertEquals(3, submitted.size()); // 2 + 2 + 1
+        assertEquals(0, serial.pending());
+    }
+
+    @Test
+    public void verifyRejectedDrain() {
+        List<Runnable> submitted = new ArrayList<>();
+        AtomicBoolean reject = new AtomicBoolean(true);
+        SerialExecutor serial = new SerialExecutor(drain -> {
+            if(reject.get())
+                throw new RejectedExecutionException();
+            submitted.add(drain);
+        }, 2);
+
+        AtomicInteger ran = new AtomicInteger();
+        try {
+            serial.execute(ran::incrementAndGet);
+            fail("Task taken without a drain");
+        } catch (RejectedExecutionException expected) {
+            // continue
+        }
+        assertEquals(0, serial.pending());
+
+        // taken back, not run by the next drain
+        reject.set(false);
+        for (int i = 0; i < 5; i++)
+            serial.execute(ran::incrementAndGet);
+        assertEquals(1, submitted.size());
+
+        // resubmission rejected, the drain goes on on this thread
+        reject.set(true);
+        submitted.get(0).run();
+        assertEquals(5, ran.get());
+        assertEquals(1, submitted.size());
+        assertEquals(0, serial.pending());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package barriers;
+
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+
+/**
+ * Generic template to check if various implementations of {@link IBarrier}s
+ * are working fine.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public abstract class BarrierVerificationTemplate {
+
+    /**
+     * Returns the concrete implementation of {@link IBarrier}
+     * for the given number of parties which has to be verified.
+     */
+    abstract IBarrier barrierUnderTest(int parties);
+
+    /**
+     * N threads go through the barrier for a number of rounds, each of them
+     * recording the round it has reached. Right after the barrier of a round,
+     * every thread must have reached that round.
+     *
+     * @param N number of parties
+     */
+    protected void doVerifyBarrierSanity(int N) {
+        final int rounds = 200;
+        final IBarrier barrier = barrierUnderTest(N);
+        final AtomicIntegerArray reached = new AtomicIntegerArray(N);
+        final AtomicReference<String> failure = new AtomicReference<>();
+
+        assertEquals(N, barrier.parties());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++) {
+            final int party = t;
+            threads.add(new Thread(() -> {
+                for (int round = 1; round <= rounds; round++) {
+                    reached.set(party, round);
+                    barrier.await(party);
+
+                    for (int other = 0; other < N; other++)
+                        if(reached.get(other) < round)
+                            failure.compareAndSet(null, "Party " + other + " not at round " + round);
+
+                    barrier.await(party); // nobody moves on while others are checking
+                }
+            }, "Thread" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        assertNull(failure.get());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package counters;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link CombiningTreeCounter}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class CombiningTreeCounterTest extends CounterVerificationTemplate {
+
+    @Test
+    public void verifyCounterSanity() {
+        doVerifyCounterSanity(8);
+    }
+
+    @Test
+    public void verifyMoreThreadsThanWidth() {
+        doVerifyCounterSanity(12);
+    }
+
+    /**
+     * Every increment must have seen a distinct prior value.
+     */
+    @Test
+    public void verifyGetAndAddIsLinearizable() {
+        final int N = 6, perThread = 5_000;
+        final CombiningTreeCounter counter = new CombiningTreeCounter(8);
+        final BitSet seen = new BitSet(N * perThread);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++)
+            threads.add(new Thread(() -> {
+                long[] priors = new long[perThread];
+                for (int i = 0; i < perThread; i++)
+                    priors[i] = counter.getAndAdd(1);
+
+                synchronized (seen) {
+                    for (long prior : priors) {
+                        assertTrue(!seen.get((int) prior));
+                        seen.set((int) prior);
+                    }
+                }
+            }));
+
+        TestThreads.runAll(threads);
+
+        assertEquals(N * perThread, seen.cardinality());
+        assertEquals(N * perThread, counter.sum());
+    }
+
+    @Override
+    ICounter counterUnderTest() {
+        return new CombiningTreeCounter(8);
+    }
+}
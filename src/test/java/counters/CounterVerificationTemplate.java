@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package counters;
+
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+
+/**
+ * Generic template to check if various implementations of {@link ICounter}s
+ * are working fine.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public abstract class CounterVerificationTemplate {
+
+    protected static final int PER_THREAD = 20_000;
+
+    /**
+     * Returns the concrete implementation of {@link ICounter}
+     * which has to be verified.
+     */
+    abstract ICounter counterUnderTest();
+
+    /**
+     * N threads update the counter with alternating deltas, the counter must
+     * add up to the sum of all deltas in the end.
+     *
+     * @param N number of threads updating the counter
+     * @return the counter for further verification
+     */
+    protected ICounter doVerifyCounterSanity(int N) {
+        final ICounter counter = counterUnderTest();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++)
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    if(i % 4 == 0)
+                        counter.add(3);
+                    else
+                        counter.increment();
+                }
+            }, "Thread" + t));
+
+        TestThreads.runAll(threads);
+
+        assertEquals(expectedSum(N), exactSumOf(counter));
+        return counter;
+    }
+
+    /**
+     * @return the exact value of a counter which is not updated anymore
+     */
+    long exactSumOf(ICounter counter) {
+        return counter.sum();
+    }
+
+    protected static long expectedSum(int N) {
+        return (long) N * (PER_THREAD + 2 * (PER_THREAD / 4));
+    }
+}
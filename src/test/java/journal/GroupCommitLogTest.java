@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package journal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import spinlocks.BusySpinWaitStrategy;
+import spinlocks.SpinThenParkWaitStrategy;
+import testutil.TestThreads;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+/**
+ * Verifies the sanity of {@link GroupCommitLog}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class GroupCommitLogTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("journal", ".log");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void verifyCommitWritesRecords() throws IOException {
+        try (GroupCommitLog log = GroupCommitLog.open(file, 16, new SpinThenParkWaitStrategy())) {
+            assertEquals(3, log.append(new byte[]{1, 2, 3}));
+            assertEquals(5, log.append(ByteBuffer.wrap(new byte[]{4, 5})));
+            assertEquals(0, Files.size(file));
+
+            log.commit(5);
+            assertEquals(5, log.flushedPosition());
+            assertEquals(5, Files.size(file));
+
+            // spans the end of the batch, goes to the next one
+            assertEquals(17, log.append(new byte[12]));
+            assertEquals(18, log.appendAndCommit(new byte[]{6}));
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(18, bytes.length);
+        assertEquals(5, bytes[4]);
+        assertEquals(6, bytes[17]);
+    }
+
+    @Test
+    public void verifyAppendsToExistingFile() throws IOException {
+        Files.write(file, new byte[]{9, 9});
+
+        try (GroupCommitLog log = GroupCommitLog.open(file, 16, new SpinThenParkWaitStrategy())) {
+            assertEquals(2, log.flushedPosition());
+            assertEquals(3, log.append(new byte[]{1}));
+        }
+
+        assertEquals(3, Files.size(file));
+    }
+
+    /**
+     * Fills every batch of the ring but the current one without committing, the flush has to
+     * write out the sealed batches before it can seal the current one.
+     */
+    @Test
+    public void verifyFlushWithAllBatchesSealed() throws IOException {
+        try (GroupCommitLog log = GroupCommitLog.open(file, 16, new BusySpinWaitStrategy())) {
+            for (int i = 1; i <= 7; i++)
+                assertEquals(8 * i, log.append(new byte[]{(byte) i, 0, 0, 0, 0, 0, 0, 0}));
+            assertEquals(0, log.flushedPosition());
+
+            log.flush();
+            assertEquals(56, log.flushedPosition());
+
+            for (int i = 8; i <= 15; i++)
+                log.append(new byte[]{(byte) i, 0, 0, 0, 0, 0, 0, 0});
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(120, bytes.length);
+        for (int i = 0; i < 15; i++)
+            assertEquals(i + 1, bytes[i * 8]);
+    }
+
+    @Test
+    public void verifyRecordLargerThanBatch() throws IOException {
+        try (GroupCommitLog log = GroupCommitLog.open(file, 16, new SpinThenParkWaitStrategy())) {
+            log.append(new byte[17]);
+            fail("Record larger than a batch appended");
+        } catch (IllegalArgumentException expected) {
+            // continue
+        }
+    }
+
+    /**
+     * N threads append numbered records into small batches, some of them committing now
+     * and then, the others never. Every record must end up in the file exactly once and
+     * the records of a thread in the order they have been appended.
+     */
+    @Test
+    public void verifyConcurrentAppends() throws IOException {
+        final int N = 4, records = 5_000, recordSize = 8;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        try (GroupCommitLog log = GroupCommitLog.open(file, 64, new SpinThenParkWaitStrategy())) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < N; t++) {
+                final int writer = t;
+                threads.add(new Thread(() -> {
+                    ByteBuffer record = ByteBuffer.allocate(recordSize);
+                    try {
+                        for (int i = 0; i < records; i++) {
+                            record.clear();
+                            record.putInt(writer).putInt(i).flip();
+                            long position = log.append(record);
+                            if(writer % 2 == 0 && i % 16 == 0) {
+                                log.commit(position);
+                                if(log.flushedPosition() < position)
+                                    failure.compareAndSet(null, new AssertionError("Not flushed " + position));
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }, "Thread" + t));
+            }
+
+            TestThreads.runAll(threads);
+        }
+
+        assertNull(failure.get());
+
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(N * records * recordSize, bytes.remaining());
+
+        int[] next = new int[N];
+        while(bytes.hasRemaining()) {
+            int writer = bytes.getInt();
+            assertTrue(writer >= 0 && writer < N);
+            assertEquals(next[writer]++, bytes.getInt());
+        }
+        for (int t = 0; t < N; t++)
+            assertEquals(records, next[t]);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package offheap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Verifies the sanity of {@link SharedLockTable}. Processes are stood in for by
+ * two tables mapping the same file.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SharedLockTableTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("locks", ".table");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void verifyLockSanity() throws IOException {
+        final int N = 4, rounds = 5_000;
+        final long[] counter = new long[1];
+
+        try (SharedLockTable first = SharedLockTable.open(file, 4);
+             SharedLockTable second = SharedLockTable.open(file, 4)) {
+
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < N; t++) {
+                final SharedSpinLock lock = (t % 2 == 0 ? first : second).lockAt(3);
+                threads.add(new Thread(() -> {
+                    for (int round = 0; round < rounds; round++) {
+                        lock.lock();
+                        counter[0]++;
+                        lock.unlock();
+                    }
+                }, "Thread" + t));
+            }
+
+            TestThreads.runAll(threads);
+
+            assertEquals(N * rounds, counter[0]);
+            assertEquals(0, first.ownerPid(3));
+        }
+    }
+
+    @Test
+    public void verifyLockIsSharedThroughFile() throws IOException {
+        try (SharedLockTable first = SharedLockTable.open(file, 2);
+             SharedLockTable second = SharedLockTable.open(file, 2)) {
+
+            assertTrue(first.tryLock(1));
+            assertFalse(second.tryLock(1));
+            assertTrue(second.tryLock(0));
+            assertEquals(OwnerStamp.CURRENT_PID, second.ownerPid(1));
+
+            first.unlock(1);
+            second.unlock(0);
+            assertEquals(0, first.ownerPid(0));
+        }
+    }
+
+    @Test
+    public void verifyUnlockByOtherThreadFails() throws Exception {
+        try (SharedLockTable table = SharedLockTable.open(file, 1)) {
+            table.lock(0);
+
+            Thread other = new Thread(() -> {
+                try {
+                    table.unlock(0);
+                    fail("Unlocked a lock owned by another thread");
+                } catch (IllegalMonitorStateException expected) {
+                    // continue
+                }
+            });
+            other.start();
+            other.join();
+
+            assertFalse(table.tryLock(0));
+            table.unlock(0);
+        }
+    }
+
+    @Test
+    public void verifyLockOfDeadProcessIsRecovered() throws IOException {
+        assumeTrue(Files.isDirectory(Paths.get("/proc")));
+        int deadPid = Integer.MAX_VALUE; // above any pid_max
+
+        try (SharedLockTable table = SharedLockTable.open(file, 2)) {
+            writeWord(1, OwnerStamp.of(deadPid, 1));
+            assertEquals(deadPid, table.ownerPid(1));
+            assertFalse(table.tryLock(1));
+
+            assertTrue(table.recover(1));
+            assertFalse(table.recover(1));
+
+            writeWord(1, OwnerStamp.of(deadPid, 1));
+            table.lock(1); // waits until it checks on the owner
+            assertEquals(OwnerStamp.CURRENT_PID, table.ownerPid(1));
+            table.unlock(1);
+        }
+    }
+
+    /**
+     * Writes a lock word like another process would, through a mapping of its own.
+     */
+    private void writeWord(int slot, long value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.nativeOrder()).putLong(slot * SharedLockTable.SLOT_SIZE, value);
+            buffer.force();
+        }
+    }
+}
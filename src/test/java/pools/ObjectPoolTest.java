@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package pools;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+
+/**
+ * Verifies the sanity of {@link ObjectPool}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class ObjectPoolTest {
+
+    @Test
+    public void verifyReuseOnSameThread() {
+        ObjectPool<Object> pool = new ObjectPool<>(Object::new, 4, 4, object -> {});
+
+        Object first = pool.acquire();
+        pool.release(first);
+        assertSame(first, pool.acquire());
+        pool.release(first);
+
+        List<Object> objects = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            objects.add(pool.acquire());
+        objects.forEach(pool::release);
+        for (int i = 0; i < 20; i++)
+            pool.acquire();
+
+        assertEquals(20, pool.created());
+        assertEquals(0, pool.dropped());
+    }
+
+    /**
+     * Objects released by one thread beyond its own two magazines go to the depot and are
+     * taken from there by another thread.
+     */
+    @Test
+    public void verifyTransferThroughDepot() throws InterruptedException {
+        final int magazineSize = 4, objects = 100;
+        final ObjectPool<Object> pool = new ObjectPool<>(Object::new, magazineSize, 64, object -> {});
+
+        Thread releasing = new Thread(() -> {
+            for (int i = 0; i < objects; i++)
+                pool.release(new Object());
+        });
+        releasing.start();
+        releasing.join();
+
+        int inDepot = objects - 2 * magazineSize;
+        assertEquals(inDepot / magazineSize, pool.depotSize());
+
+        for (int i = 0; i < objects; i++)
+            pool.acquire();
+
+        assertEquals(objects - inDepot, pool.created());
+        assertEquals(0, pool.depotSize());
+    }
+
+    @Test
+    public void verifyReleasePolicyWhenDepotFull() {
+        List<Object> released = new ArrayList<>();
+        ObjectPool<Object> pool = new ObjectPool<>(Object::new, 2, 2, released::add);
+
+        // two magazines of the thread and two in the depot
+        for (int i = 0; i < 10; i++)
+            pool.release(i);
+
+        assertEquals(2, pool.depotSize());
+        assertEquals(2, pool.dropped());
+        assertEquals(2, released.size());
+    }
+
+    /**
+     * N threads acquire objects, hand some of them over to each other and release them.
+     * An object must never be handed out while somebody else is still holding it.
+     */
+    @Test
+    public void verifyExclusiveOwnership() {
+        final int N = 4, rounds = 20_000;
+        final ObjectPool<AtomicBoolean> pool = new ObjectPool<>(AtomicBoolean::new, 8, 4, object -> {});
+        final ConcurrentLinkedQueue<AtomicBoolean> handOff = new ConcurrentLinkedQueue<>();
+        final AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++) {
+            threads.add(new Thread(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    AtomicBoolean held = pool.acquire();
+                    if(!held.compareAndSet(false, true))
+                        failure.compareAndSet(null, "Object handed out while held");
+
+                    if(round % 2 == 0) {
+                        handOff.offer(held);
+                    } else {
+                        held.set(false);
+                        pool.release(held);
+                    }
+
+                    AtomicBoolean other = handOff.poll();
+                    if(other != null) {
+                        other.set(false);
+                        pool.release(other);
+                    }
+                    if(round % 256 == 0)
+                        Thread.yield();
+                }
+            }, "Thread" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        assertNull(failure.get());
+    }
+}
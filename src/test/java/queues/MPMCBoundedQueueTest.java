@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package queues;
+
+import org.junit.Test;
+import spinlocks.BackOffWaitStrategy;
+import spinlocks.BusySpinWaitStrategy;
+import spinlocks.IWaitStrategy;
+import spinlocks.SpinHintWaitStrategy;
+import spinlocks.SpinThenParkWaitStrategy;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link MPMCBoundedQueue}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class MPMCBoundedQueueTest {
+
+    @Test
+    public void verifyFifoOrderAndCapacity() {
+        MPMCBoundedQueue<Integer> queue = new MPMCBoundedQueue<>(4, new BusySpinWaitStrategy());
+
+        for (int i = 0; i < 4; i++)
+            assertTrue(queue.offer(i));
+        assertTrue(!queue.offer(4));
+        assertEquals(4, queue.size());
+
+        for (int i = 0; i < 4; i++)
+            assertEquals(Integer.valueOf(i), queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void verifyBatchOfferAndDrain() {
+        MPMCBoundedQueue<Integer> queue = new MPMCBoundedQueue<>(8, new BusySpinWaitStrategy());
+        queue.offer(-1);
+
+        assertEquals(7, queue.offer(new Integer[]{0, 1, 2, 3, 4, 5, 6, 7, 8}));
+        assertEquals(0, queue.offer(new Integer[]{9}));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, queue.drain(drained::add, 3));
+        assertEquals(5, queue.drain(drained::add, 100));
+        assertEquals(0, queue.drain(drained::add, 100));
+
+        for (int i = 0; i < drained.size(); i++)
+            assertEquals(Integer.valueOf(i - 1), drained.get(i));
+    }
+
+    @Test
+    public void verifyFailingConsumerDoesNotBlockQueue() {
+        MPMCBoundedQueue<Integer> queue = new MPMCBoundedQueue<>(2, new BusySpinWaitStrategy());
+        queue.offer(new Integer[]{1, 2});
+
+        try {
+            queue.drain(e -> { throw new IllegalStateException(); }, 2);
+        } catch (IllegalStateException expected) {
+            // continue
+        }
+
+        assertEquals(2, queue.offer(new Integer[]{3, 4}));
+        assertEquals(Integer.valueOf(3), queue.poll());
+    }
+
+    @Test
+    public void verifyHandOffWithBusySpin() {
+        doVerifyHandOff(new BusySpinWaitStrategy());
+    }
+
+    @Test
+    public void verifyHandOffWithSpinHint() {
+        doVerifyHandOff(new SpinHintWaitStrategy());
+    }
+
+    @Test
+    public void verifyHandOffWithBackOff() {
+        doVerifyHandOff(new BackOffWaitStrategy(1, 64, TimeUnit.MICROSECONDS));
+    }
+
+    @Test
+    public void verifyHandOffWithSpinThenPark() {
+        doVerifyHandOff(new SpinThenParkWaitStrategy());
+    }
+
+    /**
+     * Several producers put single elements and batches while several consumers
+     * take and drain them. Every element must come out exactly once.
+     */
+    private void doVerifyHandOff(IWaitStrategy waitStrategy) {
+        final int producers = 4, consumers = 4, perProducer = 10_000;
+        final long total = (long) producers * perProducer;
+        final MPMCBoundedQueue<Long> queue = new MPMCBoundedQueue<>(64, waitStrategy);
+        final AtomicLong consumed = new AtomicLong();
+        final AtomicLong sum = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final long base = (long) p * perProducer;
+            threads.add(new Thread(() -> {
+                Long[] batch = new Long[4];
+                for (long i = 0; i < perProducer; ) {
+                    if(i % 2 == 0 || perProducer - i < batch.length) {
+                        queue.put(base + i++);
+                    } else {
+                        for (int b = 0; b < batch.length; b++)
+                            batch[b] = base + i + b;
+                        int offered;
+                        while((offered = queue.offer(batch)) == 0)
+                            Thread.yield();
+                        i += offered;
+                    }
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            final boolean draining = c % 2 == 0;
+            threads.add(new Thread(() -> {
+                while(consumed.get() < total) {
+                    int n = 0;
+                    if(draining) {
+                        n = queue.drain(sum::addAndGet, 16);
+                    } else {
+                        Long e = queue.poll();
+                        if(e != null) {
+                            sum.addAndGet(e);
+                            n = 1;
+                        }
+                    }
+
+                    if(n == 0)
+                        Thread.yield(); // let producers catch up
+                    else
+                        consumed.addAndGet(n);
+                }
+            }));
+        }
+
+        TestThreads.runAll(threads);
+
+        assertEquals(total, consumed.get());
+        assertEquals(total * (total - 1) / 2, sum.get());
+        assertTrue(queue.isEmpty());
+    }
+}
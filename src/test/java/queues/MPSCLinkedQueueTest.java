@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package queues;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link MPSCLinkedQueue}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class MPSCLinkedQueueTest {
+
+    @Test
+    public void verifyFifoOrder() {
+        MPSCLinkedQueue<Integer> queue = new MPSCLinkedQueue<>();
+        assertTrue(queue.isEmpty());
+
+        queue.offer(0);
+        assertEquals(3, queue.offer(new Integer[]{1, 2, 3}));
+        queue.offer(4);
+        assertEquals(5, queue.size());
+
+        assertEquals(Integer.valueOf(0), queue.poll());
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, queue.drain(drained::add, 2));
+        assertEquals(2, queue.drain(drained::add, 10));
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+
+        for (int i = 0; i < drained.size(); i++)
+            assertEquals(Integer.valueOf(i + 1), drained.get(i));
+    }
+
+    @Test
+    public void verifyHandOff() throws InterruptedException {
+        doVerifyHandOff(false);
+    }
+
+    @Test
+    public void verifyHandOffWithPooledNodes() throws InterruptedException {
+        doVerifyHandOff(true);
+    }
+
+    /**
+     * Several producers offer singles and batches while the consumer drains. Every
+     * element must come out exactly once and in the order of its producer.
+     */
+    private void doVerifyHandOff(boolean pooledNodes) throws InterruptedException {
+        final int producers = 4, perProducer = 50_000;
+        final MPSCLinkedQueue<long[]> queue = new MPSCLinkedQueue<>(pooledNodes);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; ) {
+                    if(i % 2 == 0 || perProducer - i < 4) {
+                        queue.offer(new long[]{producer, i++});
+                    } else {
+                        long[][] batch = new long[4][];
+                        for (int b = 0; b < batch.length; b++)
+                            batch[b] = new long[]{producer, i++};
+                        queue.offer(batch);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+
+        long[] lastSeen = new long[producers];
+        Arrays.fill(lastSeen, -1);
+        int received = 0;
+        while(received < producers * perProducer) {
+            int n = queue.drain(e -> {
+                assertEquals(lastSeen[(int) e[0]] + 1, e[1]);
+                lastSeen[(int) e[0]] = e[1];
+            }, 64);
+
+            if(n == 0)
+                Thread.yield();
+            received += n;
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+        assertTrue(queue.isEmpty());
+    }
+}
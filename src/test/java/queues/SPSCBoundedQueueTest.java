@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package queues;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link SPSCBoundedQueue}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SPSCBoundedQueueTest {
+
+    @Test
+    public void verifyFifoOrderAndCapacity() {
+        SPSCBoundedQueue<Integer> queue = new SPSCBoundedQueue<>(4);
+
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++)
+                assertTrue(queue.offer(i));
+            assertTrue(!queue.offer(4));
+            assertEquals(4, queue.size());
+
+            for (int i = 0; i < 4; i++)
+                assertEquals(Integer.valueOf(i), queue.poll());
+            assertNull(queue.poll());
+        }
+    }
+
+    @Test
+    public void verifyBatchOfferAndDrain() {
+        SPSCBoundedQueue<Integer> queue = new SPSCBoundedQueue<>(8);
+        queue.offer(-1);
+
+        assertEquals(7, queue.offer(new Integer[]{0, 1, 2, 3, 4, 5, 6, 7, 8}));
+        assertEquals(0, queue.offer(new Integer[]{9}));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, queue.drain(drained::add, 3));
+        assertEquals(3, queue.offer(new Integer[]{7, 8, 9}));
+        assertEquals(8, queue.drain(drained::add, 100));
+        assertEquals(0, queue.drain(drained::add, 100));
+
+        for (int i = 0; i < drained.size(); i++)
+            assertEquals(Integer.valueOf(i - 1), drained.get(i));
+    }
+
+    /**
+     * One producer offers singles and batches while one consumer polls and
+     * drains. Elements must come out exactly once and in order.
+     */
+    @Test
+    public void verifyHandOff() throws InterruptedException {
+        final int total = 200_000;
+        final SPSCBoundedQueue<Integer> queue = new SPSCBoundedQueue<>(256);
+        final List<Integer> received = new ArrayList<>(total);
+
+        Thread producer = new Thread(() -> {
+            Integer[] batch = new Integer[8];
+            for (int i = 0; i < total; ) {
+                int offered;
+                if(i % 3 == 0 || total - i < batch.length) {
+                    offered = queue.offer(i) ? 1 : 0;
+                } else {
+                    for (int b = 0; b < batch.length; b++)
+                        batch[b] = i + b;
+                    offered = queue.offer(batch);
+                }
+
+                if(offered == 0)
+                    Thread.yield();
+                i += offered;
+            }
+        });
+
+        Thread consumer = new Thread(() -> {
+            while(received.size() < total) {
+                int n = 0;
+                if(received.size() % 2 == 0) {
+                    n = queue.drain(received::add, 32);
+                } else {
+                    Integer e = queue.poll();
+                    if(e != null) {
+                        received.add(e);
+                        n = 1;
+                    }
+                }
+
+                if(n == 0)
+                    Thread.yield();
+            }
+        });
+
+        producer.start();
+        consumer.start();
+        producer.join();
+        consumer.join();
+
+        for (int i = 0; i < total; i++)
+            assertEquals(Integer.valueOf(i), received.get(i));
+        assertTrue(queue.isEmpty());
+    }
+}
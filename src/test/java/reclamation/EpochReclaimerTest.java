@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package reclamation;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static junit.framework.TestCase.assertEquals;
+
+/**
+ * Verifies the sanity of {@link EpochReclaimer}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class EpochReclaimerTest {
+
+    @Test
+    public void verifyReclamationWithoutReaders() {
+        EpochReclaimer reclaimer = new EpochReclaimer();
+        List<String> released = new ArrayList<>();
+
+        reclaimer.retire("a", released::add);
+        reclaimer.retire("b", released::add);
+        reclaimer.synchronize();
+
+        assertEquals(2, released.size());
+        assertEquals(0, reclaimer.pending());
+    }
+
+    @Test
+    public void verifyActiveReaderHoldsBackReclamation() throws InterruptedException {
+        final EpochReclaimer reclaimer = new EpochReclaimer();
+        final List<String> released = new ArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch leave = new CountDownLatch(1);
+
+        Thread reader = new Thread(() -> {
+            reclaimer.enter();
+            reclaimer.enter(); // nested
+            reclaimer.exit();
+            entered.countDown();
+            await(leave);
+            reclaimer.exit();
+        });
+        reader.start();
+        entered.await();
+
+        reclaimer.retire("a", released::add);
+        for (int i = 0; i < 10; i++)
+            reclaimer.tryReclaim();
+        assertEquals(0, released.size());
+        assertEquals(1, reclaimer.pending());
+
+        leave.countDown();
+        reader.join();
+
+        reclaimer.synchronize();
+        assertEquals(1, released.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void verifyExitWithoutEnterFails() {
+        new EpochReclaimer().exit();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            e.printStackTrace();// TODO: can be more distinctive here with thread id etc..
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package reclamation;
+
+import org.junit.Test;
+import spinlocks.CheckCheckSpinLock;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+
+/**
+ * Verifies the sanity of {@link LeftRight}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class LeftRightTest {
+
+    /**
+     * Readers keep checking an invariant of plain, unsynchronized fields which writers break
+     * in the middle of every mutation. No reader may ever see a copy being modified.
+     */
+    @Test
+    public void verifyReadersNeverSeeMutations() {
+        final int readers = 3, writers = 2, writes = 500, reads = 20_000;
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final LeftRight<Book> book = new LeftRight<>(new Book(), new Book(), new CheckCheckSpinLock());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < readers; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < reads; i++) {
+                    book.read(copy -> {
+                        long debit = copy.debit;
+                        Thread.yield(); // give writers a chance to switch the copies meanwhile
+                        if(copy.writing || debit + copy.credit != 0)
+                            failure.compareAndSet(null, "Read copy under modification");
+                        return debit;
+                    });
+                }
+            }, "Reader" + t));
+        }
+        for (int t = 0; t < writers; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < writes; i++) {
+                    book.write(copy -> {
+                        copy.writing = true;
+                        copy.debit--;
+                        Thread.yield(); // a reader on this copy would see the invariant broken now
+                        copy.credit++;
+                        copy.writing = false;
+                    });
+                }
+            }, "Writer" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        assertNull(failure.get());
+        // both copies went through all the writes
+        assertEquals(writers * writes, (long) book.read(copy -> copy.credit));
+        book.write(copy -> {});
+        assertEquals(writers * writes, (long) book.read(copy -> copy.credit));
+    }
+
+    @Test
+    public void verifyNestedReadsAndResults() {
+        LeftRight<Map<String, Integer>> map = new LeftRight<>(new HashMap<>(), new HashMap<>(), new CheckCheckSpinLock());
+
+        assertNull(map.writeAndGet(copy -> copy.put("a", 1)));
+        assertEquals(Integer.valueOf(1), map.writeAndGet(copy -> copy.put("a", 2)));
+
+        int sum = map.read(outer -> outer.get("a") + map.read(inner -> inner.get("a")));
+        assertEquals(4, sum);
+
+        map.write(Map::clear);
+        assertEquals(0, (int) map.read(Map::size));
+    }
+
+    private static class Book {
+        boolean writing;
+        long debit;
+        long credit;
+    }
+}
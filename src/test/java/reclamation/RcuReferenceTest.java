@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package reclamation;
+
+import org.junit.Test;
+import spinlocks.CheckCheckSpinLock;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+
+/**
+ * Verifies the sanity of {@link RcuReference}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class RcuReferenceTest {
+
+    /**
+     * Readers keep reading the current version while writers keep replacing it. No reader
+     * may ever find its version released, and every replaced version must be released.
+     */
+    @Test
+    public void verifyReadersNeverSeeReleasedVersions() {
+        final int readers = 3, writers = 2, updates = 500, reads = 20_000;
+        final EpochReclaimer reclaimer = new EpochReclaimer();
+        final AtomicInteger releasedVersions = new AtomicInteger();
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final RcuReference<Version> reference = new RcuReference<>(new Version(0), new CheckCheckSpinLock(),
+                reclaimer, version -> {
+                    version.released = true;
+                    releasedVersions.incrementAndGet();
+                });
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < readers; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < reads; i++) {
+                    reference.read(version -> {
+                        Thread.yield(); // give writers a chance to replace the version meanwhile
+                        if(version.released)
+                            failure.compareAndSet(null, "Read released version " + version.number);
+                        return version.number;
+                    });
+                }
+            }, "Reader" + t));
+        }
+        for (int t = 0; t < writers; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < updates; i++) {
+                    reference.update(version -> new Version(version.number + 1));
+                    Thread.yield();
+                }
+            }, "Writer" + t));
+        }
+
+        TestThreads.runAll(threads);
+        reclaimer.synchronize();
+
+        assertNull(failure.get());
+        assertEquals(writers * updates, (int) reference.read(version -> version.number));
+        assertEquals(writers * updates, releasedVersions.get());
+    }
+
+    private static class Version {
+        final int number;
+        volatile boolean released;
+
+        Version(int number) {
+            this.number = number;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package semaphores;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link QueuedSpinLatch}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class QueuedSpinLatchTest {
+
+    @Test
+    public void verifyWaitersAreReleased() {
+        doVerifyWaitersAreReleased(1000);
+    }
+
+    @Test
+    public void verifyParkedWaitersAreReleased() {
+        doVerifyWaitersAreReleased(0);
+    }
+
+    @Test
+    public void verifyTimeoutAndCount() {
+        QueuedSpinLatch latch = new QueuedSpinLatch(3, 10);
+
+        assertFalse(latch.await(1, TimeUnit.MILLISECONDS));
+        latch.countDown(2);
+        assertEquals(1, latch.getCount());
+
+        latch.countDown(5);
+        assertEquals(0, latch.getCount());
+        assertTrue(latch.await(1, TimeUnit.MILLISECONDS));
+
+        latch.countDown();
+        assertEquals(0, latch.getCount());
+        assertTrue(new QueuedSpinLatch(0).await(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void verifyTimedOutWaitersAreUnlinked() {
+        QueuedSpinLatch latch = new QueuedSpinLatch(1, 0);
+        Thread waiter = new Thread(latch::await, "Waiter");
+        waiter.start();
+        while(latch.queueLength() == 0)
+            Thread.yield();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(latch.await(0, TimeUnit.NANOSECONDS));
+            assertTrue(latch.queueLength() <= 2); // the waiter and the node just cancelled
+        }
+
+        latch.countDown();
+        TestThreads.join(waiter);
+        assertEquals(0, latch.queueLength());
+    }
+
+    /**
+     * A number of threads wait on the latch while the others count it down, every
+     * waiter must have seen all the count downs once it gets through.
+     */
+    private void doVerifyWaitersAreReleased(int spinsBeforePark) {
+        final int waiters = 4, counters = 3;
+        final QueuedSpinLatch latch = new QueuedSpinLatch(counters, spinsBeforePark);
+        final AtomicInteger countedDown = new AtomicInteger();
+        final AtomicInteger passed = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < waiters; t++) {
+            threads.add(new Thread(() -> {
+                latch.await();
+                if(countedDown.get() == counters)
+                    passed.incrementAndGet();
+            }, "Waiter" + t));
+        }
+        for (int t = 0; t < counters; t++) {
+            threads.add(new Thread(() -> {
+                Thread.yield();
+                countedDown.incrementAndGet();
+                latch.countDown();
+            }, "Counter" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        assertEquals(waiters, passed.get());
+        assertEquals(0, latch.getCount());
+    }
+}
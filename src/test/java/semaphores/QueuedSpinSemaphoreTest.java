@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package semaphores;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link QueuedSpinSemaphore}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class QueuedSpinSemaphoreTest {
+
+    @Test
+    public void verifyPermitsAreBounded() {
+        doVerifyPermitsAreBounded(1000);
+    }
+
+    @Test
+    public void verifyPermitsAreBoundedWhenParking() {
+        doVerifyPermitsAreBounded(0);
+    }
+
+    @Test
+    public void verifyBatchAcquireAndRelease() {
+        QueuedSpinSemaphore semaphore = new QueuedSpinSemaphore(5);
+
+        assertTrue(semaphore.tryAcquire(3));
+        assertFalse(semaphore.tryAcquire(3));
+        assertEquals(2, semaphore.availablePermits());
+
+        semaphore.acquire(2);
+        semaphore.release(5);
+        assertEquals(5, semaphore.availablePermits());
+        assertFalse(semaphore.hasQueuedThreads());
+    }
+
+    @Test
+    public void verifyTimeoutLeavesSemaphoreUsable() throws InterruptedException {
+        final QueuedSpinSemaphore semaphore = new QueuedSpinSemaphore(1, 10);
+        semaphore.acquire();
+
+        assertFalse(semaphore.tryAcquire(1, 1, TimeUnit.MILLISECONDS));
+
+        // a waiter queued before the timed out ones must still get the permit
+        final AtomicInteger acquired = new AtomicInteger();
+        Thread waiter = new Thread(() -> {
+            semaphore.acquire();
+            acquired.incrementAndGet();
+        });
+        waiter.start();
+        while(!semaphore.hasQueuedThreads())
+            Thread.yield();
+
+        Thread timedOut = new Thread(() -> semaphore.tryAcquire(1, 1, TimeUnit.MILLISECONDS));
+        timedOut.start();
+        timedOut.join();
+
+        semaphore.release();
+        waiter.join();
+
+        assertEquals(1, acquired.get());
+        assertEquals(0, semaphore.availablePermits());
+        semaphore.release();
+        assertTrue(semaphore.tryAcquire(1, 1, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Threads acquire a random number of permits, and while holding them, count the
+     * permits held overall. The count must never exceed the permits of the semaphore.
+     */
+    private void doVerifyPermitsAreBounded(int spinsBeforePark) {
+        final int N = 6, permits = 4, rounds = 2_000;
+        final QueuedSpinSemaphore semaphore = new QueuedSpinSemaphore(permits, spinsBeforePark);
+        final AtomicInteger held = new AtomicInteger();
+        final AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++) {
+            final int wanted = 1 + t % 2;
+            threads.add(new Thread(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    semaphore.acquire(wanted);
+                    if(held.addAndGet(wanted) > permits)
+                        failure.compareAndSet(null, "More than " + permits + " permits held");
+                    Thread.yield();
+                    held.addAndGet(-wanted);
+                    semaphore.release(wanted);
+                }
+            }, "Thread" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        assertNull(failure.get());
+        assertEquals(permits, semaphore.availablePermits());
+        assertFalse(semaphore.hasQueuedThreads());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package sets;
+
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.fail;
+
+/**
+ * Generic template to check if various implementations of {@link ILongSet}s
+ * are working fine.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public abstract class LongSetVerificationTemplate {
+
+    /**
+     * Returns the concrete implementation of {@link ILongSet} which has to be verified.
+     */
+    abstract ILongSet setUnderTest();
+
+    /**
+     * Applies random operations on a single thread and compares every outcome
+     * with a {@link TreeSet}.
+     */
+    protected void doVerifySetSemantics() {
+        ILongSet set = setUnderTest();
+        TreeSet<Long> expected = new TreeSet<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(0));
+        assertEquals(0, set.size());
+
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextLong(-100, 100);
+            int op = random.nextInt(3);
+            if(op == 0)
+                assertEquals(expected.add(key), set.add(key));
+            else if(op == 1)
+                assertEquals(expected.remove(key), set.remove(key));
+            else
+                assertEquals(expected.contains(key), set.contains(key));
+        }
+        assertEquals(expected.size(), set.size());
+
+        try {
+            set.add(Long.MAX_VALUE);
+            fail("Sentinel key accepted");
+        } catch (IllegalArgumentException expectedFailure) {
+            // continue
+        }
+    }
+
+    /**
+     * N threads add and remove keys of a small range, every key of the range being
+     * owned by one of them. A thread records whether each of its own keys is in the set
+     * and checks it against the set every time, while the neighbouring keys of the other
+     * threads keep changing. Contains is exercised on all the keys along the way.
+     *
+     * @param N number of threads
+     */
+    protected void doVerifySetSanity(int N) {
+        final int keysPerThread = 16, rounds = 5_000;
+        final ILongSet set = setUnderTest();
+        final AtomicIntegerArray present = new AtomicIntegerArray(N * keysPerThread);
+        final AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++) {
+            final int owner = t;
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int round = 0; round < rounds; round++) {
+                    // keys of the threads interleave so that they are neighbours in the set
+                    int key = random.nextInt(keysPerThread) * N + owner;
+                    boolean wasPresent = present.get(key) == 1;
+
+                    boolean changed = random.nextBoolean() ? set.add(key) : set.remove(key);
+                    if(changed)
+                        present.set(key, wasPresent ? 0 : 1);
+                    else if(set.contains(key) != wasPresent)
+                        failure.compareAndSet(null, "Key " + key + " expected present " + wasPresent);
+
+                    set.contains(random.nextInt(N * keysPerThread));
+                    if(round % 64 == 0)
+                        Thread.yield();
+                }
+            }, "Thread" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        assertNull(failure.get());
+
+        int expectedSize = 0;
+        for (int key = 0; key < present.length(); key++) {
+            assertEquals("Key " + key, present.get(key) == 1, set.contains(key));
+            expectedSize += present.get(key);
+        }
+        assertEquals(expectedSize, set.size());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link BiasedSpinLock}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class BiasedSpinLockTest extends SpinLockVerificationTemplate {
+
+    @Test
+    public void verifyLockSanity() {
+        doVerifyLockSanity(10);
+    }
+
+    @Test
+    public void verifyOwnerAgainstIntruders() {
+        BiasedSpinLock lock = new BiasedSpinLock(Integer.MAX_VALUE);
+        doVerifyOwnerAgainstIntruders(lock);
+        assertTrue(lock.isBiased());
+    }
+
+    @Test
+    public void verifyOwnerAgainstIntrudersAfterRevocation() {
+        BiasedSpinLock lock = new BiasedSpinLock(16);
+        doVerifyOwnerAgainstIntruders(lock);
+
+        Thread intruder = new Thread(() -> {
+            for (int round = 0; round < 16; round++) {
+                lock.lock();
+                lock.unlock();
+            }
+        });
+        intruder.start();
+        TestThreads.join(intruder);
+        assertFalse(lock.isBiased());
+
+        doVerifyOwnerAgainstIntruders(lock);
+    }
+
+    @Test
+    public void verifyOwnerAcquisitionResetsIntrusions() {
+        BiasedSpinLock lock = new BiasedSpinLock(3);
+        lock.lock();
+        lock.unlock();
+
+        intrude(lock, 2);
+        lock.lock(); // the owner in between starts the count over
+        lock.unlock();
+        intrude(lock, 2);
+        assertTrue(lock.isBiased());
+
+        intrude(lock, 1);
+        assertFalse(lock.isBiased());
+    }
+
+    @Test
+    public void verifyExplicitRevocation() {
+        BiasedSpinLock lock = new BiasedSpinLock();
+        lock.lock();
+        lock.unlock();
+        assertTrue(lock.isBiased());
+
+        lock.revokeBias();
+        assertFalse(lock.isBiased());
+        lock.lock();
+        lock.unlock();
+    }
+
+    private static void intrude(BiasedSpinLock lock, int times) {
+        Thread intruder = new Thread(() -> {
+            for (int i = 0; i < times; i++) {
+                lock.lock();
+                lock.unlock();
+            }
+        });
+        intruder.start();
+        TestThreads.join(intruder);
+    }
+
+    /**
+     * The owner keeps incrementing a plain counter under the lock, while a few intruders
+     * do the same now and then. The thread which locks first becomes the owner.
+     */
+    private void doVerifyOwnerAgainstIntruders(BiasedSpinLock lock) {
+        final int intruders = 3, ownerRounds = 20_000, intruderRounds = 500;
+        final long[] counter = new long[1];
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            for (int round = 0; round < ownerRounds; round++) {
+                lock.lock();
+                counter[0]++;
+                lock.unlock();
+            }
+        }, "Owner"));
+        for (int t = 0; t < intruders; t++) {
+            threads.add(new Thread(() -> {
+                for (int round = 0; round < intruderRounds; round++) {
+                    lock.lock();
+                    counter[0]++;
+                    lock.unlock();
+                    Thread.yield();
+                }
+            }, "Intruder" + t));
+        }
+
+        Thread owner = threads.get(0);
+        owner.start();
+        while(counter[0] == 0 && owner.isAlive()) // make sure the owner is biased to
+            Thread.yield();
+        for (int t = 1; t < threads.size(); t++)
+            threads.get(t).start();
+
+        threads.forEach(TestThreads::join);
+
+        assertEquals(ownerRounds + intruders * intruderRounds, counter[0]);
+    }
+
+    @Override
+    ISpinLock lockUnderTest() {
+        return new BiasedSpinLock();
+    }
+}
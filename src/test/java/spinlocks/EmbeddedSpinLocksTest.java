@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link EmbeddedTTASSpinLock}, {@link EmbeddedBackoffSpinLock}
+ * and {@link EmbeddedTicketSpinLock}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class EmbeddedSpinLocksTest {
+
+    private static final AtomicIntegerFieldUpdater<Record> LOCK =
+            AtomicIntegerFieldUpdater.newUpdater(Record.class, "lock");
+    private static final AtomicLongFieldUpdater<Record> TICKET =
+            AtomicLongFieldUpdater.newUpdater(Record.class, "ticket");
+
+    @Test
+    public void verifyTTASLockSanity() {
+        doVerifyLockSanity(new EmbeddedTTASSpinLock<>(LOCK));
+    }
+
+    @Test
+    public void verifyBackoffLockSanity() {
+        doVerifyLockSanity(new EmbeddedBackoffSpinLock<>(LOCK, 1, 16, TimeUnit.MICROSECONDS));
+    }
+
+    @Test
+    public void verifyTicketLockSanity() {
+        doVerifyLockSanity(new EmbeddedTicketSpinLock<>(TICKET));
+    }
+
+    @Test
+    public void verifyTryLock() {
+        EmbeddedTTASSpinLock<Record> lock = new EmbeddedTTASSpinLock<>(LOCK);
+        Record record = new Record();
+
+        assertTrue(lock.tryLock(record));
+        assertFalse(lock.tryLock(record));
+        lock.unlock(record);
+        assertEquals(EmbeddedSpinLockShared.FREE, record.lock);
+    }
+
+    @Test
+    public void verifyServedTicketWrapsAround() {
+        EmbeddedTicketSpinLock<Record> lock = new EmbeddedTicketSpinLock<>(TICKET);
+        Record record = new Record();
+        record.ticket = 0xFFFF_FFFF_FFFF_FFFFL; // next ticket and served ticket at their last value
+
+        lock.lock(record);
+        lock.unlock(record);
+        assertEquals(0L, record.ticket);
+
+        lock.lock(record);
+        lock.unlock(record);
+        assertEquals(0x0000_0001_0000_0001L, record.ticket);
+    }
+
+    /**
+     * Threads move amounts between a few records, each record guarded by its own
+     * embedded lock. The overall balance must stay the same.
+     */
+    private void doVerifyLockSanity(IEmbeddedSpinLock<Record> lock) {
+        final int N = 4, rounds = 5_000;
+        final Record[] records = new Record[3];
+        for (int r = 0; r < records.length; r++)
+            records[r] = new Record();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++) {
+            final int offset = t;
+            threads.add(new Thread(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    Record from = records[(round + offset) % records.length];
+                    Record to = records[(round + offset + 1) % records.length];
+
+                    lock.lock(from);
+                    from.balance -= round;
+                    lock.unlock(from);
+
+                    lock.lock(to);
+                    to.balance += round;
+                    lock.unlock(to);
+                }
+            }, "Thread" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        long total = 0;
+        for (Record record : records)
+            total += record.balance;
+        assertEquals(0, total);
+    }
+
+    private static class Record {
+        volatile int lock;
+        volatile long ticket;
+        long balance;
+    }
+}
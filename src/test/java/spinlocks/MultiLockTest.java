@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+/**
+ * Verifies the sanity of {@link MultiLock}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class MultiLockTest {
+
+    @Test
+    public void verifyOrderedTransfers() {
+        doVerifyTransfers(false);
+    }
+
+    @Test
+    public void verifyBackOffTransfers() {
+        doVerifyTransfers(true);
+    }
+
+    @Test
+    public void verifyDuplicatesAreTakenOnce() {
+        CheckCheckSpinLock lock = new CheckCheckSpinLock();
+
+        MultiLock.withAll(() -> {
+            assertFalse(lock.tryLock());
+            return null;
+        }, lock, lock, lock);
+
+        assertTrue(lock.tryLock()); // released once only
+        lock.unlock();
+    }
+
+    @Test
+    public void verifySecondCloseDoesNothing() {
+        CheckCheckSpinLock first = new CheckCheckSpinLock();
+        CheckCheckSpinLock second = new CheckCheckSpinLock();
+
+        MultiLock group = MultiLock.lockAll(first, second);
+        group.close();
+        assertTrue(first.tryLock());
+
+        group.close(); // leaves the lock taken since alone
+        assertFalse(first.tryLock());
+        assertTrue(second.tryLock());
+        first.unlock();
+        second.unlock();
+    }
+
+    @Test
+    public void verifyLocksAreReleasedOnException() {
+        CheckCheckSpinLock first = new CheckCheckSpinLock();
+        CheckCheckSpinLock second = new CheckCheckSpinLock();
+
+        try {
+            MultiLock.withAll(() -> { throw new IllegalStateException(); }, first, second);
+            fail("Action did not throw");
+        } catch (IllegalStateException expected) {
+            // continue
+        }
+
+        assertTrue(first.tryLock());
+        assertTrue(second.tryLock());
+    }
+
+    /**
+     * Threads move amounts between randomly picked accounts, locking 2 to 4 of them at a
+     * time. Any deadlock hangs the test, any race changes the total balance.
+     */
+    private void doVerifyTransfers(boolean backOff) {
+        final int N = 4, accounts = 6, rounds = 5_000;
+        final Account[] bank = new Account[accounts];
+        for (int a = 0; a < accounts; a++)
+            bank[a] = new Account();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int round = 0; round < rounds; round++) {
+                    Account[] legs = new Account[2 + random.nextInt(3)];
+                    ITrySpinLock[] locks = new ITrySpinLock[legs.length];
+                    for (int l = 0; l < legs.length; l++) {
+                        legs[l] = bank[random.nextInt(accounts)];
+                        locks[l] = legs[l].lock;
+                    }
+
+                    MultiLock group = backOff
+                            ? MultiLock.tryLockAll(1, 16, TimeUnit.MICROSECONDS, locks)
+                            : MultiLock.lockAll(locks);
+                    try {
+                        for (int l = 1; l < legs.length; l++) {
+                            legs[0].balance -= round;
+                            legs[l].balance += round;
+                        }
+                    } finally {
+                        group.close();
+                    }
+                }
+            }, "Thread" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        long total = 0;
+        for (Account account : bank)
+            total += account.balance;
+        assertEquals(0, total);
+    }
+
+    private static class Account {
+        final ITrySpinLock lock = new CheckCheckSpinLock();
+        long balance;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link OptimisticSpinLock}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class OptimisticSpinLockTest extends SpinLockVerificationTemplate {
+
+    @Test
+    public void verifyLockSanity() {
+        doVerifyLockSanity(10);
+    }
+
+    @Test
+    public void verifyStamps() {
+        OptimisticSpinLock lock = new OptimisticSpinLock();
+
+        long stamp = lock.tryOptimisticRead();
+        assertTrue(lock.validate(stamp));
+
+        lock.lock();
+        assertTrue(lock.isWriteLocked());
+        assertEquals(OptimisticSpinLock.INVALID_STAMP, lock.tryOptimisticRead());
+        lock.unlock();
+
+        assertFalse(lock.validate(stamp));
+        assertFalse(lock.validate(OptimisticSpinLock.INVALID_STAMP));
+        assertTrue(lock.validate(lock.tryOptimisticRead()));
+    }
+
+    /**
+     * Writers keep two fields equal under the lock while readers check them optimistically.
+     * No validated read may ever see them differ.
+     */
+    @Test
+    public void verifyReadersSeeConsistentState() {
+        final int readers = 3, writers = 2, rounds = 5_000;
+        final OptimisticSpinLock lock = new OptimisticSpinLock(new CheckCheckSpinLock(), 2);
+        final long[] pair = new long[2];
+        final AtomicReference<String> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < readers; t++) {
+            threads.add(new Thread(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    long difference = lock.read(() -> {
+                        long first = pair[0];
+                        Thread.yield(); // let writers interfere
+                        return first - pair[1];
+                    });
+                    if(difference != 0)
+                        failure.compareAndSet(null, "Read inconsistent pair");
+                }
+            }, "Reader" + t));
+        }
+        for (int t = 0; t < writers; t++) {
+            threads.add(new Thread(() -> {
+                for (int round = 0; round < rounds / 10; round++) {
+                    lock.lock();
+                    pair[0]++;
+                    Thread.yield();
+                    pair[1]++;
+                    lock.unlock();
+                }
+            }, "Writer" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        assertNull(failure.get());
+        assertEquals(writers * (rounds / 10), pair[1]);
+    }
+
+    @Override
+    ISpinLock lockUnderTest() {
+        return new OptimisticSpinLock();
+    }
+}
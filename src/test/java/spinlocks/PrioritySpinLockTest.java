@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link PrioritySpinLock}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class PrioritySpinLockTest extends SpinLockVerificationTemplate {
+
+    @Test
+    public void verifyLockSanity() {
+        doVerifyLockSanity(10);
+    }
+
+    @Test
+    public void verifyHandOffByPriority() {
+        assertEquals(Arrays.asList(5, 5, 3, 2, 1), handOffOrder(new PrioritySpinLock(), 1, 5, 3, 5, 2));
+    }
+
+    @Test
+    public void verifyBoundedBypass() {
+        // the first one gets bypassed once and must not be bypassed again
+        assertEquals(Arrays.asList(9, 1, 9), handOffOrder(new PrioritySpinLock(1), 1, 9, 9));
+        // never bypassed at all means arrival order
+        assertEquals(Arrays.asList(1, 9, 5), handOffOrder(new PrioritySpinLock(0), 1, 9, 5));
+    }
+
+    @Test
+    public void verifyTryLock() {
+        PrioritySpinLock lock = new PrioritySpinLock();
+        assertTrue(lock.tryLock());
+        assertFalse(lock.tryLock());
+        lock.unlock();
+        assertTrue(lock.tryLock());
+        lock.unlock();
+    }
+
+    /**
+     * Queues up a waiter of every given priority, in the given order, while holding the
+     * lock and then returns the priorities in the order the waiters got the lock.
+     */
+    private static List<Integer> handOffOrder(PrioritySpinLock lock, int... priorities) {
+        final List<Integer> order = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        lock.lock();
+        for (int priority : priorities) {
+            Thread thread = new Thread(() -> {
+                lock.lock(priority);
+                order.add(priority);
+                lock.unlock();
+            });
+            threads.add(thread);
+            thread.start();
+
+            while(lock.getQueueLength() < threads.size()) // let it queue up in order
+                Thread.yield();
+        }
+        lock.unlock();
+
+        threads.forEach(TestThreads::join);
+        return order;
+    }
+
+    @Override
+    ISpinLock lockUnderTest() {
+        return new PrioritySpinLock();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+
+/**
+ * Verifies the sanity of {@link Q_HemlockSpinLock}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class Q_HemlockSpinLockTest extends SpinLockVerificationTemplate {
+
+    @Test
+    public void verifyLockSanity() {
+        doVerifyLockSanity(10);
+    }
+
+    /**
+     * Threads hold several locks at a time, all of them through the one slot per thread.
+     */
+    @Test
+    public void verifyNestedLocks() {
+        final int N = 4, locks = 3, rounds = 2_000;
+        final ISpinLock[] nested = new ISpinLock[locks];
+        for (int l = 0; l < locks; l++)
+            nested[l] = new Q_HemlockSpinLock();
+        final long[] counters = new long[locks];
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++) {
+            threads.add(new Thread(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    for (int l = 0; l < locks; l++) {
+                        nested[l].lock();
+                        counters[l]++;
+                    }
+                    for (int l = locks - 1; l >= 0; l--)
+                        nested[l].unlock();
+                }
+            }, "Thread" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        for (int l = 0; l < locks; l++)
+            assertEquals(N * rounds, counters[l]);
+    }
+
+    @Override
+    ISpinLock lockUnderTest() {
+        return new Q_HemlockSpinLock();
+    }
+}
\ No newline at end of file
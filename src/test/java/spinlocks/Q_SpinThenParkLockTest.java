@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.TestCase.assertEquals;
+
+/**
+ * Verifies the sanity of {@link Q_SpinThenParkLock}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class Q_SpinThenParkLockTest extends SpinLockVerificationTemplate {
+
+    @Test
+    public void verifyLockSanity() {
+        doVerifyLockSanity(10);
+    }
+
+    /**
+     * Waiters park right away, so every hand over goes through an unpark.
+     */
+    @Test
+    public void verifyHandOverToParkedWaiters() {
+        final int N = 4, rounds = 2_000;
+        final ISpinLock lock = new Q_SpinThenParkLock(0, 0);
+        final long[] counter = new long[1];
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++) {
+            threads.add(new Thread(() -> {
+                for (int round = 0; round < rounds; round++) {
+                    lock.lock();
+                    counter[0]++;
+                    lock.unlock();
+                }
+            }, "Thread" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        assertEquals(N * rounds, counter[0]);
+    }
+
+    @Override
+    ISpinLock lockUnderTest() {
+        return new Q_SpinThenParkLock();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package spinlocks;
+
+import org.junit.Test;
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Verifies the sanity of {@link SpinLockWatchdog}
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public class SpinLockWatchdogTest {
+
+    private final SpinLockWatchdog watchdog = new SpinLockWatchdog(50, TimeUnit.MILLISECONDS, incident -> {});
+
+    @Test
+    public void verifyStuckSpinner() throws InterruptedException {
+        ISpinLock lock = new CheckCheckSpinLock();
+        lock.lock(); // uncontended, so nobody is suspected to own it
+
+        Thread spinner = new Thread(() -> {
+            lock.lock();
+            lock.unlock();
+        }, "spinner");
+        spinner.start();
+
+        SpinLockWatchdog.Incident incident = awaitIncident();
+        lock.unlock();
+        spinner.join();
+
+        assertEquals(SpinLockWatchdog.Incident.Kind.STUCK_SPINNER, incident.kind());
+        assertEquals(spinner, incident.threads().get(0));
+        assertTrue(incident.duration(TimeUnit.MILLISECONDS) >= 50);
+        assertTrue(incident.toString().contains("\"spinner\" waiting for spinlocks.CheckCheckSpinLock"));
+
+        // reported once only
+        assertTrue(watchdog.sample().isEmpty());
+    }
+
+    @Test
+    public void verifyLongHold() throws InterruptedException {
+        ISpinLock lock = new Q_MCSSpinLock();
+        CountDownLatch release = new CountDownLatch(1);
+
+        lock.lock();
+        Thread owner = new Thread(() -> {
+            lock.lock(); // after waiting, so it is tracked
+            await(release);
+            lock.unlock();
+        }, "owner");
+        owner.start();
+        awaitSpinning(owner);
+        lock.unlock();
+
+        Thread waiter = new Thread(() -> {
+            lock.lock();
+            lock.unlock();
+        }, "waiter");
+        waiter.start();
+
+        SpinLockWatchdog.Incident incident = awaitIncident();
+        release.countDown();
+        owner.join();
+        waiter.join();
+
+        assertEquals(SpinLockWatchdog.Incident.Kind.LONG_HOLD, incident.kind());
+        assertEquals(waiter, incident.threads().get(0));
+        assertEquals(owner, incident.threads().get(1));
+    }
+
+    @Test
+    public void verifyTerminatedAcquirerIsDropped() throws InterruptedException {
+        ISpinLock lock = new Q_MCSSpinLock(), other = new CheckCheckSpinLock();
+        CountDownLatch go = new CountDownLatch(1);
+
+        other.lock();
+        Thread spinner = new Thread(() -> {
+            other.lock(); // tracked from now on, before the acquirer terminates
+            other.unlock();
+            await(go);
+            lock.lock();
+            lock.unlock();
+        }, "spinner");
+        spinner.start();
+        awaitSpinning(spinner);
+        other.unlock();
+
+        lock.lock();
+        Thread acquirer = new Thread(() -> {
+            lock.lock(); // after waiting, so it is tracked
+            lock.unlock(); // uncontended, so it is not
+        }, "acquirer");
+        acquirer.start();
+        awaitSpinning(acquirer);
+        lock.unlock();
+        acquirer.join();
+
+        lock.lock(); // uncontended, the terminated acquirer is the last one known
+        go.countDown();
+
+        SpinLockWatchdog.Incident incident = awaitIncident();
+        lock.unlock();
+        spinner.join();
+
+        assertEquals(SpinLockWatchdog.Incident.Kind.STUCK_SPINNER, incident.kind());
+        assertEquals(spinner, incident.threads().get(0));
+        assertTrue(SpinLockMonitor.spinners().stream().noneMatch(s -> s.thread == acquirer));
+    }
+
+    @Test
+    public void verifySuspectedDeadlock() throws InterruptedException {
+        ISpinLock first = new CheckCheckSpinLock(), second = new CheckCheckSpinLock();
+        CountDownLatch owning = new CountDownLatch(2);
+
+        first.lock();
+        second.lock();
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> lockBoth(first, second, owning), "first-then-second"));
+        threads.add(new Thread(() -> lockBoth(second, first, owning), "second-then-first"));
+        threads.forEach(Thread::start);
+        threads.forEach(SpinLockWatchdogTest::awaitSpinning);
+        first.unlock(); // both get their first lock after waiting for it
+        second.unlock();
+
+        SpinLockWatchdog.Incident incident = awaitIncident();
+        first.unlock(); // break the deadlock
+        threads.forEach(TestThreads::join);
+
+        assertEquals(SpinLockWatchdog.Incident.Kind.SUSPECTED_DEADLOCK, incident.kind());
+        assertEquals(2, incident.threads().size());
+        assertTrue(incident.threads().containsAll(threads));
+    }
+
+    private static void lockBoth(ISpinLock one, ISpinLock other, CountDownLatch owning) {
+        one.lock();
+        owning.countDown();
+        await(owning);
+        other.lock();
+        other.unlock();
+        one.unlock();
+    }
+
+    private SpinLockWatchdog.Incident awaitIncident() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while(System.nanoTime() < deadline) {
+            List<SpinLockWatchdog.Incident> incidents = watchdog.sample();
+            if(!incidents.isEmpty()) {
+                assertEquals(1, incidents.size());
+                return incidents.get(0);
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("no incident reported");
+    }
+
+    private static void awaitSpinning(Thread thread) {
+        while(SpinLockMonitor.spinners().stream().noneMatch(s -> s.thread == thread && s.lock != null))
+            Thread.yield();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            e.printStackTrace();// TODO: can be more distinctive here with thread id etc..
+        }
+    }
+}
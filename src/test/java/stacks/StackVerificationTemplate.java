@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 NitinS (sin.nitins@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package stacks;
+
+import testutil.TestThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
+
+/**
+ * Generic template to check if various implementations of {@link IStack}s
+ * are working fine.
+ *
+ * @author Nitin S (sin.nitins@gmail.com)
+ */
+public abstract class StackVerificationTemplate {
+
+    /**
+     * Returns the concrete implementation of {@link IStack}
+     * which has to be verified.
+     */
+    abstract IStack<Long> stackUnderTest();
+
+    protected void doVerifyLastInFirstOut() {
+        IStack<Long> stack = stackUnderTest();
+        assertTrue(stack.isEmpty());
+
+        for (long i = 0; i < 10; i++)
+            stack.push(i);
+        for (long i = 9; i >= 0; i--)
+            assertEquals(Long.valueOf(i), stack.pop());
+
+        assertNull(stack.pop());
+        assertTrue(stack.isEmpty());
+    }
+
+    /**
+     * N threads use the stack as a pool, each pushes its own elements
+     * and pops whatever is on top. In the end every element must have been
+     * popped exactly once.
+     *
+     * @param N number of threads sharing the stack
+     */
+    protected void doVerifyPoolSanity(int N) {
+        final int perThread = 20_000;
+        final IStack<Long> stack = stackUnderTest();
+        final AtomicLong popped = new AtomicLong();
+        final AtomicLong sum = new AtomicLong();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < N; t++) {
+            final long base = (long) t * perThread;
+            threads.add(new Thread(() -> {
+                for (long i = 0; i < perThread; i++) {
+                    stack.push(base + i);
+                    Long e = stack.pop();
+                    if(e != null) {
+                        sum.addAndGet(e);
+                        popped.incrementAndGet();
+                    }
+                }
+            }, "Thread" + t));
+        }
+
+        TestThreads.runAll(threads);
+
+        Long e;
+        while((e = stack.pop()) != null) {
+            sum.addAndGet(e);
+            popped.incrementAndGet();
+        }
+
+        long total = (long) N * perThread;
+        assertEquals(total, popped.get());
+        assertEquals(total * (total - 1) / 2, sum.get());
+    }
+}